@@ -0,0 +1,79 @@
+package com.vgerbot.propify;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link Messager} that records diagnostics so they can be reported later, in order, on the
+ * processor thread.
+ *
+ * <p>Each annotated element is processed with its own buffer, which is replayed when the
+ * element is committed. This keeps the order of diagnostics the same as with sequential
+ * processing, whatever order the elements finish in.
+ *
+ * @since 3.1.0
+ */
+final class BufferedMessager implements Messager {
+    private final List<Entry> entries = new ArrayList<>();
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg) {
+        printMessage(kind, msg, null, null, null);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e) {
+        printMessage(kind, msg, e, null, null);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a) {
+        printMessage(kind, msg, e, a, null);
+    }
+
+    @Override
+    public synchronized void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a, AnnotationValue v) {
+        entries.add(new Entry(kind, msg.toString(), e, a, v));
+    }
+
+    /**
+     * Reports the recorded diagnostics to another messager and clears the buffer.
+     *
+     * @param target the messager to report to
+     */
+    synchronized void replay(Messager target) {
+        for (Entry entry : entries) {
+            if (entry.value != null) {
+                target.printMessage(entry.kind, entry.message, entry.element, entry.annotation, entry.value);
+            } else if (entry.annotation != null) {
+                target.printMessage(entry.kind, entry.message, entry.element, entry.annotation);
+            } else if (entry.element != null) {
+                target.printMessage(entry.kind, entry.message, entry.element);
+            } else {
+                target.printMessage(entry.kind, entry.message);
+            }
+        }
+        entries.clear();
+    }
+
+    private static final class Entry {
+        final Diagnostic.Kind kind;
+        final String message;
+        final Element element;
+        final AnnotationMirror annotation;
+        final AnnotationValue value;
+
+        Entry(Diagnostic.Kind kind, String message, Element element, AnnotationMirror annotation, AnnotationValue value) {
+            this.kind = kind;
+            this.message = message;
+            this.element = element;
+            this.annotation = annotation;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.vgerbot.propify;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The processing environment seen while one annotated element is processed on a worker thread.
+ *
+ * <p>Diagnostics go to the element's {@link BufferedMessager} and resources are read through a
+ * {@link SynchronizedFiler} shared by all elements. Everything else is delegated to the
+ * compiler's environment.
+ *
+ * @since 3.1.0
+ */
+final class ElementProcessingEnvironment implements ProcessingEnvironment {
+    private final ProcessingEnvironment delegate;
+    private final Filer filer;
+    private final Messager messager;
+
+    ElementProcessingEnvironment(ProcessingEnvironment delegate, Filer filer, Messager messager) {
+        this.delegate = delegate;
+        this.filer = filer;
+        this.messager = messager;
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return delegate.getOptions();
+    }
+
+    @Override
+    public Messager getMessager() {
+        return messager;
+    }
+
+    @Override
+    public Filer getFiler() {
+        return filer;
+    }
+
+    @Override
+    public Elements getElementUtils() {
+        return delegate.getElementUtils();
+    }
+
+    @Override
+    public Types getTypeUtils() {
+        return delegate.getTypeUtils();
+    }
+
+    @Override
+    public SourceVersion getSourceVersion() {
+        return delegate.getSourceVersion();
+    }
+
+    @Override
+    public Locale getLocale() {
+        return delegate.getLocale();
+    }
+}
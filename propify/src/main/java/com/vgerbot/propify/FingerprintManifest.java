@@ -0,0 +1,185 @@
+package com.vgerbot.propify;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Persisted record of the inputs each generated source was built from.
+ *
+ * <p>Every annotation that generates a source has one entry, keyed by the annotated type and
+ * the annotation. The entry holds the resource location, the hash of its content, a
+ * fingerprint of all inputs (processor version, annotation attributes and content hash) and
+ * the hash of the generated source. When a later compilation computes the same fingerprint,
+ * the generated source can be reused instead of parsing the resource and generating it again.
+ *
+ * <p>Entries of types that are not processed in a compilation are kept, so incremental
+ * compilations that only process some types do not lose the others.
+ *
+ * @since 3.1.0
+ */
+final class FingerprintManifest {
+    static final String FILE_NAME = "fingerprints.properties";
+
+    private static final String GENERATED_TYPE = ".generatedType";
+    private static final String LOCATION = ".location";
+    private static final String CONTENT_HASH = ".contentHash";
+    private static final String FINGERPRINT = ".fingerprint";
+    private static final String OUTPUT_HASH = ".outputHash";
+
+    private final Path file;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+
+    private FingerprintManifest(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the manifest stored in a directory. A missing or unreadable manifest is treated
+     * as empty.
+     *
+     * @param directory the directory of the manifest
+     * @return the manifest
+     */
+    static FingerprintManifest load(Path directory) {
+        FingerprintManifest manifest = new FingerprintManifest(directory.resolve(FILE_NAME));
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(manifest.file)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            return manifest;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.endsWith(FINGERPRINT)) {
+                continue;
+            }
+            String key = name.substring(0, name.length() - FINGERPRINT.length());
+            Entry entry = new Entry(
+                    properties.getProperty(key + GENERATED_TYPE),
+                    properties.getProperty(key + LOCATION),
+                    properties.getProperty(key + CONTENT_HASH),
+                    properties.getProperty(name),
+                    properties.getProperty(key + OUTPUT_HASH));
+            if (entry.generatedType != null && entry.outputHash != null) {
+                manifest.entries.put(key, entry);
+            }
+        }
+        return manifest;
+    }
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Returns the fingerprints of all entries.
+     */
+    Set<String> fingerprints() {
+        Set<String> fingerprints = new HashSet<>();
+        for (Entry entry : entries.values()) {
+            fingerprints.add(entry.fingerprint);
+        }
+        return fingerprints;
+    }
+
+    void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (!entry.equals(previous)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Writes the manifest if it changed since it was loaded. The file is written to a
+     * temporary file first and then moved into place.
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+        Properties properties = new Properties();
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            String key = mapEntry.getKey();
+            Entry entry = mapEntry.getValue();
+            properties.setProperty(key + GENERATED_TYPE, entry.generatedType);
+            if (entry.location != null) {
+                properties.setProperty(key + LOCATION, entry.location);
+            }
+            if (entry.contentHash != null) {
+                properties.setProperty(key + CONTENT_HASH, entry.contentHash);
+            }
+            properties.setProperty(key + FINGERPRINT, entry.fingerprint);
+            properties.setProperty(key + OUTPUT_HASH, entry.outputHash);
+        }
+        Path directory = file.getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, FILE_NAME, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Propify generated source fingerprints");
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            modified = false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * The inputs and output of one generated source.
+     */
+    static final class Entry {
+        final String generatedType;
+        final String location;
+        final String contentHash;
+        final String fingerprint;
+        final String outputHash;
+
+        Entry(String generatedType, String location, String contentHash, String fingerprint, String outputHash) {
+            this.generatedType = generatedType;
+            this.location = location;
+            this.contentHash = contentHash;
+            this.fingerprint = fingerprint;
+            this.outputHash = outputHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) o;
+            return Objects.equals(generatedType, other.generatedType)
+                    && Objects.equals(location, other.location)
+                    && Objects.equals(contentHash, other.contentHash)
+                    && Objects.equals(fingerprint, other.fingerprint)
+                    && Objects.equals(outputHash, other.outputHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(generatedType, location, contentHash, fingerprint, outputHash);
+        }
+    }
+}
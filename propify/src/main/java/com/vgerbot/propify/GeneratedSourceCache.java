@@ -0,0 +1,126 @@
+package com.vgerbot.propify;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store of generated sources.
+ *
+ * <p>Every source is stored under the fingerprint of the inputs it was generated from, as
+ * {@code <fingerprint>/<qualified name>.java}. A source is written to a temporary file first
+ * and then moved into place, so concurrent builds sharing the store never read a partially
+ * written source.
+ *
+ * @see FingerprintManifest
+ * @since 3.1.0
+ */
+final class GeneratedSourceCache {
+    private static final String SUFFIX = ".java";
+
+    private final Path directory;
+
+    GeneratedSourceCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads the source stored for a fingerprint.
+     *
+     * @param fingerprint the fingerprint of the inputs
+     * @return the stored source, or null if none is stored
+     */
+    Entry read(String fingerprint) {
+        Path entry = directory.resolve(fingerprint);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(entry, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String code = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+                return new Entry(name.substring(0, name.length() - SUFFIX.length()), code);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Stores a source under a fingerprint. Since equal fingerprints stand for equal inputs, a
+     * source that is already stored is not written again.
+     *
+     * @param fingerprint the fingerprint of the inputs
+     * @param qualifiedName the qualified name of the generated type
+     * @param code the generated code
+     * @throws IOException if the source cannot be written
+     */
+    void write(String fingerprint, String qualifiedName, String code) throws IOException {
+        Path entry = directory.resolve(fingerprint);
+        Path target = entry.resolve(qualifiedName + SUFFIX);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(entry);
+        Path temp = Files.createTempFile(entry, qualifiedName, ".tmp");
+        try {
+            Files.write(temp, code.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes the sources of all fingerprints except the given ones.
+     *
+     * @param fingerprints the fingerprints to keep
+     * @throws IOException if the store cannot be listed
+     */
+    void retainAll(Set<String> fingerprints) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (!fingerprints.contains(entry.getFileName().toString())) {
+                    delete(entry);
+                }
+            }
+        }
+    }
+
+    private static void delete(Path entry) throws IOException {
+        if (!Files.isDirectory(entry)) {
+            Files.deleteIfExists(entry);
+            return;
+        }
+        try (Stream<Path> files = Files.list(entry)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(entry);
+    }
+
+    /**
+     * A stored source.
+     */
+    static final class Entry {
+        final String qualifiedName;
+        final String code;
+
+        Entry(String qualifiedName, String code) {
+            this.qualifiedName = qualifiedName;
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.vgerbot.propify;
+
+import com.vgerbot.propify.common.Digests;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Parsed resources shared by all annotations of one compilation.
+ *
+ * <p>Entries are keyed by the kind of parse, the resource location and the SHA-256 hash of the
+ * resource content, so annotations pointing at the same unchanged resource parse it only once,
+ * also across processing rounds. When several threads ask for the same entry, one of them
+ * parses it and the others wait for the result. Failed parses are not cached.
+ *
+ * <p>Cached values are shared and must only be read.
+ *
+ * @since 3.1.0
+ */
+final class ParsedResourceCache {
+    private final ConcurrentMap<String, FutureTask<Object>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the parsed value of a resource, parsing it if it is not cached yet.
+     *
+     * @param kind identifies how the content is parsed, for example the parser and its settings
+     * @param location the location of the resource
+     * @param contentHash the hash of the resource content, see {@link Digests#sha256(ByteBuffer)}
+     * @param parse parses the content
+     * @param <T> the type of the parsed value
+     * @return the parsed value
+     * @throws IOException if the content cannot be parsed
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String kind, String location, String contentHash, Callable<T> parse) throws IOException {
+        String key = kind + '\n' + location + '\n' + contentHash;
+        FutureTask<Object> task = new FutureTask<>((Callable<Object>) parse);
+        FutureTask<Object> existing = entries.putIfAbsent(key, task);
+        if (existing == null) {
+            task.run();
+        } else {
+            task = existing;
+        }
+        try {
+            return (T) task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing: " + location, e);
+        } catch (ExecutionException e) {
+            entries.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Failed to parse: " + location, cause);
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        entries.clear();
+    }
+}
@@ -1,5 +1,8 @@
 package com.vgerbot.propify;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vgerbot.propify.common.ByteBuffers;
+import com.vgerbot.propify.common.Digests;
 import com.vgerbot.propify.common.Utils;
 import com.vgerbot.propify.core.*;
 import com.vgerbot.propify.generator.I18nJavaPoetCodeGenerator;
@@ -7,11 +10,12 @@ import com.vgerbot.propify.generator.PropifyCodeGenerator;
 import com.vgerbot.propify.i18n.CompileTimePropifyResourceBundleControl;
 import com.vgerbot.propify.i18n.I18n;
 import com.vgerbot.propify.loader.CompileTimeResourceLoaderProvider;
+import com.vgerbot.propify.loader.HTTPResourceLoader;
 import com.vgerbot.propify.logger.CompileTimeLogger;
 import com.vgerbot.propify.schema.SchemaContext;
 import com.vgerbot.propify.schema.SchemaDefinition;
 import com.vgerbot.propify.schema.SchemaGen;
-import com.vgerbot.propify.schema.SchemaParser;
+import com.vgerbot.propify.schema.JsonTreeSchemaParser;
 import com.vgerbot.propify.schema.SchemaType;
 import com.vgerbot.propify.schema.generator.SchemaCodeGenerator;
 import com.vgerbot.propify.schema.parser.JsonSchemaParser;
@@ -25,13 +29,36 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Annotation processor that handles {@link Propify}, {@link I18n}, and {@link SchemaGen} annotations.
@@ -61,8 +88,38 @@ import java.util.Set;
 })
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
 public class PropifyProcessor extends AbstractProcessor {
+    /**
+     * Processor option with the maximum number of annotated elements whose resources are loaded,
+     * parsed and generated concurrently. Defaults to the number of available processors; {@code 1}
+     * processes the elements one after another on the compiler thread.
+     *
+     * @since 3.1.0
+     */
+    public static final String PARALLELISM_OPTION = "propify.parallelism";
+
+    /**
+     * Processor option with the directory of the fingerprint manifest. Defaults to a
+     * {@code propify-cache} directory next to the class output directory, for example
+     * {@code target/propify-cache} in Maven builds.
+     *
+     * @since 3.1.0
+     */
+    public static final String CACHE_DIR_OPTION = "propify.cacheDir";
+
+    private static final String CACHE_DIRECTORY_NAME = "propify-cache";
+    private static final Pattern PLACEHOLDER = Pattern.compile("(?<!\\$)\\$\\{[^}]*}");
+
     public static ProcessingEnvironment processingEnvironment;
     private Messager messager;
+    private Filer filer;
+    private HTTPResourceLoader httpResourceLoader;
+    private int parallelism;
+    private final ParsedResourceCache parsedResources = new ParsedResourceCache();
+    private FingerprintManifest manifest;
+    private GeneratedSourceCache generatedSources;
+    private String processorVersion;
+    private final JsonSchemaParser jsonSchemaParser = new JsonSchemaParser();
+    private final OpenApiSchemaParser openApiSchemaParser = new OpenApiSchemaParser();
 
     /**
      *
@@ -79,6 +136,13 @@ public class PropifyProcessor extends AbstractProcessor {
         super.init(processingEnv);
         PropifyProcessor.processingEnvironment = processingEnv;
         this.messager = processingEnv.getMessager();
+        this.filer = new SynchronizedFiler(processingEnv.getFiler());
+        this.httpResourceLoader = new HTTPResourceLoader();
+        this.parallelism = parseParallelism(processingEnv.getOptions().get(PARALLELISM_OPTION));
+        Path cacheDirectory = resolveCacheDirectory(processingEnv);
+        this.processorVersion = cacheDirectory == null ? null : resolveProcessorVersion();
+        this.manifest = processorVersion == null ? null : FingerprintManifest.load(cacheDirectory);
+        this.generatedSources = manifest == null ? null : new GeneratedSourceCache(cacheDirectory.resolve("sources"));
     }
 
     /**
@@ -95,6 +159,16 @@ public class PropifyProcessor extends AbstractProcessor {
         return set;
     }
 
+    /**
+     * Returns the options recognized by this processor.
+     *
+     * @return a set containing {@value #PARALLELISM_OPTION} and {@value #CACHE_DIR_OPTION}
+     */
+    @Override
+    public Set<String> getSupportedOptions() {
+        return new HashSet<>(Arrays.asList(PARALLELISM_OPTION, CACHE_DIR_OPTION));
+    }
+
     /**
      * Returns the latest supported source version.
      *
@@ -124,53 +198,325 @@ public class PropifyProcessor extends AbstractProcessor {
      */
     @Override
     public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final Map<TypeElement, Set<? extends Element>> annotatedElements = new LinkedHashMap<>();
         for (final TypeElement annotation : annotations) {
-            final Set<? extends Element> annotatedElements = roundEnv.getElementsAnnotatedWith(annotation);
+            annotatedElements.put(annotation, roundEnv.getElementsAnnotatedWith(annotation));
+        }
+        prefetchRemoteLocations(annotatedElements.values());
+        try {
+            final List<ElementTask> tasks = new ArrayList<>();
+            for (final Set<? extends Element> elements : annotatedElements.values()) {
+                for (final Element element : elements) {
+                    if (element instanceof TypeElement) {
+                        tasks.add(prepareElement((TypeElement) element));
+                    }
+                }
+            }
+            runTasks(tasks);
+        } finally {
+            httpResourceLoader.clearPrefetched();
+            if (roundEnv.processingOver()) {
+                parsedResources.clear();
+                saveManifest();
+            }
+        }
+        return true;
+    }
 
-            for (final Element element : annotatedElements) {
+    /**
+     * Runs the tasks of a round on a bounded pool and commits them on the processor thread,
+     * in the order of the tasks, as soon as each one and all the tasks before it are done.
+     */
+    private void runTasks(final List<ElementTask> tasks) {
+        final int threads = Math.min(parallelism, tasks.size());
+        if (threads <= 1) {
+            for (final ElementTask task : tasks) {
+                task.run();
+                commit(task);
+            }
+            return;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "propify-processor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (final ElementTask task : tasks) {
+                futures.add(executor.submit(task::run));
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                await(futures.get(i));
+                commit(tasks.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(final Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PropifyException("Interrupted while processing annotations", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new PropifyException("Failed to process annotation", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the number of elements processed concurrently, from the {@value #PARALLELISM_OPTION}
+     * option, defaulting to the number of available processors. An invalid value is reported as
+     * a warning and the default is used.
+     */
+    private int parseParallelism(final String value) {
+        final int defaultParallelism = Runtime.getRuntime().availableProcessors();
+        if (value == null || value.trim().isEmpty()) {
+            return defaultParallelism;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            messager.printMessage(Diagnostic.Kind.WARNING,
+                    "Invalid " + PARALLELISM_OPTION + " option: " + value + ", using " + defaultParallelism);
+            return defaultParallelism;
+        }
+    }
+
+    /**
+     * Starts downloading the remote resources of all {@link Propify} and {@link SchemaGen}
+     * annotations in this round concurrently, so processing them does not wait for one
+     * download after another.
+     */
+    private void prefetchRemoteLocations(final Collection<Set<? extends Element>> annotatedElements) {
+        List<String> locations = new ArrayList<>();
+        for (final Set<? extends Element> elements : annotatedElements) {
+            for (final Element element : elements) {
                 if (!(element instanceof TypeElement)) {
                     continue;
                 }
-
                 try {
                     Propify propifyAnnotation = element.getAnnotation(Propify.class);
                     if (propifyAnnotation != null) {
-                        processPropifyAnnotation(propifyAnnotation, (TypeElement) element);
-                    }
-                    I18n i18nAnnotation = element.getAnnotation(I18n.class);
-                    if (i18nAnnotation != null) {
-                        processI18nAnnotation(i18nAnnotation, (TypeElement) element);
+                        locations.add(propifyAnnotation.location());
                     }
                     SchemaGen schemaGenAnnotation = element.getAnnotation(SchemaGen.class);
                     if (schemaGenAnnotation != null) {
-                        processSchemaGenAnnotation(schemaGenAnnotation, (TypeElement) element);
-                    }
-                } catch (Exception e) {
-                    String message = e.getMessage();
-                    if (message != null) {
-                        if (message.contains("No parser found for media type")) {
-                            messager.printMessage(Diagnostic.Kind.ERROR,
-                                    "No parser found for media type", element);
-                        } else if (message.contains("Could not find resource")) {
-                            messager.printMessage(Diagnostic.Kind.ERROR,
-                                    "Could not find resource", element);
-                        } else {
-                            messager.printMessage(Diagnostic.Kind.ERROR,
-                                    "Failed to process annotation: " + message, element);
-                        }
-                    } else {
-                        throw new PropifyException("Failed to process annotation", e);
+                        locations.add(schemaGenAnnotation.location());
                     }
+                } catch (RuntimeException e) {
+                    // Reported when the element itself is processed
                 }
             }
         }
-        return true;
+        httpResourceLoader.prefetch(locations);
+    }
+
+    /**
+     * Returns the directory of the fingerprint manifest, or null if it cannot be determined,
+     * for example when the class output is not on the file system.
+     */
+    private static Path resolveCacheDirectory(final ProcessingEnvironment processingEnv) {
+        String option = processingEnv.getOptions().get(CACHE_DIR_OPTION);
+        if (option != null && !option.trim().isEmpty()) {
+            return Paths.get(option.trim());
+        }
+        try {
+            URI uri = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", CACHE_DIRECTORY_NAME)
+                    .toUri();
+            if (!"file".equals(uri.getScheme())) {
+                return null;
+            }
+            Path classOutput = Paths.get(uri).getParent();
+            return classOutput == null || classOutput.getParent() == null
+                    ? null : classOutput.getParent().resolve(CACHE_DIRECTORY_NAME);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
     }
 
     /**
-     * Processes an {@link I18n} annotation to generate internationalization support code.
+     * Identifies the processor build, so sources generated by another version are never
+     * reused. Released jars are identified by their version, size and modification time;
+     * class directories by the latest modification time of their class files.
+     */
+    private static String resolveProcessorVersion() {
+        try {
+            Path location = Paths.get(PropifyProcessor.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            String version = PropifyProcessor.class.getPackage().getImplementationVersion();
+            if (Files.isRegularFile(location)) {
+                return version + ":" + Files.size(location) + ":" + Files.getLastModifiedTime(location).toMillis();
+            }
+            try (Stream<Path> files = Files.walk(location)) {
+                return version + ":" + files.filter(file -> file.toString().endsWith(".class"))
+                        .mapToLong(file -> file.toFile().lastModified())
+                        .max()
+                        .orElse(0L);
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void saveManifest() {
+        if (manifest == null) {
+            return;
+        }
+        try {
+            manifest.save();
+            generatedSources.retainAll(manifest.fingerprints());
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Could not save the Propify fingerprint manifest: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Describes an annotation of an element with all its attribute values, including defaults.
+     */
+    private String describeAnnotation(final TypeElement element, final Class<?> annotationType) {
+        final StringBuilder description = new StringBuilder(element.getQualifiedName()).append('@').append(annotationType.getName());
+        final AnnotationMirror annotationMirror = getAnnotationMirror(element, annotationType);
+        if (annotationMirror != null) {
+            final Map<String, String> values = new TreeMap<>();
+            processingEnv.getElementUtils().getElementValuesWithDefaults(annotationMirror)
+                    .forEach((key, value) -> values.put(key.getSimpleName().toString(), String.valueOf(value)));
+            values.forEach((key, value) -> description.append('\n').append(key).append('=').append(value));
+        }
+        return description.toString();
+    }
+
+    /**
+     * Returns the source generated by a previous compilation from the same inputs, or null if
+     * there is none. The source is taken from the generated source store, so it survives a
+     * clean of the source output, and otherwise from the source output of the previous
+     * compilation.
+     */
+    private GeneratedSource reuseGeneratedSource(final ProcessingEnvironment environment, final String key,
+                                                 final String fingerprint, final String location) {
+        if (manifest == null) {
+            return null;
+        }
+        final GeneratedSourceCache.Entry stored = generatedSources.read(fingerprint);
+        if (stored != null) {
+            final String simpleName = stored.qualifiedName.substring(stored.qualifiedName.lastIndexOf('.') + 1);
+            return new GeneratedSource(stored.qualifiedName, stored.code,
+                    "Reused " + simpleName + " generated from unchanged " + location);
+        }
+        final FingerprintManifest.Entry entry = manifest.get(key);
+        if (entry == null || !fingerprint.equals(entry.fingerprint)) {
+            return null;
+        }
+        final String type = entry.generatedType;
+        final int dot = type.lastIndexOf('.');
+        final String simpleName = type.substring(dot + 1);
+        try {
+            final String code = SynchronizedFiler.readCharContent(environment.getFiler(),
+                    StandardLocation.SOURCE_OUTPUT, dot < 0 ? "" : type.substring(0, dot), simpleName + ".java");
+            if (!entry.outputHash.equals(Digests.sha256(code))) {
+                return null;
+            }
+            return new GeneratedSource(type, code, "Reused " + simpleName + " generated from unchanged " + location);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records the inputs of a generated source in the fingerprint manifest and stores the
+     * source under its fingerprint. The store is only an optimization, so a source that cannot
+     * be stored is simply generated again next time.
+     */
+    private GeneratedSource recordFingerprint(final String key, final GeneratedSource source, final String location,
+                                              final String contentHash, final String fingerprint) {
+        if (manifest != null) {
+            manifest.put(key, new FingerprintManifest.Entry(
+                    source.qualifiedName, location, contentHash, fingerprint, Digests.sha256(source.code)));
+            try {
+                generatedSources.write(fingerprint, source.qualifiedName, source.code);
+            } catch (IOException | RuntimeException e) {
+                // Regenerated on the next compilation
+            }
+        }
+        return source;
+    }
+
+    /**
+     * Reads the annotations of an element on the processor thread, since the language model is
+     * not thread-safe, and returns the work left to do for them.
+     */
+    private ElementTask prepareElement(final TypeElement element) {
+        final ElementTask task = new ElementTask(element);
+        final ProcessingEnvironment environment = new ElementProcessingEnvironment(processingEnv, filer, task.messager);
+        try {
+            Propify propifyAnnotation = element.getAnnotation(Propify.class);
+            if (propifyAnnotation != null) {
+                task.add(preparePropifyAnnotation(propifyAnnotation, element, environment));
+            }
+            I18n i18nAnnotation = element.getAnnotation(I18n.class);
+            if (i18nAnnotation != null) {
+                task.add(prepareI18nAnnotation(i18nAnnotation, element, environment));
+            }
+            SchemaGen schemaGenAnnotation = element.getAnnotation(SchemaGen.class);
+            if (schemaGenAnnotation != null) {
+                task.add(prepareSchemaGenAnnotation(schemaGenAnnotation, element, environment));
+            }
+        } catch (Exception e) {
+            task.failure = e;
+        }
+        return task;
+    }
+
+    /**
+     * Reports the diagnostics of a finished task and writes its generated files.
+     */
+    private void commit(final ElementTask task) {
+        task.messager.replay(messager);
+        Exception failure = task.failure;
+        for (final GeneratedSource source : task.sources) {
+            try {
+                final JavaFileObject file = filer.createSourceFile(source.qualifiedName, task.element);
+                try (Writer writer = file.openWriter()) {
+                    writer.write(source.code);
+                }
+            } catch (IOException e) {
+                failure = e;
+                break;
+            }
+            messager.printMessage(Diagnostic.Kind.NOTE, source.note, task.element);
+        }
+        if (failure != null) {
+            reportFailure(task.element, failure);
+        }
+    }
+
+    private void reportFailure(final Element element, final Exception e) {
+        String message = e.getMessage();
+        if (message != null) {
+            if (message.contains("No parser found for media type")) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "No parser found for media type", element);
+            } else if (message.contains("Could not find resource")) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Could not find resource", element);
+            } else {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to process annotation: " + message, element);
+            }
+        } else {
+            throw new PropifyException("Failed to process annotation", e);
+        }
+    }
+
+    /**
+     * Prepares an {@link I18n} annotation to generate internationalization support code.
      *
-     * <p>This method:
+     * <p>The returned job:
      * <ul>
      *   <li>Loads the base resource bundle</li>
      *   <li>Generates a type-safe wrapper class for accessing messages</li>
@@ -179,43 +525,52 @@ public class PropifyProcessor extends AbstractProcessor {
      *
      * @param i18nAnnotation the I18n annotation to process
      * @param element        the annotated type element
-     * @throws IOException if there are errors reading resources or writing generated code
+     * @param environment    the environment of the element
+     * @return the job generating the source
      */
-    private void processI18nAnnotation(final I18n i18nAnnotation, final TypeElement element) throws IOException {
+    private Callable<GeneratedSource> prepareI18nAnnotation(final I18n i18nAnnotation, final TypeElement element,
+                                                            final ProcessingEnvironment environment) {
         // Get package name
         final String packageName = processingEnv.getElementUtils()
                 .getPackageOf(element)
                 .getQualifiedName()
                 .toString();
 
-        String generatedClassName = i18nAnnotation.generatedClassName().replace("$$", element.getSimpleName().toString());
-
-        ResourceBundle resourceBundle = ResourceBundle.getBundle(i18nAnnotation.baseName(), new CompileTimePropifyResourceBundleControl(processingEnvironment));
-
-        // Generate code using JavaPoet
-        final String code = I18nJavaPoetCodeGenerator.getInstance()
-                .generateCode(packageName, generatedClassName, i18nAnnotation.baseName(), i18nAnnotation.defaultLocale(), resourceBundle);
-        // Write generated file
-        final JavaFileObject file = processingEnv.getFiler()
-                .createSourceFile(packageName + "." + generatedClassName);
+        final String generatedClassName = i18nAnnotation.generatedClassName().replace("$$", element.getSimpleName().toString());
+        final String baseName = i18nAnnotation.baseName();
+        final String defaultLocale = i18nAnnotation.defaultLocale();
+        final String annotationDescription = describeAnnotation(element, I18n.class);
+        final String fingerprintKey = element.getQualifiedName() + "@" + I18n.class.getSimpleName();
+
+        return () -> {
+            final CompileTimePropifyResourceBundleControl control = new CompileTimePropifyResourceBundleControl(environment);
+            String contentHash = null;
+            String fingerprint = null;
+            if (manifest != null) {
+                final Locale locale = Locale.getDefault();
+                contentHash = hashBundleResources(environment, control, baseName, locale);
+                fingerprint = Digests.sha256(processorVersion, annotationDescription, locale.toLanguageTag(), contentHash);
+                final GeneratedSource previous = reuseGeneratedSource(environment, fingerprintKey, fingerprint, baseName);
+                if (previous != null) {
+                    return recordFingerprint(fingerprintKey, previous, baseName, contentHash, fingerprint);
+                }
+            }
 
-        try (Writer writer = file.openWriter()) {
-            writer.write(code);
-        }
+            ResourceBundle resourceBundle = ResourceBundle.getBundle(baseName, control);
 
-        messager.printMessage(
-                Diagnostic.Kind.NOTE,
-                "Generated MessageResource for i18n support",
-                element
-        );
+            // Generate code using JavaPoet
+            final String code = I18nJavaPoetCodeGenerator.getInstance()
+                    .generateCode(packageName, generatedClassName, baseName, defaultLocale, resourceBundle);
+            return recordFingerprint(fingerprintKey, new GeneratedSource(packageName + "." + generatedClassName, code,
+                    "Generated MessageResource for i18n support"), baseName, contentHash, fingerprint);
+        };
     }
 
     /**
-     * Processes a {@link Propify} annotation to generate configuration classes.
+     * Prepares a {@link Propify} annotation to generate configuration classes.
      *
-     * <p>This method:
+     * <p>This method validates the annotation and creates a processing context. The returned job:
      * <ul>
-     *   <li>Creates a processing context</li>
      *   <li>Loads and parses the configuration file</li>
      *   <li>Generates a type-safe configuration class</li>
      *   <li>Handles automatic type conversion if enabled</li>
@@ -223,61 +578,144 @@ public class PropifyProcessor extends AbstractProcessor {
      *
      * @param propifyAnnotation the Propify annotation to process
      * @param element           the annotated type element
-     * @throws IOException if there are errors reading resources or writing generated code
+     * @param environment       the environment of the element
+     * @return the job generating the source, or null if the annotation is invalid
      */
-    private void processPropifyAnnotation(final Propify propifyAnnotation, final TypeElement element) throws IOException {
+    private Callable<GeneratedSource> preparePropifyAnnotation(final Propify propifyAnnotation, final TypeElement element,
+                                                               final ProcessingEnvironment environment) {
+        final Messager messager = environment.getMessager();
 
         AnnotationMirror annotationMirror = getAnnotationMirror(element, Propify.class);
 
         AnnotationValue annotationLookupsValue = getAnnotationValue(annotationMirror, "lookups");
         String[] lookups = Utils.getClassesFromAnnotationValue(annotationLookupsValue);
 
-        // Create context and load configuration
-        final PropifyContext context = new PropifyContext(
-                propifyAnnotation.location(),
-                propifyAnnotation.mediaType(),
-                propifyAnnotation.generatedClassName(),
-                propifyAnnotation.listDelimiter(),
-                lookups,
-                new CompileTimeResourceLoaderProvider(processingEnv),
-                new CompileTimeLogger(processingEnv)
-        );
-        PropifyConfigParserProvider provider = PropifyConfigParserProvider.getInstance();
-        // Load and parse properties
-        PropifyProperties properties;
-        PropifyPropertiesBuilder propifyPropertiesBuilder = new PropifyPropertiesBuilder();
-        try (InputStream stream = context.loadResource()) {
-            PropifyConfigParser parser = provider.getParser(context);
-            Configuration configuration = parser.parse(context, stream);
+        if (propifyAnnotation.embedded() && lookups.length > 0) {
+            messager.printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Custom lookups are not supported when embedded = true",
+                    element
+            );
+            return null;
+        }
 
-            propifyPropertiesBuilder.config(configuration);
+        if (propifyAnnotation.reload()) {
+            if (propifyAnnotation.embedded()) {
+                messager.printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "reload = true cannot be combined with embedded = true",
+                        element
+                );
+                return null;
+            }
+            if (!propifyAnnotation.location().startsWith("file:")) {
+                messager.printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "reload = true requires a file: location",
+                        element
+                );
+                return null;
+            }
         }
-        properties = propifyPropertiesBuilder.build();
 
-        // Generate code
+        // Create context
+        final PropifyContext context = PropifyContext.builder()
+                .location(propifyAnnotation.location())
+                .mediaType(propifyAnnotation.mediaType())
+                .generatedClassName(propifyAnnotation.generatedClassName())
+                .listDelimiter(propifyAnnotation.listDelimiter())
+                .lookups(lookups)
+                .embedded(propifyAnnotation.embedded())
+                .fieldBacked(propifyAnnotation.fieldBacked())
+                .copyArrays(propifyAnnotation.copyArrays())
+                .reload(propifyAnnotation.reload())
+                .reloadDebounceMillis(propifyAnnotation.reloadDebounceMillis())
+                .resourceLoaderProvider(new CompileTimeResourceLoaderProvider(environment, httpResourceLoader))
+                .logger(new CompileTimeLogger(environment))
+                .build();
+
         final String packageName = processingEnv.getElementUtils()
                 .getPackageOf(element)
                 .getQualifiedName()
                 .toString();
 
         final String generatedClassName = context.generateClassName(element.getSimpleName().toString());
+        final String annotationDescription = describeAnnotation(element, Propify.class);
+        final String fingerprintKey = element.getQualifiedName() + "@" + Propify.class.getSimpleName();
+
+        return () -> {
+            ByteBuffer buffer = context.loadResourceBuffer();
+            if (buffer == null) {
+                try (InputStream stream = context.loadResource()) {
+                    buffer = ByteBuffers.read(stream);
+                }
+            }
+            final ByteBuffer content = buffer;
+            final String contentHash = Digests.sha256(content);
+            final String fingerprint = Digests.sha256(processorVersion, annotationDescription, contentHash);
+            final GeneratedSource previous = reuseGeneratedSource(environment, fingerprintKey, fingerprint, context.getLocation());
+            if (previous != null) {
+                return recordFingerprint(fingerprintKey, previous, context.getLocation(), contentHash, fingerprint);
+            }
 
-        final String code = PropifyCodeGenerator.getInstance()
-                .generateCode(packageName, generatedClassName, context, properties);
+            // Parse properties, sharing the parsed configuration with other annotations
+            PropifyConfigParser parser = PropifyConfigParserProvider.getInstance().getParser(context);
+            Configuration configuration = parsedResources.get(
+                    "config:" + parser.getClass().getName() + ":" + context.getListDelimiter(),
+                    context.getLocation(), contentHash, () -> parser.parseBuffer(context, content));
+            if (context.isEmbedded()) {
+                rejectPlaceholders(configuration);
+            }
+            PropifyProperties properties = new PropifyPropertiesBuilder().config(configuration).build();
 
-        // Write generated file
-        final JavaFileObject file = processingEnv.getFiler()
-                .createSourceFile(packageName + "." + generatedClassName);
+            // Generate code
+            final String code = PropifyCodeGenerator.getInstance()
+                    .generateCode(packageName, generatedClassName, context, properties);
 
-        try (Writer writer = file.openWriter()) {
-            writer.write(code);
+            return recordFingerprint(fingerprintKey, new GeneratedSource(packageName + "." + generatedClassName, code,
+                    "Generated " + generatedClassName + " from " + context.getLocation()),
+                    context.getLocation(), contentHash, fingerprint);
+        };
+    }
+
+    /**
+     * Hashes every resource a bundle may be loaded from, in lookup order. Resources that do not
+     * exist are part of the hash as well, so adding a more specific bundle changes it.
+     */
+    private static String hashBundleResources(final ProcessingEnvironment environment,
+                                              final CompileTimePropifyResourceBundleControl control,
+                                              final String baseName, final Locale locale) {
+        final List<String> parts = new ArrayList<>();
+        for (String resourceName : control.getCandidateResourceNames(baseName, locale)) {
+            parts.add(resourceName);
+            try {
+                parts.add(Digests.sha256(SynchronizedFiler.readResource(
+                        environment.getFiler(), StandardLocation.CLASS_PATH, "", resourceName)));
+            } catch (IOException | RuntimeException e) {
+                parts.add("missing");
+            }
         }
+        return Digests.sha256(parts.toArray(new String[0]));
+    }
 
-        messager.printMessage(
-                Diagnostic.Kind.NOTE,
-                "Generated " + generatedClassName + " from " + propifyAnnotation.location(),
-                element
-        );
+    /**
+     * Rejects placeholders in a configuration that is embedded into the generated class. They
+     * would be resolved against the build machine, and their values are not part of the
+     * fingerprint, so the embedded values would silently differ from a runtime lookup.
+     */
+    private static void rejectPlaceholders(final Configuration configuration) {
+        final Iterator<String> keys = configuration.getKeys();
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            final Object value = configuration.getProperty(key);
+            final Collection<?> values = value instanceof Collection ? (Collection<?>) value : Collections.singleton(value);
+            for (Object item : values) {
+                if (item instanceof String && PLACEHOLDER.matcher((String) item).find()) {
+                    throw new PropifyException("Placeholders are not supported when embedded = true: "
+                            + key + " = " + item);
+                }
+            }
+        }
     }
 
     private static AnnotationMirror getAnnotationMirror(TypeElement typeElement, Class<?> clazz) {
@@ -303,11 +741,10 @@ public class PropifyProcessor extends AbstractProcessor {
     }
 
     /**
-     * Processes a {@link SchemaGen} annotation to generate POJO/DTO classes from schema definitions.
+     * Prepares a {@link SchemaGen} annotation to generate POJO/DTO classes from schema definitions.
      *
-     * <p>This method:
+     * <p>This method creates a schema context and selects the parser. The returned job:
      * <ul>
-     *   <li>Creates a schema context</li>
      *   <li>Loads and parses the schema file (JSON Schema, OpenAPI, etc.)</li>
      *   <li>Generates a mutable POJO class with getters, setters, and optional builder</li>
      *   <li>Adds Jackson and Bean Validation annotations as configured</li>
@@ -315,9 +752,11 @@ public class PropifyProcessor extends AbstractProcessor {
      *
      * @param schemaGenAnnotation the SchemaGen annotation to process
      * @param element             the annotated type element
-     * @throws IOException if there are errors reading resources or writing generated code
+     * @param environment         the environment of the element
+     * @return the job generating the source, or null if the schema type is not supported
      */
-    private void processSchemaGenAnnotation(final SchemaGen schemaGenAnnotation, final TypeElement element) throws IOException {
+    private Callable<GeneratedSource> prepareSchemaGenAnnotation(final SchemaGen schemaGenAnnotation, final TypeElement element,
+                                                                 final ProcessingEnvironment environment) {
         // Create schema context
         final SchemaContext context = new SchemaContext(
                 schemaGenAnnotation.location(),
@@ -330,8 +769,8 @@ public class PropifyProcessor extends AbstractProcessor {
                 schemaGenAnnotation.validationAnnotations(),
                 schemaGenAnnotation.serializable(),
                 schemaGenAnnotation.generateHelperMethods(),
-                new CompileTimeResourceLoaderProvider(processingEnv),
-                new CompileTimeLogger(processingEnv)
+                new CompileTimeResourceLoaderProvider(environment, httpResourceLoader),
+                new CompileTimeLogger(environment)
         );
 
         // Determine schema type
@@ -341,66 +780,72 @@ public class PropifyProcessor extends AbstractProcessor {
         }
 
         // Select appropriate parser
-        SchemaParser parser = null;
+        final JsonTreeSchemaParser parser;
         if (schemaType == SchemaType.JSON_SCHEMA) {
-            parser = new JsonSchemaParser();
+            parser = jsonSchemaParser;
         } else if (schemaType == SchemaType.OPENAPI) {
-            parser = new OpenApiSchemaParser();
-        }
-
-        if (parser == null) {
-            messager.printMessage(
+            parser = openApiSchemaParser;
+        } else {
+            environment.getMessager().printMessage(
                     Diagnostic.Kind.ERROR,
                     "Unsupported schema type: " + schemaType,
                     element
             );
-            return;
-        }
-
-        // Parse schema
-        SchemaDefinition schema;
-        try (InputStream stream = context.loadResource()) {
-            schema = parser.parse(context, stream);
+            return null;
         }
 
-        // Generate class name
         final String packageName = processingEnv.getElementUtils()
                 .getPackageOf(element)
                 .getQualifiedName()
                 .toString();
+        final String simpleName = element.getSimpleName().toString();
+        final String annotationDescription = describeAnnotation(element, SchemaGen.class);
+        final String fingerprintKey = element.getQualifiedName() + "@" + SchemaGen.class.getSimpleName();
+
+        return () -> {
+            ByteBuffer buffer = context.loadResourceBuffer();
+            if (buffer == null) {
+                try (InputStream stream = context.loadResource()) {
+                    buffer = ByteBuffers.read(stream);
+                }
+            }
+            final ByteBuffer content = buffer;
+            final String contentHash = Digests.sha256(content);
+            final String fingerprint = Digests.sha256(processorVersion, annotationDescription, contentHash);
+            final GeneratedSource previous = reuseGeneratedSource(environment, fingerprintKey, fingerprint, context.getLocation());
+            if (previous != null) {
+                return recordFingerprint(fingerprintKey, previous, context.getLocation(), contentHash, fingerprint);
+            }
 
-        String generatedClassName = context.getGeneratedClassName();
-        if (generatedClassName.contains("$$")) {
-            generatedClassName = generatedClassName.replace("$$", element.getSimpleName().toString());
-        } else if (generatedClassName.equals("$$")) {
-            generatedClassName = element.getSimpleName().toString();
-        }
-
-        // If schema has a name from the definition, use it
-        if (schema.getName() == null || schema.getName().isEmpty()) {
-            schema.setName(generatedClassName);
-        } else if (generatedClassName.equals(element.getSimpleName().toString())) {
-            // Use the schema's name if we're using the default
-            generatedClassName = schema.getName();
-        }
-
-        // Generate code
-        final String code = SchemaCodeGenerator.getInstance()
-                .generateCode(packageName, generatedClassName, context, schema);
+            // Parse schema, sharing the document tree with other annotations
+            JsonNode tree = parsedResources.get("schema:" + parser.getClass().getName(),
+                    context.getLocation(), contentHash, () -> parser.readTree(context, content));
+            SchemaDefinition schema = parser.parseTree(context, tree);
+
+            // Generate class name
+            String generatedClassName = context.getGeneratedClassName();
+            if (generatedClassName.contains("$$")) {
+                generatedClassName = generatedClassName.replace("$$", simpleName);
+            } else if (generatedClassName.equals("$$")) {
+                generatedClassName = simpleName;
+            }
 
-        // Write generated file
-        final JavaFileObject file = processingEnv.getFiler()
-                .createSourceFile(packageName + "." + generatedClassName);
+            // If schema has a name from the definition, use it
+            if (schema.getName() == null || schema.getName().isEmpty()) {
+                schema.setName(generatedClassName);
+            } else if (generatedClassName.equals(simpleName)) {
+                // Use the schema's name if we're using the default
+                generatedClassName = schema.getName();
+            }
 
-        try (Writer writer = file.openWriter()) {
-            writer.write(code);
-        }
+            // Generate code
+            final String code = SchemaCodeGenerator.getInstance()
+                    .generateCode(packageName, generatedClassName, context, schema);
 
-        messager.printMessage(
-                Diagnostic.Kind.NOTE,
-                "Generated " + generatedClassName + " from schema " + schemaGenAnnotation.location(),
-                element
-        );
+            return recordFingerprint(fingerprintKey, new GeneratedSource(packageName + "." + generatedClassName, code,
+                    "Generated " + generatedClassName + " from schema " + context.getLocation()),
+                    context.getLocation(), contentHash, fingerprint);
+        };
     }
 
     /**
@@ -430,4 +875,55 @@ public class PropifyProcessor extends AbstractProcessor {
         // Default to JSON Schema
         return SchemaType.JSON_SCHEMA;
     }
+
+    /**
+     * The work for one annotated element. The annotations are read on the processor thread;
+     * {@link #run()} may then be called on a worker thread, and the result is committed on
+     * the processor thread again.
+     */
+    private static final class ElementTask {
+        final TypeElement element;
+        final BufferedMessager messager = new BufferedMessager();
+        final List<Callable<GeneratedSource>> jobs = new ArrayList<>();
+        final List<GeneratedSource> sources = new ArrayList<>();
+        Exception failure;
+
+        ElementTask(TypeElement element) {
+            this.element = element;
+        }
+
+        void add(Callable<GeneratedSource> job) {
+            if (job != null) {
+                jobs.add(job);
+            }
+        }
+
+        void run() {
+            if (failure != null) {
+                return;
+            }
+            try {
+                for (Callable<GeneratedSource> job : jobs) {
+                    sources.add(job.call());
+                }
+            } catch (Exception e) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * A generated source file waiting to be written through the {@link Filer}.
+     */
+    private static final class GeneratedSource {
+        final String qualifiedName;
+        final String code;
+        final String note;
+
+        GeneratedSource(String qualifiedName, String code, String note) {
+            this.qualifiedName = qualifiedName;
+            this.code = code;
+            this.note = note;
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package com.vgerbot.propify;
+
+import com.vgerbot.propify.common.ByteBuffers;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Filer} that serializes all calls to the compiler's filer, which is not thread-safe.
+ *
+ * <p>Worker threads only read resources through it; generated files are still created on the
+ * processor thread. The lock only covers the calls of the {@link Filer} interface, not the
+ * {@link FileObject}s they return, so workers read resources with {@link #readResource} and
+ * {@link #readCharContent}, which hold the same lock until the content has been read.
+ *
+ * @since 3.1.0
+ */
+public final class SynchronizedFiler implements Filer {
+    private final Filer delegate;
+
+    SynchronizedFiler(Filer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) throws IOException {
+        return delegate.createSourceFile(name, originatingElements);
+    }
+
+    @Override
+    public synchronized JavaFileObject createClassFile(CharSequence name, Element... originatingElements) throws IOException {
+        return delegate.createClassFile(name, originatingElements);
+    }
+
+    @Override
+    public synchronized FileObject createResource(JavaFileManager.Location location, CharSequence moduleAndPkg,
+                                                  CharSequence relativeName, Element... originatingElements) throws IOException {
+        return delegate.createResource(location, moduleAndPkg, relativeName, originatingElements);
+    }
+
+    @Override
+    public synchronized FileObject getResource(JavaFileManager.Location location, CharSequence moduleAndPkg,
+                                               CharSequence relativeName) throws IOException {
+        return delegate.getResource(location, moduleAndPkg, relativeName);
+    }
+
+    /**
+     * Reads the complete content of a resource while holding the lock of the given filer.
+     *
+     * @param filer the filer, usually a {@code SynchronizedFiler}
+     * @param location the location of the resource
+     * @param moduleAndPkg the module and package of the resource, or an empty string
+     * @param relativeName the name of the resource relative to the package
+     * @return the content of the resource
+     * @throws IOException if the resource cannot be found or read
+     */
+    public static ByteBuffer readResource(Filer filer, JavaFileManager.Location location, CharSequence moduleAndPkg,
+                                          CharSequence relativeName) throws IOException {
+        synchronized (filer) {
+            FileObject file = filer.getResource(location, moduleAndPkg, relativeName);
+            if (file == null) {
+                throw new IOException("Could not find resource: " + relativeName);
+            }
+            try (InputStream stream = file.openInputStream()) {
+                return ByteBuffers.read(stream);
+            }
+        }
+    }
+
+    /**
+     * Reads the complete content of a text resource while holding the lock of the given filer.
+     *
+     * @param filer the filer, usually a {@code SynchronizedFiler}
+     * @param location the location of the resource
+     * @param moduleAndPkg the module and package of the resource, or an empty string
+     * @param relativeName the name of the resource relative to the package
+     * @return the content of the resource
+     * @throws IOException if the resource cannot be found or read
+     */
+    public static String readCharContent(Filer filer, JavaFileManager.Location location, CharSequence moduleAndPkg,
+                                         CharSequence relativeName) throws IOException {
+        synchronized (filer) {
+            FileObject file = filer.getResource(location, moduleAndPkg, relativeName);
+            if (file == null) {
+                throw new IOException("Could not find resource: " + relativeName);
+            }
+            return file.getCharContent(false).toString();
+        }
+    }
+}
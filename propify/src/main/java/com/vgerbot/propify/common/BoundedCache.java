@@ -0,0 +1,75 @@
+package com.vgerbot.propify.common;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A thread-safe cache that holds at most a fixed number of entries.
+ *
+ * <p>Lookups do not lock. Once the cache is full, adding an entry evicts the oldest ones, so
+ * a long-running process that keeps seeing new keys still caches its current working set
+ * instead of only the keys it saw first.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 3.1.0
+ */
+public final class BoundedCache<K, V> {
+    private final int maxSize;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize the maximum number of entries, at least 1
+     */
+    public BoundedCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached value of a key.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not cached
+     */
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches a value, replacing the value of a cached key, and evicts the oldest entries if the
+     * cache is full.
+     *
+     * @param key the key
+     * @param value the value, not null
+     */
+    public void put(K key, V value) {
+        if (entries.put(key, value) != null) {
+            return;
+        }
+        insertionOrder.add(key);
+        while (entries.size() > maxSize) {
+            K eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            entries.remove(eldest);
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.vgerbot.propify.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Helpers for reading resources provided as {@link ByteBuffer}s.
+ *
+ * <p>Heap buffers are handed to Jackson as byte arrays, without copying. Other buffers, such
+ * as memory-mapped ones, are read through a stream over the buffer. The position of the
+ * given buffers is never changed.
+ *
+ * @since 3.1.0
+ */
+public final class ByteBuffers {
+
+    private ByteBuffers() {
+    }
+
+    /**
+     * Returns a stream over the remaining content of a buffer.
+     *
+     * @param buffer the buffer
+     * @return an input stream reading the buffer
+     */
+    public static InputStream newInputStream(ByteBuffer buffer) {
+        return new ByteBufferBackedInputStream(buffer.duplicate());
+    }
+
+    /**
+     * Reads a stream to its end into a heap buffer.
+     *
+     * @param stream the stream, which is not closed
+     * @return a buffer holding everything read from the stream
+     * @throws IOException if the stream cannot be read
+     */
+    public static ByteBuffer read(InputStream stream) throws IOException {
+        byte[] bytes = new byte[8192];
+        int length = 0;
+        int read;
+        while ((read = stream.read(bytes, length, bytes.length - length)) != -1) {
+            length += read;
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+        }
+        return ByteBuffer.wrap(bytes, 0, length);
+    }
+
+    /**
+     * Creates a parser over the remaining content of a buffer.
+     *
+     * @param factory the factory of the data format
+     * @param buffer the buffer
+     * @return a parser reading the buffer
+     * @throws IOException if the parser cannot be created
+     */
+    public static JsonParser createParser(JsonFactory factory, ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            return factory.createParser(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return factory.createParser(newInputStream(buffer));
+    }
+
+    /**
+     * Reads the remaining content of a buffer as a tree.
+     *
+     * @param mapper the mapper of the data format
+     * @param buffer the buffer
+     * @return the root node, or a {@link MissingNode} if the buffer holds no content
+     * @throws IOException if the content cannot be parsed
+     */
+    public static JsonNode readTree(ObjectMapper mapper, ByteBuffer buffer) throws IOException {
+        try (JsonParser parser = createParser(mapper.getFactory(), buffer)) {
+            JsonNode node = mapper.readTree(parser);
+            return node == null ? MissingNode.getInstance() : node;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.vgerbot.propify.common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 helpers used to fingerprint resources and generated code.
+ *
+ * @since 3.1.0
+ */
+public final class Digests {
+
+    private Digests() {
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 hash of the remaining content of a buffer, without
+     * changing its position.
+     *
+     * @param content the content to hash
+     * @return the hash as 64 lower-case hex digits
+     */
+    public static String sha256(ByteBuffer content) {
+        MessageDigest digest = newDigest();
+        digest.update(content.duplicate());
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 hash of strings encoded as UTF-8. Each string is
+     * terminated by a zero byte, so different splits of the same characters hash differently.
+     *
+     * @param parts the strings to hash
+     * @return the hash as 64 lower-case hex digits
+     */
+    public static String sha256(String... parts) {
+        MessageDigest digest = newDigest();
+        for (String part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
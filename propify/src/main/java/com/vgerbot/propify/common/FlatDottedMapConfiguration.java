@@ -5,13 +5,11 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.configuration2.MapConfiguration;
-import org.apache.commons.configuration2.tree.DefaultExpressionEngine;
-import org.apache.commons.configuration2.tree.DefaultExpressionEngineSymbols;
-
-import com.vgerbot.propify.common.ReflectionUtils;
 
 /**
  * A configuration class that extends MapConfiguration to provide support for accessing
@@ -44,17 +42,37 @@ import com.vgerbot.propify.common.ReflectionUtils;
  * </pre>
  * 
  * <p>
- * The implementation uses Apache Commons Configuration2's DefaultExpressionEngine internally
- * with custom symbols to properly interpret the dotted notation and array indices.
+ * Keys are compiled into path segments once and the compiled paths are shared, so repeated
+ * lookups of the same key only walk the data structure. Fields used to navigate into plain
+ * objects are resolved once per class and name.
  * </p>
  * 
  * @see org.apache.commons.configuration2.MapConfiguration
- * @see org.apache.commons.configuration2.tree.DefaultExpressionEngine
  */
 public class FlatDottedMapConfiguration extends MapConfiguration {
-    
-    private final DefaultExpressionEngine expressionEngine;
-    
+
+    /**
+     * Upper bound for the number of compiled paths kept in {@link #COMPILED_PATHS}.
+     */
+    private static final int COMPILED_PATH_LIMIT = 4096;
+
+    /**
+     * Compiled keys, shared by all instances. Each segment is either a {@link String} map key
+     * or field name, or an {@link Integer} list index; invalid indices are stored as -1. The
+     * oldest keys are evicted once the limit is reached.
+     */
+    private static final BoundedCache<String, Object[]> COMPILED_PATHS = new BoundedCache<>(COMPILED_PATH_LIMIT);
+
+    /**
+     * Declared fields by name for each class navigated through reflectively.
+     */
+    private static final ClassValue<Map<String, Optional<Field>>> FIELDS = new ClassValue<Map<String, Optional<Field>>>() {
+        @Override
+        protected Map<String, Optional<Field>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
      * Creates a new FlatDottedMapConfiguration with the specified map.
      * 
@@ -62,7 +80,6 @@ public class FlatDottedMapConfiguration extends MapConfiguration {
      */
     public FlatDottedMapConfiguration(Map<String, ?> map) {
         super(map);
-        this.expressionEngine = createExpressionEngine();
     }
 
     /**
@@ -72,23 +89,6 @@ public class FlatDottedMapConfiguration extends MapConfiguration {
      */
     private FlatDottedMapConfiguration(Properties props) {
         super(props);
-        this.expressionEngine = createExpressionEngine();
-    }
-    
-    /**
-     * Creates a custom DefaultExpressionEngine with symbols that support
-     * the dotted notation and array indices.
-     * 
-     * @return The configured expression engine
-     */
-    private DefaultExpressionEngine createExpressionEngine() {
-        DefaultExpressionEngineSymbols symbols = new DefaultExpressionEngineSymbols.Builder(
-                DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS)
-                .setPropertyDelimiter(".")
-                .setIndexStart("[")
-                .setIndexEnd("]")
-                .create();
-        return new DefaultExpressionEngine(symbols);
     }
 
     @Override
@@ -99,18 +99,17 @@ public class FlatDottedMapConfiguration extends MapConfiguration {
         }
 
         try {
-            // Parse the key into parts
-            String[] parts = parseKey(key);
-            if (parts.length == 0) {
+            Object[] path = compilePath(key);
+            if (path.length == 0 || !(path[0] instanceof String)) {
                 return null;
             }
             
             // Start with the root object
-            Object currentValue = super.getPropertyInternal(parts[0]);
+            Object currentValue = super.getPropertyInternal((String) path[0]);
             
             // Navigate through the object hierarchy
-            for (int i = 1; i < parts.length && currentValue != null; i++) {
-                currentValue = getNestedProperty(currentValue, parts[i]);
+            for (int i = 1; i < path.length && currentValue != null; i++) {
+                currentValue = getNestedProperty(currentValue, path[i]);
             }
             
             return currentValue;
@@ -120,13 +119,48 @@ public class FlatDottedMapConfiguration extends MapConfiguration {
         }
     }
     
+    /**
+     * Returns the compiled path segments for a key, compiling and caching them on first use.
+     *
+     * @param key The property key
+     * @return The path segments
+     */
+    private static Object[] compilePath(String key) {
+        Object[] path = COMPILED_PATHS.get(key);
+        if (path != null) {
+            return path;
+        }
+        String[] parts = parseKey(key);
+        path = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            path[i] = part.startsWith("[") && part.endsWith("]") ? parseIndex(part) : part;
+        }
+        COMPILED_PATHS.put(key, path);
+        return path;
+    }
+
+    private static Integer parseIndex(String part) {
+        final int openBracketIndex = part.indexOf('[');
+        final int closeBracketIndex = part.indexOf(']');
+        if (closeBracketIndex <= 0 || openBracketIndex < 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(part.substring(openBracketIndex + 1, closeBracketIndex));
+        } catch (NumberFormatException e) {
+            // Invalid index format
+            return -1;
+        }
+    }
+
     /**
      * Parses a property key into its component parts.
      * 
      * @param key The property key to parse
      * @return Array of key parts
      */
-    private String[] parseKey(String key) {
+    private static String[] parseKey(String key) {
         if (key == null || key.isEmpty()) {
             return new String[0];
         }
@@ -175,52 +209,44 @@ public class FlatDottedMapConfiguration extends MapConfiguration {
      * Gets a nested property from an object.
      * 
      * @param container The container object (Map, List, or Array)
-     * @param propertyKey The property key to access
+     * @param segment The compiled path segment, a String key or an Integer index
      * @return The value of the property, or null if not found
      */
-    private Object getNestedProperty(Object container, String propertyKey) {
-        if (container == null || propertyKey == null || propertyKey.isEmpty()) {
-            return null;
-        }
-        
-        // Handle array/list index notation
-        if (propertyKey.startsWith("[") && propertyKey.endsWith("]")) {
-            final int openBracketIndex = propertyKey.indexOf('[');
-            final int closeBracketIndex = propertyKey.indexOf(']');
-            if (closeBracketIndex <= 0 || openBracketIndex < 0) {
-                return null;
-            }
-            
-            try {
-                final int index = Integer.parseInt(propertyKey.substring(openBracketIndex + 1, closeBracketIndex));
-                
-                if (container instanceof List) {
-                    List<?> list = (List<?>) container;
-                    if (index >= 0 && index < list.size()) {
-                        return list.get(index);
-                    }
-                } else if (container.getClass().isArray()) {
-                    int length = Array.getLength(container);
-                    if (index >= 0 && index < length) {
-                        return Array.get(container, index);
-                    }
+    private Object getNestedProperty(Object container, Object segment) {
+        if (segment instanceof Integer) {
+            final int index = (Integer) segment;
+            if (container instanceof List) {
+                List<?> list = (List<?>) container;
+                if (index >= 0 && index < list.size()) {
+                    return list.get(index);
+                }
+            } else if (container.getClass().isArray()) {
+                int length = Array.getLength(container);
+                if (index >= 0 && index < length) {
+                    return Array.get(container, index);
                 }
-            } catch (NumberFormatException e) {
-                // Invalid index format
-                return null;
             }
-        } else if (container instanceof Map) {
+            return null;
+        }
+        String propertyKey = (String) segment;
+        if (container instanceof Map) {
             // Regular map property access
             return ((Map<?, ?>) container).get(propertyKey);
-        } else {
+        }
+        Optional<Field> field = FIELDS.get(container.getClass()).computeIfAbsent(propertyKey, name -> {
             try {
-                Field field = ReflectionUtils.getDeclaredField(container.getClass(), propertyKey);
-                return field.get(container);
+                return Optional.of(ReflectionUtils.getDeclaredField(container.getClass(), name));
             } catch (Exception e) {
-                return null;
+                return Optional.empty();
             }
+        });
+        if (!field.isPresent()) {
+            return null;
+        }
+        try {
+            return field.get().get(container);
+        } catch (Exception e) {
+            return null;
         }
-        
-        return null;
     }
 }
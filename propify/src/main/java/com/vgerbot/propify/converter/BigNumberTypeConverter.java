@@ -0,0 +1,31 @@
+package com.vgerbot.propify.converter;
+
+import com.vgerbot.propify.core.PropifyPropertiesBuilder.PropifyTypeConversionException;
+import com.vgerbot.propify.core.TypeConverter;
+import org.apache.commons.configuration2.convert.PropertyConverter;
+import org.apache.commons.configuration2.ex.ConversionException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Converts values into {@link BigDecimal} and {@link BigInteger}.
+ */
+public class BigNumberTypeConverter implements TypeConverter {
+    @Override
+    public boolean supports(Class<?> targetType) {
+        return targetType == BigDecimal.class || targetType == BigInteger.class;
+    }
+
+    @Override
+    public Object convert(Object value, Class<?> targetType) {
+        try {
+            if (targetType == BigDecimal.class) {
+                return PropertyConverter.toBigDecimal(value);
+            }
+            return PropertyConverter.toBigInteger(value);
+        } catch (ConversionException e) {
+            throw new PropifyTypeConversionException("Failed to convert value '" + value + "' to " + targetType.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.vgerbot.propify.converter;
+
+import com.vgerbot.propify.core.PropifyPropertiesBuilder.PropifyTypeConversionException;
+import com.vgerbot.propify.core.TypeConverter;
+import org.apache.commons.configuration2.convert.PropertyConverter;
+import org.apache.commons.configuration2.ex.ConversionException;
+
+/**
+ * Converts values into primitive types and their wrappers.
+ *
+ * <p>Numbers and booleans are parsed with the same rules that commons-configuration applies
+ * to top-level keys, so elements of typed collections accept the same formats, such as
+ * hexadecimal numbers. Characters take the first character of the value.
+ */
+public class PrimitiveTypeConverter implements TypeConverter {
+    @Override
+    public boolean supports(Class<?> targetType) {
+        return targetType.isPrimitive() && targetType != void.class
+                || targetType == Boolean.class || targetType == Byte.class || targetType == Character.class
+                || targetType == Short.class || targetType == Integer.class || targetType == Long.class
+                || targetType == Float.class || targetType == Double.class;
+    }
+
+    @Override
+    public Object convert(Object value, Class<?> targetType) {
+        try {
+            if (targetType == boolean.class || targetType == Boolean.class) {
+                return PropertyConverter.toBoolean(value);
+            }
+            if (targetType == byte.class || targetType == Byte.class) {
+                return PropertyConverter.toByte(value);
+            }
+            if (targetType == char.class || targetType == Character.class) {
+                return value instanceof Character ? value : String.valueOf(value).charAt(0);
+            }
+            if (targetType == short.class || targetType == Short.class) {
+                return PropertyConverter.toShort(value);
+            }
+            if (targetType == int.class || targetType == Integer.class) {
+                return PropertyConverter.toInteger(value);
+            }
+            if (targetType == long.class || targetType == Long.class) {
+                return PropertyConverter.toLong(value);
+            }
+            if (targetType == float.class || targetType == Float.class) {
+                return PropertyConverter.toFloat(value);
+            }
+            if (targetType == double.class || targetType == Double.class) {
+                return PropertyConverter.toDouble(value);
+            }
+        } catch (ConversionException | StringIndexOutOfBoundsException e) {
+            throw new PropifyTypeConversionException("Failed to convert value '" + value + "' to " + targetType.getName(), e);
+        }
+        throw new IllegalArgumentException("Unsupported primitive type: " + targetType);
+    }
+}
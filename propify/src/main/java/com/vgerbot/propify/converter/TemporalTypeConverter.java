@@ -0,0 +1,62 @@
+package com.vgerbot.propify.converter;
+
+import com.vgerbot.propify.core.PropifyPropertiesBuilder.PropifyTypeConversionException;
+import com.vgerbot.propify.core.TypeConverter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.util.Date;
+
+/**
+ * Converts ISO-8601 strings into {@code java.time} values and {@link Date}.
+ *
+ * <p>Dates are parsed as ISO-8601 instants, falling back to milliseconds since the epoch.
+ */
+public class TemporalTypeConverter implements TypeConverter {
+    @Override
+    public boolean supports(Class<?> targetType) {
+        return targetType == LocalDate.class || targetType == LocalTime.class
+                || targetType == LocalDateTime.class || targetType == Instant.class
+                || targetType == Duration.class || targetType == Period.class
+                || targetType == Date.class;
+    }
+
+    @Override
+    public Object convert(Object value, Class<?> targetType) {
+        String text = value.toString();
+        try {
+            if (targetType == LocalDate.class) {
+                return LocalDate.parse(text);
+            }
+            if (targetType == LocalTime.class) {
+                return LocalTime.parse(text);
+            }
+            if (targetType == LocalDateTime.class) {
+                return LocalDateTime.parse(text);
+            }
+            if (targetType == Instant.class) {
+                return Instant.parse(text);
+            }
+            if (targetType == Duration.class) {
+                return Duration.parse(text);
+            }
+            if (targetType == Period.class) {
+                return Period.parse(text);
+            }
+            if (targetType == Date.class) {
+                try {
+                    return Date.from(Instant.parse(text));
+                } catch (Exception e) {
+                    return new Date(Long.parseLong(text));
+                }
+            }
+        } catch (Exception e) {
+            throw new PropifyTypeConversionException("Failed to parse temporal value: " + text, e);
+        }
+        throw new IllegalArgumentException("Unsupported temporal type: " + targetType);
+    }
+}
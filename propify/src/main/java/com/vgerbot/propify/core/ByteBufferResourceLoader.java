@@ -0,0 +1,31 @@
+package com.vgerbot.propify.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Optional extension of {@link ResourceLoader} for loaders that can provide the whole
+ * resource as a {@link ByteBuffer}.
+ *
+ * <p>Parsers that accept a buffer can read it in place instead of copying the data through
+ * an input stream. Loaders may return a heap buffer or a
+ * {@link java.nio.MappedByteBuffer memory-mapped} one.
+ *
+ * @see PropifyConfigParser#parseBuffer(PropifyContext, ByteBuffer)
+ * @since 3.1.0
+ */
+public interface ByteBufferResourceLoader extends ResourceLoader {
+
+    /**
+     * Loads a resource from the specified location into a buffer.
+     *
+     * <p>The returned buffer is positioned at the start of the content and its limit is the
+     * end of the content. It may be read-only.
+     *
+     * @param location the location string identifying the resource to load
+     * @return a buffer holding the resource content
+     * @throws IOException if the resource cannot be loaded or read
+     * @throws IllegalArgumentException if the location string is invalid
+     */
+    ByteBuffer loadBuffer(String location) throws IOException;
+}
@@ -118,6 +118,83 @@ public @interface Propify {
 
     char listDelimiter() default ',';
 
+    /**
+     * Specifies whether the parsed configuration values should be embedded into the generated class.
+     *
+     * <p>When enabled, the annotation processor writes the values it parsed during compilation
+     * into the generated class as literals. The generated {@code getInstance()} method then
+     * rebuilds the property tree from those literals, without loading or parsing the
+     * configuration resource at runtime.
+     *
+     * <p>Placeholders such as {@code ${env:HOME}} are not supported in this mode and are
+     * reported as compile errors, since they would be resolved against the build environment
+     * instead of at runtime. Custom {@link #lookups()} are not supported either.
+     *
+     * @return true to embed the configuration values into the generated class
+     * @since 3.1.0
+     */
+    boolean embedded() default false;
+
+    /**
+     * Specifies whether the generated class stores configuration values in typed fields.
+     *
+     * <p>By default the generated getters look values up in the parsed property map on every
+     * call. When enabled, the generated class copies every value into a {@code private final}
+     * field once, in its constructor, and the getters return those fields directly. Numbers,
+     * booleans and characters are stored as primitives, so reading them needs no map lookup,
+     * cast or unboxing.
+     *
+     * <p>Getters for values that are primitives return the primitive type, for example
+     * {@code int getPort()} instead of {@code Integer getPort()}.
+     *
+     * @return true to generate field-backed accessors
+     * @since 3.1.0
+     */
+    boolean fieldBacked() default false;
+
+    /**
+     * Specifies whether the generated getters return copies of array values.
+     *
+     * <p>By default, getters of array-typed values, such as {@code (int[])} hints, return the
+     * array held by the configuration, so reading a large table allocates nothing. The array is
+     * mutable and shared by every caller: writing to it changes the value all other callers
+     * see, so callers must not modify it. The generated getters carry the same warning. When
+     * enabled, every call returns a new copy instead.
+     *
+     * @return true to return copies of array values
+     * @since 3.1.0
+     */
+    boolean copyArrays() default false;
+
+    /**
+     * Specifies whether the generated class reloads the configuration when the file changes.
+     *
+     * <p>When enabled, the configuration file is watched after the first call to
+     * {@code getInstance()}. Changes are picked up in the background: the configuration is
+     * rebuilt off the caller's thread and swapped into the generated class atomically, so
+     * {@code getInstance()} keeps returning the previous instance until the new one is ready.
+     * Listeners registered through the generated {@code addReloadListener} method receive the
+     * keys that changed.
+     *
+     * <p>Only {@code file:} locations can be reloaded, and the option cannot be combined with
+     * {@link #embedded()}.
+     *
+     * @return true to reload the configuration when the file changes
+     * @since 3.1.0
+     */
+    boolean reload() default false;
+
+    /**
+     * Specifies how long the configuration file must stay unchanged before it is reloaded.
+     *
+     * <p>Editors and deployment tools often write a file in several steps. Waiting for the
+     * writes to settle coalesces them into a single reload.
+     *
+     * @return the debounce period in milliseconds
+     * @since 3.1.0
+     */
+    long reloadDebounceMillis() default 200;
+
     @TemporarySupport("This method is temporarily supported and may change or be removed in the future.")
     Class<? extends PropifyLookup>[] lookups() default {};
 
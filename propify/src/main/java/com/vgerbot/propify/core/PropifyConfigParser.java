@@ -1,10 +1,14 @@
 package com.vgerbot.propify.core;
 
 import com.vgerbot.propify.PropifyProcessor;
+import com.vgerbot.propify.common.ByteBuffers;
 import org.apache.commons.configuration2.Configuration;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Core interface for parsing configuration resources in the Propify framework.
@@ -78,6 +82,25 @@ public interface PropifyConfigParser {
      */
     Configuration parse(PropifyContext context, InputStream stream) throws IOException;
 
+    /**
+     * Parses configuration data held in a buffer.
+     *
+     * <p>Called instead of {@link #parse(PropifyContext, InputStream)} when the resource loader
+     * implements {@link ByteBufferResourceLoader}. The default implementation reads the buffer
+     * through a stream; parsers that can read a buffer or byte array in place should override it.
+     *
+     * @param context the context containing configuration information
+     * @param buffer the buffer containing configuration data
+     * @return the parsed configuration
+     * @throws IOException if an error occurs while reading or parsing the buffer
+     * @since 3.1.0
+     */
+    default Configuration parseBuffer(PropifyContext context, ByteBuffer buffer) throws IOException {
+        try (InputStream stream = ByteBuffers.newInputStream(buffer)) {
+            return parse(context, stream);
+        }
+    }
+
     /**
      * Determines if this parser can handle configuration data of the specified media type.
      *
@@ -102,4 +125,32 @@ public interface PropifyConfigParser {
      * @since 1.0.0
      */
     Boolean accept(PropifyContext context);
+
+    /**
+     * Returns the media types this parser handles, in lower case.
+     *
+     * <p>{@link PropifyConfigParserProvider} uses these values to find candidate parsers
+     * without calling {@link #accept(PropifyContext)} on every registered parser. Candidates
+     * are still confirmed with {@code accept}, so this is only a dispatch hint. Parsers that
+     * return an empty set are found through a linear {@code accept} scan.
+     *
+     * @return the supported media types, empty by default
+     * @since 3.1.0
+     */
+    default Set<String> getMediaTypes() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Returns the file extensions this parser handles, in lower case and without the leading dot.
+     *
+     * <p>Like {@link #getMediaTypes()}, this is only a dispatch hint for
+     * {@link PropifyConfigParserProvider}, used when the context has no media type.
+     *
+     * @return the supported file extensions, empty by default
+     * @since 3.1.0
+     */
+    default Set<String> getFileExtensions() {
+        return Collections.emptySet();
+    }
 }
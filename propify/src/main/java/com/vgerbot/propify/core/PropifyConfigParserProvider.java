@@ -3,15 +3,28 @@ package com.vgerbot.propify.core;
 import com.vgerbot.propify.PropifyProcessor;
 import com.vgerbot.propify.service.ServiceLoaderWrapper;
 
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * Provider class for obtaining configuration parsers through Java's ServiceLoader mechanism.
  * 
  * <p>This class uses the ServiceLoader pattern to discover and provide appropriate
  * configuration parsers based on the media type of configuration resources. It ensures
  * that only one instance of the provider exists through the singleton pattern.
+ *
+ * <p>Discovered parsers are cached per class loader. The cache holds the class loader weakly
+ * and the parsers softly, so caching does not keep a class loader from being unloaded.
  */
 public class PropifyConfigParserProvider {
     private static final PropifyConfigParserProvider INSTANCE = new PropifyConfigParserProvider();
+
+    private final Map<ClassLoader, SoftReference<ParserIndex>> parserIndexes = new WeakHashMap<>();
+
     private PropifyConfigParserProvider() {}
     /**
      * Gets the singleton instance of the provider.
@@ -27,22 +40,90 @@ public class PropifyConfigParserProvider {
      * 
      * <p>This method:
      * <ul>
-     *   <li>Uses ServiceLoader to discover available parsers</li>
-     *   <li>Finds the first parser that accepts the context's media type</li>
+     *   <li>Looks up parsers registered for the context's media type, or for the location's
+     *       file extension when no media type is given</li>
+     *   <li>Falls back to the first discovered parser that accepts the context</li>
      *   <li>Returns null if no suitable parser is found</li>
      * </ul>
+     * A parser is only returned if its {@link PropifyConfigParser#accept(PropifyContext)} method
+     * accepts the context.
      *
      * @param context the context containing media type information
      * @return a parser that can handle the context's media type, or null if none found
      * @see PropifyConfigParser#accept(PropifyContext) For parser acceptance criteria
      */
     public PropifyConfigParser getParser(PropifyContext context) {
-        ClassLoader classLoader = PropifyProcessor.class.getClassLoader();
-        for(PropifyConfigParser parser: ServiceLoaderWrapper.forClass(PropifyConfigParser.class, classLoader)) {
-            if (parser.accept(context)) {
+        ParserIndex index = getParserIndex(PropifyProcessor.class.getClassLoader());
+
+        String mediaType = context.getMediaType();
+        if (mediaType != null && !mediaType.trim().isEmpty()) {
+            PropifyConfigParser parser = findAccepting(index.byMediaType.get(mediaType.trim().toLowerCase()), context);
+            if (parser != null) {
+                return parser;
+            }
+        }
+        PropifyConfigParser parser = findAccepting(index.byFileExtension.get(getFileExtension(context.getLocation())), context);
+        if (parser != null) {
+            return parser;
+        }
+        return findAccepting(index.parsers, context);
+    }
+
+    private ParserIndex getParserIndex(ClassLoader classLoader) {
+        synchronized (parserIndexes) {
+            SoftReference<ParserIndex> reference = parserIndexes.get(classLoader);
+            ParserIndex index = reference == null ? null : reference.get();
+            if (index == null) {
+                index = new ParserIndex(ServiceLoaderWrapper.forClass(PropifyConfigParser.class, classLoader));
+                parserIndexes.put(classLoader, new SoftReference<>(index));
+            }
+            return index;
+        }
+    }
+
+    private static PropifyConfigParser findAccepting(List<PropifyConfigParser> candidates, PropifyContext context) {
+        if (candidates == null) {
+            return null;
+        }
+        for (PropifyConfigParser parser : candidates) {
+            if (Boolean.TRUE.equals(parser.accept(context))) {
                 return parser;
             }
         }
         return null;
     }
+
+    private static String getFileExtension(String location) {
+        if (location == null) {
+            return null;
+        }
+        String trimmed = location.trim();
+        int dot = trimmed.lastIndexOf('.');
+        if (dot < 0 || dot < trimmed.lastIndexOf('/')) {
+            return null;
+        }
+        return trimmed.substring(dot + 1).toLowerCase();
+    }
+
+    /**
+     * The parsers discovered for one class loader, in discovery order, with lookup tables
+     * by media type and file extension.
+     */
+    private static final class ParserIndex {
+        private final List<PropifyConfigParser> parsers = new ArrayList<>();
+        private final Map<String, List<PropifyConfigParser>> byMediaType = new HashMap<>();
+        private final Map<String, List<PropifyConfigParser>> byFileExtension = new HashMap<>();
+
+        ParserIndex(Iterable<PropifyConfigParser> discovered) {
+            for (PropifyConfigParser parser : discovered) {
+                parsers.add(parser);
+                for (String mediaType : parser.getMediaTypes()) {
+                    byMediaType.computeIfAbsent(mediaType.toLowerCase(), key -> new ArrayList<>()).add(parser);
+                }
+                for (String extension : parser.getFileExtensions()) {
+                    byFileExtension.computeIfAbsent(extension.toLowerCase(), key -> new ArrayList<>()).add(parser);
+                }
+            }
+        }
+    }
 }
@@ -3,16 +3,14 @@ package com.vgerbot.propify.core;
 import com.vgerbot.propify.PropifyProcessor;
 import com.vgerbot.propify.logger.Logger;
 import com.vgerbot.propify.lookup.PropifyLookup;
-import com.vgerbot.propify.lookup.PropifyLookupAdaptor;
+import com.vgerbot.propify.lookup.PropifyLookupRegistry;
 import org.apache.commons.configuration2.interpol.Lookup;
-import com.vgerbot.propify.common.PropifyException;
-import com.vgerbot.propify.common.ReflectionUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -44,10 +42,17 @@ public class PropifyContext {
     private final char listDelimiter;
     private final Logger logger;
     private final String[] lookups;
+    private final boolean embedded;
+    private final boolean fieldBacked;
+    private final boolean copyArrays;
+    private final boolean reload;
+    private final long reloadDebounceMillis;
 
     /**
      * Creates a new PropifyContext with the specified configuration.
      *
+     * <p>Code generation and reload options keep their defaults; use {@link #builder()} to set them.
+     *
      * @param location the location of the configuration resource
      * @param mediaType the media type of the configuration resource
      * @param generatedClassName pattern for generating the configuration class name
@@ -65,13 +70,39 @@ public class PropifyContext {
             ResourceLoaderProvider resourceLoaderProvider,
             Logger logger
     ) {
-        this.location = location;
-        this.mediaType = mediaType;
-        this.generatedClassName = generatedClassName == null ? "" : generatedClassName;
-        this.listDelimiter = listDelimiter;
-        this.lookups = lookups;
-        this.resourceLoaderProvider = resourceLoaderProvider;
-        this.logger = logger;
+        this(builder()
+                .location(location)
+                .mediaType(mediaType)
+                .generatedClassName(generatedClassName)
+                .listDelimiter(listDelimiter)
+                .lookups(lookups)
+                .resourceLoaderProvider(resourceLoaderProvider)
+                .logger(logger));
+    }
+
+    private PropifyContext(Builder builder) {
+        this.location = builder.location;
+        this.mediaType = builder.mediaType;
+        this.generatedClassName = builder.generatedClassName == null ? "" : builder.generatedClassName;
+        this.listDelimiter = builder.listDelimiter;
+        this.lookups = builder.lookups;
+        this.embedded = builder.embedded;
+        this.fieldBacked = builder.fieldBacked;
+        this.copyArrays = builder.copyArrays;
+        this.reload = builder.reload;
+        this.reloadDebounceMillis = builder.reloadDebounceMillis;
+        this.resourceLoaderProvider = builder.resourceLoaderProvider;
+        this.logger = builder.logger;
+    }
+
+    /**
+     * Creates a builder for a PropifyContext with code generation and reload options.
+     *
+     * @return a new builder
+     * @since 3.1.0
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     /**
@@ -126,6 +157,22 @@ public class PropifyContext {
         return this.getResourceLoader().load(this.location);
     }
 
+    /**
+     * Loads the configuration resource into a buffer, if its loader supports it.
+     *
+     * @return the resource content, or null if the loader only provides streams
+     * @throws IOException if the resource cannot be loaded
+     * @see ByteBufferResourceLoader
+     * @since 3.1.0
+     */
+    public ByteBuffer loadResourceBuffer() throws IOException {
+        ResourceLoader loader = this.getResourceLoader();
+        if (loader instanceof ByteBufferResourceLoader) {
+            return ((ByteBufferResourceLoader) loader).loadBuffer(this.location);
+        }
+        return null;
+    }
+
     /**
      * Generates the configuration class name based on the original class name.
      * 
@@ -166,15 +213,222 @@ public class PropifyContext {
         return lookups;
     }
 
+    /**
+     * Checks whether the parsed configuration values are embedded into the generated class.
+     *
+     * @return true if the generated class is built from embedded literals instead of the resource
+     */
+    public boolean isEmbedded() {
+        return embedded;
+    }
+
+    /**
+     * Checks whether the generated class stores configuration values in typed fields.
+     *
+     * @return true if the generated getters read typed fields instead of the property map
+     */
+    public boolean isFieldBacked() {
+        return fieldBacked;
+    }
+
+    /**
+     * Checks whether the generated getters return copies of array values.
+     *
+     * @return true if array getters return a new copy on every call
+     */
+    public boolean isCopyArrays() {
+        return copyArrays;
+    }
+
+    /**
+     * Checks whether the generated class reloads the configuration when the file changes.
+     *
+     * @return true if the configuration file is watched for changes
+     */
+    public boolean isReload() {
+        return reload;
+    }
+
+    /**
+     * Gets how long the configuration file must stay unchanged before it is reloaded.
+     *
+     * @return the debounce period in milliseconds
+     */
+    public long getReloadDebounceMillis() {
+        return reloadDebounceMillis;
+    }
+
+    /**
+     * Returns the shared instances of the lookups configured for this context, keyed by prefix.
+     *
+     * @return a map from lookup prefix to lookup instance
+     */
+    Map<String, PropifyLookup> getLookupInstances() {
+        PropifyLookupRegistry registry = PropifyLookupRegistry.getInstance();
+        ClassLoader classLoader = PropifyContext.class.getClassLoader();
+        return Arrays.stream(this.lookups)
+                .map(it -> registry.getLookup(it, classLoader))
+                .collect(Collectors.toMap(PropifyLookup::getPrefix, it -> it));
+    }
+
+    /**
+     * Returns the lookups configured for this context, keyed by prefix.
+     *
+     * <p>Lookup instances are shared through {@link PropifyLookupRegistry}, so each lookup
+     * class is only instantiated once, no matter how many times the configuration is loaded.
+     * Lookups that declare a cache TTL are wrapped in a {@link com.vgerbot.propify.lookup.CachingLookupAdaptor}.
+     * The lookups are resolved on every call, so a lookup that has been closed through the
+     * registry is replaced by a new instance on the next load.
+     *
+     * @return an unmodifiable map from lookup prefix to lookup
+     */
     public Map<String, Lookup> getAllLookups() {
-        return Arrays.stream(this.lookups).map(it -> {
-            try {
-                Class<PropifyLookup> cls = (Class<PropifyLookup>)Class.forName(it);
-                Constructor<PropifyLookup> constructor = ReflectionUtils.getDeclaredConstructor(cls);
-                return constructor.newInstance();
-            } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                throw new PropifyException("Failed to instantiate lookup class", e);
-            }
-        }).collect(Collectors.toMap(PropifyLookup::getPrefix, PropifyLookupAdaptor::new));
+        PropifyLookupRegistry registry = PropifyLookupRegistry.getInstance();
+        ClassLoader classLoader = PropifyContext.class.getClassLoader();
+        return Collections.unmodifiableMap(Arrays.stream(this.lookups)
+                .collect(Collectors.toMap(
+                        it -> registry.getLookup(it, classLoader).getPrefix(),
+                        it -> registry.getLookupAdaptor(it, classLoader)
+                )));
+    }
+
+    /**
+     * Builds a {@link PropifyContext}. Options that are not set keep the defaults of the
+     * {@link Propify} annotation.
+     *
+     * @since 3.1.0
+     */
+    public static final class Builder {
+        private String location;
+        private String mediaType;
+        private String generatedClassName;
+        private char listDelimiter = ',';
+        private String[] lookups = new String[0];
+        private boolean embedded;
+        private boolean fieldBacked;
+        private boolean copyArrays;
+        private boolean reload;
+        private long reloadDebounceMillis;
+        private ResourceLoaderProvider resourceLoaderProvider;
+        private Logger logger;
+
+        private Builder() {}
+
+        /**
+         * @param location the location of the configuration resource
+         * @return this builder
+         */
+        public Builder location(String location) {
+            this.location = location;
+            return this;
+        }
+
+        /**
+         * @param mediaType the media type of the configuration resource
+         * @return this builder
+         */
+        public Builder mediaType(String mediaType) {
+            this.mediaType = mediaType;
+            return this;
+        }
+
+        /**
+         * @param generatedClassName pattern for generating the configuration class name
+         * @return this builder
+         */
+        public Builder generatedClassName(String generatedClassName) {
+            this.generatedClassName = generatedClassName;
+            return this;
+        }
+
+        /**
+         * @param listDelimiter the list delimiter character
+         * @return this builder
+         */
+        public Builder listDelimiter(char listDelimiter) {
+            this.listDelimiter = listDelimiter;
+            return this;
+        }
+
+        /**
+         * @param lookups the list of lookup classes
+         * @return this builder
+         */
+        public Builder lookups(String[] lookups) {
+            this.lookups = lookups;
+            return this;
+        }
+
+        /**
+         * @param embedded whether the parsed values are embedded into the generated class
+         * @return this builder
+         */
+        public Builder embedded(boolean embedded) {
+            this.embedded = embedded;
+            return this;
+        }
+
+        /**
+         * @param fieldBacked whether the generated class stores values in typed fields
+         * @return this builder
+         */
+        public Builder fieldBacked(boolean fieldBacked) {
+            this.fieldBacked = fieldBacked;
+            return this;
+        }
+
+        /**
+         * @param copyArrays whether the generated getters return copies of array values
+         * @return this builder
+         */
+        public Builder copyArrays(boolean copyArrays) {
+            this.copyArrays = copyArrays;
+            return this;
+        }
+
+        /**
+         * @param reload whether the generated class reloads the configuration when the file changes
+         * @return this builder
+         */
+        public Builder reload(boolean reload) {
+            this.reload = reload;
+            return this;
+        }
+
+        /**
+         * @param reloadDebounceMillis how long the file must stay unchanged before it is reloaded
+         * @return this builder
+         */
+        public Builder reloadDebounceMillis(long reloadDebounceMillis) {
+            this.reloadDebounceMillis = reloadDebounceMillis;
+            return this;
+        }
+
+        /**
+         * @param resourceLoaderProvider provider for resource loading capabilities
+         * @return this builder
+         */
+        public Builder resourceLoaderProvider(ResourceLoaderProvider resourceLoaderProvider) {
+            this.resourceLoaderProvider = resourceLoaderProvider;
+            return this;
+        }
+
+        /**
+         * @param logger logger for processing messages and diagnostics
+         * @return this builder
+         */
+        public Builder logger(Logger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Creates the context.
+         *
+         * @return the new context
+         */
+        public PropifyContext build() {
+            return new PropifyContext(this);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.vgerbot.propify.core;
 
 import com.vgerbot.propify.PropifyProcessor;
+import com.vgerbot.propify.common.PropifyException;
 
 import java.util.HashMap;
 
@@ -100,4 +101,44 @@ public class PropifyProperties extends HashMap<String, Object> {
         this.put(key, nested);
         return nested;
     }
+
+    /**
+     * Returns the value of a key, checking that it has the expected type.
+     *
+     * @param key the key of the value
+     * @param type the expected type of the value
+     * @param <T> the expected type of the value
+     * @return the value, or null if the key has no value
+     * @throws PropifyException if the value is not an instance of the expected type
+     * @since 3.1.0
+     */
+    public <T> T getValue(String key, Class<T> type) {
+        Object value = get(key);
+        if (value != null && !type.isInstance(value)) {
+            throw new PropifyException("Configuration value '" + key + "' has type "
+                    + value.getClass().getName() + ", expected " + type.getName());
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Returns the value of a key that must be present, checking that it has the expected type.
+     *
+     * <p>Used by generated classes that store values in primitive fields, so that a missing
+     * value is reported with its key instead of a {@code NullPointerException}.
+     *
+     * @param key the key of the value
+     * @param type the expected type of the value
+     * @param <T> the expected type of the value
+     * @return the value
+     * @throws PropifyException if the key has no value or the value is not an instance of the expected type
+     * @since 3.1.0
+     */
+    public <T> T getRequiredValue(String key, Class<T> type) {
+        T value = getValue(key, type);
+        if (value == null) {
+            throw new PropifyException("Missing configuration value '" + key + "'");
+        }
+        return value;
+    }
 }
@@ -1,11 +1,17 @@
 package com.vgerbot.propify.core;
 
+import com.vgerbot.propify.common.BoundedCache;
+import com.vgerbot.propify.lookup.BatchLookupPrefetcher;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.commons.configuration2.convert.DefaultConversionHandler;
+import org.apache.commons.configuration2.interpol.Lookup;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.math.BigInteger;
 import java.time.Instant;
 import java.time.Period;
@@ -17,6 +23,14 @@ import java.util.stream.Collectors;
 public class PropifyPropertiesBuilder {
 
     private Configuration config;
+    private final TypeConverterRegistry converterRegistry = TypeConverterRegistry.getInstance();
+
+    /**
+     * The keys of the entries of each map-typed key of the configuration being built, grouped by
+     * {@link #build()} while it iterates the keys, so that converting a map does not scan the
+     * configuration again.
+     */
+    private Map<String, List<String>> typedMapEntries = Collections.emptyMap();
 
     public PropifyPropertiesBuilder config(Configuration config) {
         this.config = config;
@@ -25,11 +39,19 @@ public class PropifyPropertiesBuilder {
 
     public PropifyProperties build(PropifyContext context) {
         try {
-            InputStream stream = context.loadResource();
             PropifyConfigParserProvider parserProvider = PropifyConfigParserProvider.getInstance();
-            PropifyConfigParser parser = parserProvider.getParser(context);
-            Configuration configuration = parser.parse(context, stream);
-            configuration.installInterpolator(context.getAllLookups(), Collections.emptyList());
+            Configuration configuration;
+            ByteBuffer buffer = context.loadResourceBuffer();
+            if (buffer != null) {
+                configuration = parserProvider.getParser(context).parseBuffer(context, buffer);
+            } else {
+                try (InputStream stream = context.loadResource()) {
+                    configuration = parserProvider.getParser(context).parse(context, stream);
+                }
+            }
+            Map<String, Lookup> lookups = BatchLookupPrefetcher.prefetch(
+                    configuration, context.getLookupInstances(), context.getAllLookups(), context.getLogger());
+            configuration.installInterpolator(lookups, Collections.emptyList());
             this.config(configuration);
             return this.build();
         } catch (IOException e) {
@@ -42,21 +64,64 @@ public class PropifyPropertiesBuilder {
             throw new IllegalStateException("Configuration ");
         }
         PropifyProperties properties = new PropifyProperties();
+        Map<String, List<String>> typedMapEntries = new LinkedHashMap<>();
         Iterator<String> keys = config.getKeys();
         while (keys.hasNext()) {
             String key = keys.next();
-            handleKeyValue(this.config, properties, key);
+            String typedMapKey = findTypedMapKey(key);
+            if (typedMapKey != null) {
+                typedMapEntries.computeIfAbsent(typedMapKey, it -> new ArrayList<>()).add(key);
+            } else if (isTypedMapKey(key)) {
+                typedMapEntries.computeIfAbsent(key, it -> new ArrayList<>());
+            } else {
+                handleKeyValue(this.config, properties, key);
+            }
+        }
+        this.typedMapEntries = typedMapEntries;
+        for (String typedMapKey : typedMapEntries.keySet()) {
+            handleKeyValue(this.config, properties, typedMapKey);
         }
         return properties;
     }
 
+    /**
+     * Returns the map-typed key that an entry of a flat format belongs to. Formats such as
+     * {@code .properties} store each entry of {@code routes(Map<String,Duration>)} as a key of
+     * its own, for example {@code routes(Map<String,Duration>).primary}; these entries are
+     * converted together under the typed key.
+     *
+     * @param key the configuration key
+     * @return the typed key, such as {@code routes(Map<String,Duration>)}, or null if the key is
+     *         not an entry of a map-typed key
+     */
+    static String findTypedMapKey(String key) {
+        for (int end = key.indexOf(")."); end >= 0; end = key.indexOf(").", end + 1)) {
+            String prefix = key.substring(0, end + 1);
+            int typeStart = findTypeHintStart(prefix);
+            if (typeStart >= 0 && isMapType(prefix.substring(typeStart + 1, end))) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isTypedMapKey(String key) {
+        int typeStart = findTypeHintStart(key);
+        return typeStart >= 0 && isMapType(key.substring(typeStart + 1, key.length() - 1));
+    }
+
+    private static boolean isMapType(String typeName) {
+        try {
+            return parseType(typeName).getRawType() == Map.class;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     private void handleKeyValue(Configuration config, PropifyProperties properties, String key) {
-        Pattern pattern = Pattern.compile("(?<key>.*?)(\\((?<type>[^)]+)\\))?");
-        Matcher matcher = pattern.matcher(key);
-        //noinspection ResultOfMethodCallIgnored
-        matcher.matches();
-        String keyName = matcher.group("key");
-        String typeName = matcher.group("type");
+        int typeStart = findTypeHintStart(key);
+        String keyName = typeStart < 0 ? key : key.substring(0, typeStart);
+        String typeName = typeStart < 0 ? null : key.substring(typeStart + 1, key.length() - 1);
 
         Object value;
         if (typeName != null) {
@@ -90,8 +155,72 @@ public class PropifyPropertiesBuilder {
     }
 
 
+    /**
+     * Locates the type hint of a key such as {@code timeout(Duration)}.
+     *
+     * <p>A type hint is a non-empty, parenthesized suffix that contains no closing parenthesis.
+     * When several opening parentheses qualify, the first one is used.
+     *
+     * @param key the configuration key
+     * @return the index of the opening parenthesis of the type hint, or -1 if the key has none
+     */
+    static int findTypeHintStart(String key) {
+        int last = key.length() - 1;
+        if (last < 2 || key.charAt(last) != ')') {
+            return -1;
+        }
+        int lowerBound = key.lastIndexOf(')', last - 1);
+        int start = key.indexOf('(', lowerBound + 1);
+        if (start < 0 || start >= last - 1) {
+            return -1;
+        }
+        return start;
+    }
+
     private static final Pattern GENERIC_TYPE_PATTERN = Pattern.compile("([^<>]+)(?:<(.+)>)?");
 
+    /**
+     * Upper bound for the number of entries in each of the shared type caches.
+     * Once reached, the oldest entries are evicted to make room for new ones.
+     */
+    private static final int TYPE_CACHE_LIMIT = 1024;
+
+    /**
+     * Parsed type hints, keyed by the hint string (for example {@code "List<Duration>"}).
+     */
+    private static final BoundedCache<String, TypeInfo> TYPE_INFO_CACHE = new BoundedCache<>(TYPE_CACHE_LIMIT);
+
+    /**
+     * Resolved class names. Classes are held weakly, so that caching an application class
+     * does not keep its class loader alive; {@link #UNRESOLVED} records a name that could not
+     * be resolved, so that unknown types do not trigger repeated class loading attempts.
+     */
+    private static final BoundedCache<String, WeakReference<Class<?>>> RESOLVED_CLASS_CACHE = new BoundedCache<>(TYPE_CACHE_LIMIT);
+
+    private static final WeakReference<Class<?>> UNRESOLVED = new WeakReference<>(null);
+
+    /**
+     * Classes of common type hints, resolved up front and never evicted.
+     */
+    private static final Map<String, Class<?>> COMMON_TYPES = new HashMap<>();
+
+    static {
+        Class<?>[] commonTypes = {
+                Object.class, String.class, Number.class, CharSequence.class,
+                Boolean.class, Byte.class, Character.class, Short.class,
+                Integer.class, Long.class, Float.class, Double.class,
+                BigDecimal.class, BigInteger.class,
+                java.time.Duration.class, java.time.Period.class, Instant.class,
+                java.time.LocalDate.class, java.time.LocalTime.class, java.time.LocalDateTime.class,
+                java.time.OffsetDateTime.class, java.time.ZonedDateTime.class,
+                Date.class, List.class, Set.class, Map.class, Collection.class
+        };
+        for (Class<?> type : commonTypes) {
+            COMMON_TYPES.put(type.getSimpleName(), type);
+            COMMON_TYPES.put(type.getName(), type);
+        }
+    }
+
     private Object convertToType(Configuration config, String typeName, String key) {
         try {
             TypeInfo typeInfo = parseType(typeName);
@@ -101,7 +230,17 @@ public class PropifyPropertiesBuilder {
         }
     }
 
-    private TypeInfo parseType(String typeName) {
+    static TypeInfo parseType(String typeName) {
+        TypeInfo cached = TYPE_INFO_CACHE.get(typeName);
+        if (cached != null) {
+            return cached;
+        }
+        TypeInfo typeInfo = parseTypeUncached(typeName);
+        TYPE_INFO_CACHE.put(typeName, typeInfo);
+        return typeInfo;
+    }
+
+    private static TypeInfo parseTypeUncached(String typeName) {
         Matcher matcher = GENERIC_TYPE_PATTERN.matcher(typeName);
         if (!matcher.matches()) {
             throw new IllegalArgumentException("Invalid type format: " + typeName);
@@ -129,16 +268,11 @@ public class PropifyPropertiesBuilder {
                 typeParameters.add(parseType(current.toString().trim()));
             }
         }
-        Class<?> rawType;
-        try {
-            rawType = this.getClassForType(rawTypeString);
-        } catch (ClassNotFoundException e) {
-            rawType = String.class;
-        }
-        return new TypeInfo(rawType, typeParameters);
+        Class<?> rawType = getClassForType(rawTypeString);
+        return new TypeInfo(rawType == null ? String.class : rawType, typeParameters);
     }
 
-    private Object convertToTypeInternal(Configuration config, TypeInfo typeInfo, String key) throws ClassNotFoundException {
+    private Object convertToTypeInternal(Configuration config, TypeInfo typeInfo, String key) {
         Class<?> rawType = typeInfo.getRawType();
         List<TypeInfo> typeParameters = typeInfo.getTypeParameters();
 
@@ -157,13 +291,13 @@ public class PropifyPropertiesBuilder {
         }
 
         if (rawType.isAssignableFrom(List.class)) {
-            return convertToList(typeParameters.get(0), key);
+            return convertToList(config, typeParameters.get(0), key);
         } else if (rawType.isAssignableFrom(Set.class)) {
-            return new HashSet<>(convertToList(typeParameters.get(0), key));
+            return new HashSet<>(convertToList(config, typeParameters.get(0), key));
         } else if (rawType.isAssignableFrom(Map.class)) {
-            convertToMap(typeParameters.get(0), typeParameters.get(1), key);
+            return convertToMap(config, typeParameters.get(0), typeParameters.get(1), key);
         } else if (rawType.isArray()) {
-            return convertToArray(new TypeInfo(rawType.getComponentType(), Collections.emptyList()), key);
+            return convertToArray(config, rawType.getComponentType(), key);
         }
 
         return config.get(rawType, key);
@@ -220,41 +354,16 @@ public class PropifyPropertiesBuilder {
 
     private Object convertTemporal(Class<?> cls, String value) {
         if (value == null) return null;
-        try {
-            if (cls == java.time.LocalDate.class) {
-                return java.time.LocalDate.parse(value);
-            }
-            if (cls == java.time.LocalTime.class) {
-                return java.time.LocalTime.parse(value);
-            }
-            if (cls == java.time.LocalDateTime.class) {
-                return java.time.LocalDateTime.parse(value);
-            }
-            if (cls == java.time.Instant.class) {
-                return java.time.Instant.parse(value);
-            }
-            if (cls == java.time.Duration.class) {
-                return java.time.Duration.parse(value);
-            }
-            if (cls == java.time.Period.class) {
-                return java.time.Period.parse(value);
-            }
-            if (cls == java.util.Date.class) {
-                try {
-                    return Date.from(Instant.parse(value));
-                } catch (Exception e) {
-                    return new java.util.Date(Long.parseLong(value));
-                }
-            }
-        } catch (Exception e) {
-            throw new PropifyTypeConversionException("Failed to parse temporal value: " + value, e);
+        TypeConverter converter = converterRegistry.getConverter(cls);
+        if (converter == null) {
+            throw new IllegalArgumentException("Unsupported temporal type: " + cls);
         }
-        throw new IllegalArgumentException("Unsupported temporal type: " + cls);
+        return converter.convert(value, cls);
     }
 
-    private List<?> convertToList(TypeInfo elementType, String key) throws ClassNotFoundException {
-        List<Object> result = new ArrayList<>();
+    private List<?> convertToList(Configuration config, TypeInfo elementType, String key) {
         List<?> values = config.getList(key);
+        List<Object> result = new ArrayList<>(values == null ? 0 : values.size());
 
         if (values != null) {
             for (Object value : values) {
@@ -265,62 +374,106 @@ public class PropifyPropertiesBuilder {
         return result;
     }
 
-    private Map<?, ?> convertToMap(TypeInfo keyType, TypeInfo valueType, String key) throws ClassNotFoundException {
-        Map<Object, Object> result = new HashMap<>();
-        Configuration subset = config.subset(key);
-
-        for (Iterator<String> it = subset.getKeys(); it.hasNext(); ) {
-            String mapKey = it.next();
-            Object value = subset.getProperty(mapKey);
-
-            Object convertedKey = convertSingleValue(mapKey, keyType);
-            Object convertedValue = convertSingleValue(value, valueType);
-
+    /**
+     * Converts a map-typed property in a single pass. Structured formats such as YAML keep the
+     * whole map under the typed key, which is walked directly; flat formats store each entry
+     * as a separate {@code key.entry} property. Those entries are grouped by {@link #build()}
+     * in its single pass over the keys; the keys under the prefix are only scanned for
+     * configurations that were not grouped, such as nested maps.
+     */
+    private Map<?, ?> convertToMap(Configuration config, TypeInfo keyType, TypeInfo valueType, String key) {
+        Object value = config.getProperty(key);
+        if (value instanceof Map) {
+            return convertMap((Map<?, ?>) value, keyType, valueType);
+        }
+
+        List<String> entryKeys = config == this.config ? typedMapEntries.get(key) : null;
+        Map<Object, Object> result = new LinkedHashMap<>();
+        int prefixLength = key.length() + 1;
+        for (Iterator<String> it = entryKeys != null ? entryKeys.iterator() : config.getKeys(key); it.hasNext(); ) {
+            String entryKey = it.next();
+            if (entryKey.length() <= prefixLength) {
+                continue;
+            }
+            Object convertedKey = convertSingleValue(entryKey.substring(prefixLength), keyType);
+            Object convertedValue = convertSingleValue(config.getProperty(entryKey), valueType);
             result.put(convertedKey, convertedValue);
         }
 
         return result;
     }
 
-    private Object[] convertToArray(TypeInfo elementType, String key) throws ClassNotFoundException {
-        List<?> list = convertToList(elementType, key);
-        return list.toArray();
+    private Map<Object, Object> convertMap(Map<?, ?> source, TypeInfo keyType, TypeInfo valueType) {
+        Map<Object, Object> result = new LinkedHashMap<>(Math.max(16, (int) (source.size() / 0.75f) + 1));
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            result.put(convertSingleValue(entry.getKey(), keyType), convertSingleValue(entry.getValue(), valueType));
+        }
+        return result;
+    }
+
+    /**
+     * Converts a list value into an array of the given component type. Primitive component
+     * types produce primitive arrays, so {@code int[]} hints yield an {@code int[]} rather
+     * than an array of boxed integers.
+     */
+    private Object convertToArray(Configuration config, Class<?> componentType, String key) {
+        List<?> values = config.getList(key);
+        int length = values == null ? 0 : values.size();
+        TypeInfo elementType = new TypeInfo(componentType, Collections.emptyList());
+        if (componentType == int.class) {
+            int[] array = new int[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = (Integer) convertArrayElement(values, i, componentType, elementType);
+            }
+            return array;
+        }
+        if (componentType == long.class) {
+            long[] array = new long[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = (Long) convertArrayElement(values, i, componentType, elementType);
+            }
+            return array;
+        }
+        if (componentType == double.class) {
+            double[] array = new double[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = (Double) convertArrayElement(values, i, componentType, elementType);
+            }
+            return array;
+        }
+        Object array = java.lang.reflect.Array.newInstance(componentType, length);
+        for (int i = 0; i < length; i++) {
+            java.lang.reflect.Array.set(array, i, convertArrayElement(values, i, componentType, elementType));
+        }
+        return array;
+    }
+
+    /**
+     * Converts one element of an array value. Elements of primitive arrays must not be null;
+     * the exception is reported with the key by {@link #convertToType}.
+     */
+    private Object convertArrayElement(List<?> values, int index, Class<?> componentType, TypeInfo elementType) {
+        Object value = convertSingleValue(values.get(index), elementType);
+        if (value == null && componentType.isPrimitive()) {
+            throw new IllegalArgumentException("Element " + index + " is null and cannot be stored in a "
+                    + componentType.getName() + "[]");
+        }
+        return value;
     }
 
-    private Object convertSingleValue(Object value, TypeInfo typeInfo) throws ClassNotFoundException {
+    private Object convertSingleValue(Object value, TypeInfo typeInfo) {
         if (value == null) {
             return null;
         }
         Class<?> targetClass = typeInfo.getRawType();
+        List<TypeInfo> typeParameters = typeInfo.getTypeParameters();
 
-        if (targetClass.isAssignableFrom(Map.class)) {
-            Map<Object, Object> convertedMap = new HashMap<>();
-            ((Map<?, ?>)value).forEach((key2, value2) -> {
-                Object convertedValue;
-                try {
-                    convertedValue = convertSingleValue(value2, typeInfo.getTypeParameters().get(1));
-                } catch (ClassNotFoundException e) {
-                    throw new RuntimeException(e);
-                }
-                convertedMap.put(key2, convertedValue);
-            });
-            return convertedMap;
-        } else if(targetClass.isAssignableFrom(List.class)) {
-            return ((List<?>)value).stream().map(value2 -> {
-                try {
-                    return convertSingleValue(value2, typeInfo.getTypeParameters().get(0));
-                } catch (ClassNotFoundException e) {
-                    throw new RuntimeException(e);
-                }
-            }).collect(Collectors.toList());
-        } else if(targetClass.isAssignableFrom(Set.class)) {
-            return ((Set<?>)value).stream().map(value2 -> {
-                try {
-                    return convertSingleValue(value2, typeInfo.getTypeParameters().get(0));
-                } catch (ClassNotFoundException e) {
-                    throw new RuntimeException(e);
-                }
-            }).collect(Collectors.toSet());
+        if (typeParameters.size() == 2 && value instanceof Map && targetClass.isAssignableFrom(Map.class)) {
+            return convertMap((Map<?, ?>) value, typeParameters.get(0), typeParameters.get(1));
+        } else if (typeParameters.size() == 1 && targetClass.isAssignableFrom(List.class)) {
+            return convertElements(value, typeParameters.get(0), new ArrayList<>());
+        } else if (typeParameters.size() == 1 && targetClass.isAssignableFrom(Set.class)) {
+            return convertElements(value, typeParameters.get(0), new HashSet<>());
         }
 
         // If the value is already of the correct type, return it
@@ -328,29 +481,95 @@ public class PropifyPropertiesBuilder {
             return value;
         }
 
-        // Convert the value using a temporary key
-        String tempKey = "temp_conversion_key";
-        Configuration tempConfig = new org.apache.commons.configuration2.MapConfiguration(
-                Collections.singletonMap(tempKey, value));
+        TypeConverter converter = converterRegistry.getConverter(targetClass);
+        if (converter != null) {
+            return converter.convert(value, targetClass);
+        }
+        if (isTemporal(targetClass)) {
+            return convertTemporal(targetClass, value.toString());
+        }
+        return DefaultConversionHandler.INSTANCE.to(value, targetClass, null);
+    }
 
-        PropifyPropertiesBuilder tempBuilder = new PropifyPropertiesBuilder().config(tempConfig);
-        return tempBuilder.convertToTypeInternal(tempConfig, typeInfo, tempKey);
+    private <C extends Collection<Object>> C convertElements(Object value, TypeInfo elementType, C result) {
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                result.add(convertSingleValue(element, elementType));
+            }
+        } else {
+            result.add(convertSingleValue(value, elementType));
+        }
+        return result;
     }
 
-    private Class<?> getClassForType(String typeName) throws ClassNotFoundException {
+    /**
+     * Resolves a type name from a type hint.
+     *
+     * @param typeName the type name, for example {@code "int"}, {@code "Duration"} or {@code "com.example.Mode"}
+     * @return the resolved class, or null if the name cannot be resolved
+     */
+    private static Class<?> getClassForType(String typeName) {
         // Handle primitive types
         Class<?> primitiveType = getPrimitiveType(typeName);
         if (primitiveType != null) {
             return primitiveType;
         }
 
-        // Handle array types
+        Class<?> common = COMMON_TYPES.get(typeName);
+        if (common != null) {
+            return common;
+        }
+        WeakReference<Class<?>> cached = RESOLVED_CLASS_CACHE.get(typeName);
+        if (cached == UNRESOLVED) {
+            return null;
+        }
+        Class<?> cachedClass = cached == null ? null : cached.get();
+        if (cachedClass != null) {
+            return cachedClass;
+        }
+
+        Class<?> resolved;
         if (typeName.endsWith("[]")) {
-            String componentTypeName = typeName.substring(0, typeName.length() - 2);
-            Class<?> componentType = getClassForType(componentTypeName);
-            return java.lang.reflect.Array.newInstance(componentType, 0).getClass();
+            // Handle array types
+            String componentTypeName = typeName.substring(0, typeName.length() - 2).trim();
+            Class<?> componentType = getArrayComponentType(componentTypeName);
+            resolved = componentType == null ? null : java.lang.reflect.Array.newInstance(componentType, 0).getClass();
+        } else {
+            resolved = loadClass(typeName);
+        }
+        RESOLVED_CLASS_CACHE.put(typeName, resolved == null ? UNRESOLVED : new WeakReference<>(resolved));
+        return resolved;
+    }
+
+    /**
+     * Resolves the component type of an array hint. Primitive keywords such as {@code int}
+     * resolve to the primitive class, so that {@code int[]} maps to a primitive array, while
+     * {@code Integer[]} keeps its boxed component type.
+     */
+    private static Class<?> getArrayComponentType(String typeName) {
+        switch (typeName) {
+            case "boolean":
+                return boolean.class;
+            case "byte":
+                return byte.class;
+            case "char":
+                return char.class;
+            case "short":
+                return short.class;
+            case "int":
+                return int.class;
+            case "long":
+                return long.class;
+            case "float":
+                return float.class;
+            case "double":
+                return double.class;
+            default:
+                return getClassForType(typeName);
         }
+    }
 
+    private static Class<?> loadClass(String typeName) {
         // Handle fully qualified class names
         try {
             return Class.forName(typeName);
@@ -370,11 +589,11 @@ public class PropifyPropertiesBuilder {
                     // Continue searching
                 }
             }
-            throw e;
+            return null;
         }
     }
 
-    private Class<?> getPrimitiveType(String typeName) {
+    private static Class<?> getPrimitiveType(String typeName) {
         switch (typeName.toLowerCase()) {
             case "byte":
                 return Byte.class;
@@ -420,31 +639,56 @@ public class PropifyPropertiesBuilder {
     }
 
     private void storeValue(PropifyProperties properties, String key, Object value) {
-        String[] keyPath = key.split("\\s*\\.\\s*");
-        if (keyPath.length > 1) {
-            PropifyProperties current = properties;
-            for (int i = 0; i < keyPath.length - 1; i++) {
-                String pathKey = keyPath[i].trim();
-                Object existing = current.get(pathKey);
-                if (existing instanceof PropifyProperties) {
-                    current = (PropifyProperties) existing;
-                } else {
-                    current = current.createNested(pathKey);
-                }
-            }
-            current.put(keyPath[keyPath.length - 1].trim(), value);
-        } else {
+        int end = lastPathSegmentEnd(key);
+        if (end < 0 || key.indexOf('.') >= end) {
             properties.put(key.trim(), value);
+            return;
+        }
+        PropifyProperties current = properties;
+        int segmentStart = 0;
+        int dot = key.indexOf('.');
+        while (dot >= 0 && dot < end) {
+            String pathKey = key.substring(segmentStart, dot).trim();
+            Object existing = current.get(pathKey);
+            if (existing instanceof PropifyProperties) {
+                current = (PropifyProperties) existing;
+            } else {
+                current = current.createNested(pathKey);
+            }
+            segmentStart = dot + 1;
+            dot = key.indexOf('.', segmentStart);
+        }
+        current.put(key.substring(segmentStart, end).trim(), value);
+    }
+
+    /**
+     * Returns the end index of the last non-blank path segment of a dotted key.
+     *
+     * <p>Trailing segments that are empty or blank are ignored, so {@code "a.b."} is treated
+     * as {@code "a.b"}. Returns -1 if the key consists of dots and whitespace only.
+     */
+    private static int lastPathSegmentEnd(String key) {
+        int end = key.length();
+        while (end > 0) {
+            int dot = key.lastIndexOf('.', end - 1);
+            if (!key.substring(dot + 1, end).trim().isEmpty()) {
+                return end;
+            }
+            if (dot < 0) {
+                return -1;
+            }
+            end = dot;
         }
+        return -1;
     }
 
-    private static class TypeInfo {
+    static final class TypeInfo {
         private final Class<?> rawType;
         private final List<TypeInfo> typeParameters;
 
         public TypeInfo(Class<?> rawType, List<TypeInfo> typeParameters) {
             this.rawType = rawType;
-            this.typeParameters = typeParameters;
+            this.typeParameters = Collections.unmodifiableList(typeParameters);
         }
 
         public Class<?> getRawType() {
@@ -0,0 +1,38 @@
+package com.vgerbot.propify.core;
+
+/**
+ * Converts raw configuration values into the types requested by type hints.
+ *
+ * <p>Converters are used by {@link PropifyPropertiesBuilder} to convert the elements of typed
+ * lists, sets, maps and arrays, as well as values nested inside structured configurations.
+ * A converter receives the raw value as produced by the configuration parser, which is usually
+ * a {@link String} but may already be a number or a boolean for formats such as YAML.
+ *
+ * <p>Converters are discovered through Java's ServiceLoader mechanism. To register a new
+ * converter implementation, include its fully qualified class name in:
+ * {@code META-INF/services/com.vgerbot.propify.core.TypeConverter}
+ * Registered converters are preferred over the built-in ones.
+ *
+ * @see TypeConverterRegistry
+ * @since 3.1.0
+ */
+public interface TypeConverter {
+
+    /**
+     * Checks whether this converter can produce values of the given type.
+     *
+     * @param targetType the requested type
+     * @return true if {@link #convert(Object, Class)} supports the type
+     */
+    boolean supports(Class<?> targetType);
+
+    /**
+     * Converts a raw configuration value into the given type.
+     *
+     * @param value the raw value, never null
+     * @param targetType the requested type, for which {@link #supports(Class)} returned true
+     * @return the converted value
+     * @throws PropifyPropertiesBuilder.PropifyTypeConversionException if the value cannot be converted
+     */
+    Object convert(Object value, Class<?> targetType);
+}
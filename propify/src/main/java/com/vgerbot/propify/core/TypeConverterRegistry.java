@@ -0,0 +1,135 @@
+package com.vgerbot.propify.core;
+
+import com.vgerbot.propify.service.ServiceLoaderWrapper;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Registry of the {@link TypeConverter} implementations available on the classpath.
+ *
+ * <p>Converters are discovered once per class loader through the ServiceLoader mechanism.
+ * {@link #getInstance()} uses the thread context class loader, so converters shipped with the
+ * application are found even when Propify is loaded by a parent class loader. Converters
+ * registered by the application take precedence over the built-in ones for the types both
+ * support.
+ *
+ * <p>The converter chosen for each target type is remembered, so looking up a converter for a
+ * type that has been seen before does not scan the converter list again.
+ */
+public class TypeConverterRegistry {
+    private static final String BUILT_IN_PACKAGE = "com.vgerbot.propify.converter.";
+    private static final ClassLoader LIBRARY_CLASS_LOADER = TypeConverter.class.getClassLoader();
+    private static final TypeConverterRegistry INSTANCE = new TypeConverterRegistry(loadConverters(LIBRARY_CLASS_LOADER));
+
+    /**
+     * Registries of other class loaders. The values are soft references, since the converters
+     * of a registry reference its class loader and would otherwise keep the key reachable.
+     */
+    private static final Map<ClassLoader, SoftReference<TypeConverterRegistry>> REGISTRIES = new WeakHashMap<>();
+
+    private final List<TypeConverter> converters;
+    private final ClassValue<Optional<TypeConverter>> convertersByType = new ClassValue<Optional<TypeConverter>>() {
+        @Override
+        protected Optional<TypeConverter> computeValue(Class<?> type) {
+            for (TypeConverter converter : converters) {
+                if (converter.supports(type)) {
+                    return Optional.of(converter);
+                }
+            }
+            return Optional.empty();
+        }
+    };
+
+    TypeConverterRegistry(List<TypeConverter> converters) {
+        List<TypeConverter> ordered = new ArrayList<>(converters.size());
+        for (TypeConverter converter : converters) {
+            if (!isBuiltIn(converter)) {
+                ordered.add(converter);
+            }
+        }
+        for (TypeConverter converter : converters) {
+            if (isBuiltIn(converter)) {
+                ordered.add(converter);
+            }
+        }
+        this.converters = Collections.unmodifiableList(ordered);
+    }
+
+    /**
+     * Gets the registry of the current thread's context class loader.
+     *
+     * @return the registry, or the registry of Propify's own class loader if the thread has no
+     * context class loader
+     */
+    public static TypeConverterRegistry getInstance() {
+        return getInstance(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Gets the registry of the converters visible to the given class loader, together with the
+     * built-in converters.
+     *
+     * @param classLoader the class loader used to discover converters, may be null
+     * @return the registry for the class loader
+     * @since 3.1.0
+     */
+    public static TypeConverterRegistry getInstance(ClassLoader classLoader) {
+        if (classLoader == null || classLoader == LIBRARY_CLASS_LOADER) {
+            return INSTANCE;
+        }
+        synchronized (REGISTRIES) {
+            SoftReference<TypeConverterRegistry> reference = REGISTRIES.get(classLoader);
+            TypeConverterRegistry registry = reference == null ? null : reference.get();
+            if (registry == null) {
+                List<TypeConverter> converters = loadConverters(classLoader);
+                converters.addAll(INSTANCE.converters);
+                registry = new TypeConverterRegistry(distinct(converters));
+                REGISTRIES.put(classLoader, new SoftReference<>(registry));
+            }
+            return registry;
+        }
+    }
+
+    /**
+     * Finds the converter for the given target type.
+     *
+     * @param targetType the requested type
+     * @return the first registered converter that supports the type, application converters
+     * first, or null if there is none
+     */
+    public TypeConverter getConverter(Class<?> targetType) {
+        return convertersByType.get(targetType).orElse(null);
+    }
+
+    private static boolean isBuiltIn(TypeConverter converter) {
+        Class<?> type = converter.getClass();
+        return type.getClassLoader() == LIBRARY_CLASS_LOADER && type.getName().startsWith(BUILT_IN_PACKAGE);
+    }
+
+    /**
+     * Removes converters of the same class that were found through both the given class loader
+     * and Propify's own class loader, keeping the first one.
+     */
+    private static List<TypeConverter> distinct(List<TypeConverter> converters) {
+        Map<Class<?>, TypeConverter> byClass = new LinkedHashMap<>();
+        for (TypeConverter converter : converters) {
+            byClass.putIfAbsent(converter.getClass(), converter);
+        }
+        return new ArrayList<>(byClass.values());
+    }
+
+    private static List<TypeConverter> loadConverters(ClassLoader classLoader) {
+        List<TypeConverter> converters = new ArrayList<>();
+        for (TypeConverter converter : ServiceLoaderWrapper.forClass(TypeConverter.class, classLoader)) {
+            converters.add(converter);
+        }
+        return converters;
+    }
+}
@@ -0,0 +1,343 @@
+package com.vgerbot.propify.generator;
+
+import com.squareup.javapoet.*;
+import com.vgerbot.propify.common.Utils;
+import com.vgerbot.propify.core.PropifyProperties;
+
+import javax.lang.model.element.Modifier;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.*;
+
+/**
+ * Writes a parsed {@link PropifyProperties} tree into a generated class as Java literals.
+ *
+ * <p>Every properties node becomes a private static factory method that rebuilds the node
+ * from literals, so the generated class can create its property tree without loading or
+ * parsing the configuration resource. To stay below the JVM method size limit, no method
+ * receives more than {@value #MAX_STATEMENTS_PER_METHOD} statements: nodes with more are
+ * filled by several chunk methods, and large lists, sets, maps and arrays are built by
+ * factory methods of their own, which are split the same way.
+ */
+final class EmbeddedPropertiesWriter {
+    private static final int MAX_STATEMENTS_PER_METHOD = 256;
+    private static final int MAX_INLINE_STATEMENTS = 32;
+    private static final String METHOD_PREFIX = "createProperties";
+
+    private final TypeSpec.Builder typeBuilder;
+    private int methodCount;
+
+    EmbeddedPropertiesWriter(TypeSpec.Builder typeBuilder) {
+        this.typeBuilder = typeBuilder;
+    }
+
+    /**
+     * Writes the given properties tree into the generated type.
+     *
+     * @param properties the properties to embed
+     * @return the name of the static factory method that creates the root properties
+     */
+    String write(PropifyProperties properties) {
+        String methodName = nextMethodName(METHOD_PREFIX);
+        MethodWriter method = new MethodWriter(MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(PropifyProperties.class));
+        String name = method.newName("properties");
+        method.addStatement("$T $N = new $T()", PropifyProperties.class, name, PropifyProperties.class);
+        fill(method, TypeName.get(PropifyProperties.class), name, properties.entrySet(),
+                (target, entry, index) -> target.addStatement("$N.put($S, $L)", name, entry.getKey(),
+                        toExpression(target, entry.getValue())));
+        method.addStatement("return $N", name);
+        typeBuilder.addMethod(method.build());
+        return methodName;
+    }
+
+    private String nextMethodName(String prefix) {
+        String name = methodCount == 0 ? prefix : prefix + methodCount;
+        methodCount++;
+        return name;
+    }
+
+    /**
+     * Writes one statement per element into the method that declares the container. If the
+     * elements need more than {@value #MAX_STATEMENTS_PER_METHOD} statements, they are written
+     * into chunk methods instead, which receive the container as parameter.
+     */
+    private <T> void fill(MethodWriter method, TypeName containerType, String container,
+                          Collection<T> elements, ElementWriter<T> writer) {
+        int statements = 0;
+        for (T element : elements) {
+            if (element instanceof Map.Entry) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+                statements += 1 + nestedCost(entry.getKey()) + nestedCost(entry.getValue());
+            } else {
+                statements += 1 + nestedCost(element);
+            }
+            if (statements > MAX_STATEMENTS_PER_METHOD) {
+                break;
+            }
+        }
+        if (statements <= MAX_STATEMENTS_PER_METHOD) {
+            int index = 0;
+            for (T element : elements) {
+                writer.write(method, element, index++);
+            }
+            return;
+        }
+
+        MethodWriter chunk = null;
+        int index = 0;
+        for (T element : elements) {
+            if (chunk == null || chunk.statements >= MAX_STATEMENTS_PER_METHOD) {
+                if (chunk != null) {
+                    typeBuilder.addMethod(chunk.build());
+                }
+                String chunkName = nextMethodName(METHOD_PREFIX);
+                chunk = new MethodWriter(MethodSpec.methodBuilder(chunkName)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .addParameter(containerType, container));
+                chunk.newName(container);
+                method.addStatement("$N($N)", chunkName, container);
+            }
+            writer.write(chunk, element, index++);
+        }
+        typeBuilder.addMethod(chunk.build());
+    }
+
+    private CodeBlock toExpression(MethodWriter method, Object value) {
+        if (value == null) {
+            return CodeBlock.of("null");
+        }
+        if (value instanceof PropifyProperties) {
+            return CodeBlock.of("$L()", write((PropifyProperties) value));
+        }
+        if (value instanceof String) {
+            return CodeBlock.of("$S", value);
+        }
+        if (value instanceof Boolean || value instanceof Integer) {
+            return CodeBlock.of("$L", value);
+        }
+        if (value instanceof Long) {
+            return CodeBlock.of("$LL", value);
+        }
+        if (value instanceof Short) {
+            return CodeBlock.of("(short) $L", value);
+        }
+        if (value instanceof Byte) {
+            return CodeBlock.of("(byte) $L", value);
+        }
+        if (value instanceof Character) {
+            return CodeBlock.of("$L", Utils.toLiteralString(value));
+        }
+        if (value instanceof Float) {
+            return floatExpression((Float) value);
+        }
+        if (value instanceof Double) {
+            return doubleExpression((Double) value);
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return CodeBlock.of("new $T($S)", value.getClass(), value.toString());
+        }
+        if (value instanceof LocalDate || value instanceof LocalTime || value instanceof LocalDateTime
+                || value instanceof Instant || value instanceof Duration || value instanceof Period) {
+            return CodeBlock.of("$T.parse($S)", value.getClass(), value.toString());
+        }
+        if (value instanceof Date) {
+            return CodeBlock.of("new $T($LL)", Date.class, ((Date) value).getTime());
+        }
+        if (isContainer(value)) {
+            return containerExpression(method, value);
+        }
+        throw new IllegalArgumentException("Cannot embed configuration value of type " + value.getClass().getName());
+    }
+
+    private CodeBlock floatExpression(Float value) {
+        if (value.isNaN()) {
+            return CodeBlock.of("$T.NaN", Float.class);
+        }
+        if (value.isInfinite()) {
+            return CodeBlock.of(value > 0 ? "$T.POSITIVE_INFINITY" : "$T.NEGATIVE_INFINITY", Float.class);
+        }
+        return CodeBlock.of("$LF", value);
+    }
+
+    private CodeBlock doubleExpression(Double value) {
+        if (value.isNaN()) {
+            return CodeBlock.of("$T.NaN", Double.class);
+        }
+        if (value.isInfinite()) {
+            return CodeBlock.of(value > 0 ? "$T.POSITIVE_INFINITY" : "$T.NEGATIVE_INFINITY", Double.class);
+        }
+        return CodeBlock.of("$LD", value);
+    }
+
+    /**
+     * Builds a list, set, map or array in the current method if it is small, and otherwise in
+     * a factory method of its own.
+     */
+    private CodeBlock containerExpression(MethodWriter method, Object value) {
+        if (inlineCost(value) <= MAX_INLINE_STATEMENTS) {
+            return buildContainer(method, value, true);
+        }
+        String factoryName = nextMethodName("create" + containerKind(value));
+        MethodWriter factory = new MethodWriter(MethodSpec.methodBuilder(factoryName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(containerType(value)));
+        factory.addStatement("return $L", buildContainer(factory, value, false));
+        typeBuilder.addMethod(factory.build());
+        return CodeBlock.of("$N()", factoryName);
+    }
+
+    private CodeBlock buildContainer(MethodWriter method, Object value, boolean inline) {
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            Class<?> interfaceType = value instanceof List ? List.class : Set.class;
+            Class<?> implementation = value instanceof List ? ArrayList.class : LinkedHashSet.class;
+            String name = method.newName(value instanceof List ? "list" : "set");
+            method.addStatement("$T<$T> $N = new $T<>($L)", interfaceType, Object.class, name, implementation, collection.size());
+            fill(method, containerType(value), name, collection,
+                    (target, item, index) -> target.addStatement("$N.add($L)", name, toExpression(target, item)));
+            return CodeBlock.of("$N", name);
+        }
+        if (value instanceof Map) {
+            String name = method.newName("map");
+            method.addStatement("$T<$T, $T> $N = new $T<>()", Map.class, Object.class, Object.class, name, LinkedHashMap.class);
+            fill(method, containerType(value), name, ((Map<?, ?>) value).entrySet(), (target, entry, index) -> {
+                CodeBlock key = toExpression(target, entry.getKey());
+                CodeBlock item = toExpression(target, entry.getValue());
+                target.addStatement("$N.put($L, $L)", name, key, item);
+            });
+            return CodeBlock.of("$N", name);
+        }
+
+        int length = Array.getLength(value);
+        List<Object> elements = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            elements.add(Array.get(value, i));
+        }
+        if (inline) {
+            List<CodeBlock> expressions = new ArrayList<>(length);
+            for (Object element : elements) {
+                expressions.add(toExpression(method, element));
+            }
+            return CodeBlock.of("new $T{$L}", TypeName.get(value.getClass()), CodeBlock.join(expressions, ", "));
+        }
+        String name = method.newName("array");
+        method.addStatement("$T $N = $L", value.getClass(), name, newArrayExpression(value.getClass().getComponentType(), length));
+        fill(method, containerType(value), name, elements,
+                (target, element, index) -> target.addStatement("$N[$L] = $L", name, index, toExpression(target, element)));
+        return CodeBlock.of("$N", name);
+    }
+
+    private static CodeBlock newArrayExpression(Class<?> componentType, int length) {
+        Class<?> elementType = componentType;
+        StringBuilder dimensions = new StringBuilder();
+        while (elementType.isArray()) {
+            dimensions.append("[]");
+            elementType = elementType.getComponentType();
+        }
+        return CodeBlock.of("new $T[$L]$L", elementType, length, dimensions);
+    }
+
+    private static boolean isContainer(Object value) {
+        return value instanceof Collection || value instanceof Map || (value != null && value.getClass().isArray());
+    }
+
+    private static String containerKind(Object value) {
+        if (value instanceof List) {
+            return "List";
+        }
+        if (value instanceof Set) {
+            return "Set";
+        }
+        return value instanceof Map ? "Map" : "Array";
+    }
+
+    private static TypeName containerType(Object value) {
+        if (value instanceof Collection) {
+            return ParameterizedTypeName.get(value instanceof List ? List.class : Set.class, Object.class);
+        }
+        if (value instanceof Map) {
+            return ParameterizedTypeName.get(Map.class, Object.class, Object.class);
+        }
+        return TypeName.get(value.getClass());
+    }
+
+    /**
+     * Returns the number of statements a value adds to the method it is used in: the
+     * statements of a container built in place, and none for other values.
+     */
+    private static int nestedCost(Object value) {
+        if (!isContainer(value)) {
+            return 0;
+        }
+        int cost = inlineCost(value);
+        return cost <= MAX_INLINE_STATEMENTS ? cost : 1;
+    }
+
+    /**
+     * Returns the number of statements needed to build a container in place. Counting stops
+     * once the result exceeds {@value #MAX_INLINE_STATEMENTS}, so huge containers are not
+     * walked completely.
+     */
+    private static int inlineCost(Object value) {
+        int cost = value.getClass().isArray() ? 0 : 1;
+        if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                cost += 1 + nestedCost(item);
+                if (cost > MAX_INLINE_STATEMENTS) {
+                    return cost;
+                }
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                cost += 1 + nestedCost(entry.getKey()) + nestedCost(entry.getValue());
+                if (cost > MAX_INLINE_STATEMENTS) {
+                    return cost;
+                }
+            }
+        } else {
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                cost += 1 + nestedCost(Array.get(value, i));
+                if (cost > MAX_INLINE_STATEMENTS) {
+                    return cost;
+                }
+            }
+        }
+        return cost;
+    }
+
+    @FunctionalInterface
+    private interface ElementWriter<T> {
+        void write(MethodWriter target, T element, int index);
+    }
+
+    /**
+     * A method under construction that counts its statements.
+     */
+    private static final class MethodWriter {
+        private final MethodSpec.Builder builder;
+        private final NameAllocator names = new NameAllocator();
+        private int statements;
+
+        MethodWriter(MethodSpec.Builder builder) {
+            this.builder = builder;
+        }
+
+        String newName(String suggestion) {
+            return names.newName(suggestion);
+        }
+
+        void addStatement(String format, Object... args) {
+            builder.addStatement(format, args);
+            statements++;
+        }
+
+        MethodSpec build() {
+            return builder.build();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.vgerbot.propify.common.Utils;
 import com.vgerbot.propify.i18n.ICUMessageTemplateExtension;
 import com.vgerbot.propify.i18n.ICUTemplateArgumentsParser;
 import com.vgerbot.propify.i18n.Message;
+import com.vgerbot.propify.i18n.MessageTemplate;
 import com.vgerbot.propify.i18n.PropifyI18nResourceBundle;
 
 import javax.lang.model.element.Modifier;
@@ -23,11 +24,16 @@ public class I18nJavaPoetCodeGenerator {
         return SingletonHolder.INSTANCE;
     }
 
+    private static final String LOCALE_MESSAGES = "LocaleMessages";
+    private static final String COMPILED_LOCALE_MESSAGES = "CompiledLocaleMessages";
+
     public String generateCode(String packageName, String className, String baseName, String defaultLocale, ResourceBundle bundle) {
+        List<MessageMethod> messages = collectMessages(bundle);
+
         // Generate the LocaleMessages interface
-        TypeSpec localeMessagesInterface = TypeSpec.interfaceBuilder("LocaleMessages")
+        TypeSpec localeMessagesInterface = TypeSpec.interfaceBuilder(LOCALE_MESSAGES)
                 .addModifiers(Modifier.PUBLIC)
-                .addMethods(generateInterfaceMethods(bundle))
+                .addMethods(generateInterfaceMethods(messages))
                 .build();
 
         // Generate the MessageResource class
@@ -35,6 +41,7 @@ public class I18nJavaPoetCodeGenerator {
                 .addModifiers(Modifier.PUBLIC)
                 .addField(generateResourceBundleField(baseName))
                 .addType(localeMessagesInterface)
+                .addType(generateCompiledLocaleMessages(className, messages))
                 .addMethod(generateGetMethod())
                 .addMethod(generateGetDefaultMethod(defaultLocale))
                 .build();
@@ -62,9 +69,8 @@ public class I18nJavaPoetCodeGenerator {
                 .build();
     }
 
-    private Iterable<MethodSpec> generateInterfaceMethods(ResourceBundle bundle) {
+    private List<MessageMethod> collectMessages(ResourceBundle bundle) {
         return bundle.keySet().stream().map(key -> {
-            String methodName = Utils.convertToFieldName(key);
             Object value = bundle.getObject(key);
             List<ICUTemplateArgumentsParser.Argument> arguments;
 
@@ -73,38 +79,101 @@ public class I18nJavaPoetCodeGenerator {
             } else {
                 arguments = new ArrayList<>(0);
             }
+            return new MessageMethod(key, Utils.convertToFieldName(key), arguments);
+        }).collect(Collectors.toList());
+    }
 
-            String format = "{" + arguments.stream().map(v -> "$S").collect(Collectors.joining(",")) + "}";
+    private Iterable<MethodSpec> generateInterfaceMethods(List<MessageMethod> messages) {
+        return messages.stream().map(message -> {
             AnnotationSpec annotation = AnnotationSpec.builder(Message.class)
-                    .addMember("key", CodeBlock.of("$S", key))
-                    .addMember("arguments", CodeBlock.of(format, arguments.stream().map(ICUTemplateArgumentsParser.Argument::getName).toArray()))
+                    .addMember("key", CodeBlock.of("$S", message.key))
+                    .addMember("arguments", message.argumentNames())
                     .build();
-            return MethodSpec.methodBuilder(methodName)
+            return MethodSpec.methodBuilder(message.methodName)
                     .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
                     .returns(String.class)
-                    .addParameters(arguments.stream().map(it -> ParameterSpec.builder(it.getType(), Utils.convertToFieldName(it.getName())).build()).collect(Collectors.toList()))
+                    .addParameters(message.parameters())
                     .addAnnotation(annotation)
                     .build();
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Generates the implementation of LocaleMessages. It compiles the message of every key
+     * once per locale, so a method call only formats the precompiled message.
+     */
+    private TypeSpec generateCompiledLocaleMessages(String className, List<MessageMethod> messages) {
+        ClassName resourceClass = ClassName.get("", className);
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+                .addParameter(ResourceBundle.class, "bundle")
+                .addParameter(Locale.class, "locale");
+        TypeSpec.Builder type = TypeSpec.classBuilder(COMPILED_LOCALE_MESSAGES)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addSuperinterface(ClassName.get("", LOCALE_MESSAGES));
+
+        for (MessageMethod message : messages) {
+            type.addField(MessageTemplate.class, message.methodName, Modifier.PRIVATE, Modifier.FINAL);
+            CodeBlock.Builder arguments = CodeBlock.builder().add("$S", message.key);
+            for (ICUTemplateArgumentsParser.Argument argument : message.arguments) {
+                arguments.add(", $S", argument.getName());
+            }
+            constructor.addStatement("this.$N = $T.resourceBundle.getMessageTemplate(bundle, locale, $L)",
+                    message.methodName, resourceClass, arguments.build());
+
+            List<ParameterSpec> parameters = message.parameters();
+            type.addMethod(MethodSpec.methodBuilder(message.methodName)
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(String.class)
+                    .addParameters(parameters)
+                    .addStatement("return this.$N.format($L)", message.methodName,
+                            parameters.stream().map(it -> CodeBlock.of("$N", it)).collect(CodeBlock.joining(", ")))
+                    .build());
+        }
+        return type.addMethod(constructor.build()).build();
+    }
+
     private MethodSpec generateGetMethod() {
         return MethodSpec.methodBuilder("get")
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
-                .returns(ClassName.get("", "LocaleMessages"))
+                .returns(ClassName.get("", LOCALE_MESSAGES))
                 .addParameter(Locale.class, "locale")
-                .addStatement("return resourceBundle.getMessageBundle($T.class, locale)", ClassName.get("", "LocaleMessages"))
+                .addStatement("return resourceBundle.getMessageBundle($T.class, locale, $T::new)",
+                        ClassName.get("", LOCALE_MESSAGES), ClassName.get("", COMPILED_LOCALE_MESSAGES))
                 .build();
     }
 
     private MethodSpec generateGetDefaultMethod(String defaultLocale) {
         return MethodSpec.methodBuilder("getDefault")
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
-                .returns(ClassName.get("", "LocaleMessages"))
+                .returns(ClassName.get("", LOCALE_MESSAGES))
                 .addStatement(
                         defaultLocale.trim().isEmpty() ?
                                 CodeBlock.of("return get($T.getDefault())", Locale.class)
                                 : CodeBlock.of("return get($T.forLanguageTag($S))", Locale.class, defaultLocale))
                 .build();
     }
+
+    private static final class MessageMethod {
+        private final String key;
+        private final String methodName;
+        private final List<ICUTemplateArgumentsParser.Argument> arguments;
+
+        MessageMethod(String key, String methodName, List<ICUTemplateArgumentsParser.Argument> arguments) {
+            this.key = key;
+            this.methodName = methodName;
+            this.arguments = arguments;
+        }
+
+        CodeBlock argumentNames() {
+            String format = "{" + arguments.stream().map(v -> "$S").collect(Collectors.joining(",")) + "}";
+            return CodeBlock.of(format, arguments.stream().map(ICUTemplateArgumentsParser.Argument::getName).toArray());
+        }
+
+        List<ParameterSpec> parameters() {
+            return arguments.stream()
+                    .map(it -> ParameterSpec.builder(it.getType(), Utils.convertToFieldName(it.getName())).build())
+                    .collect(Collectors.toList());
+        }
+    }
 }
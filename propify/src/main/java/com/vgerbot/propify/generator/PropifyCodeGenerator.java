@@ -5,6 +5,8 @@ import com.vgerbot.propify.common.Utils;
 import com.vgerbot.propify.core.*;
 import com.vgerbot.propify.logger.RuntimeLogger;
 import com.vgerbot.propify.loader.RuntimeResourceLoaderProvider;
+import com.vgerbot.propify.reload.PropifyReloadListener;
+import com.vgerbot.propify.reload.PropifyReloader;
 
 import javax.lang.model.element.Modifier;
 import java.io.IOException;
@@ -22,11 +24,115 @@ public final class PropifyCodeGenerator {
 
     public String generateCode(String packageName, String className, PropifyContext context, PropifyProperties properties) {
         ClassName className1 = ClassName.get(packageName, className);
-        TypeSpec.Builder builder = generateType(
-                className1,
-                properties
-        );
+        TypeSpec.Builder builder = context.isFieldBacked()
+                ? generateFieldBackedType(className1, properties, context.isCopyArrays())
+                : generateType(className1, properties, context.isCopyArrays());
         builder.addModifiers(Modifier.PUBLIC);
+        MethodSpec.Builder loadInstanceBuilder = MethodSpec.methodBuilder("loadInstance")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(className1);
+        if (context.isEmbedded()) {
+            String factoryMethodName = new EmbeddedPropertiesWriter(builder).write(properties);
+            loadInstanceBuilder.addStatement("return new $T($L())", className1, factoryMethodName);
+        } else if (context.isReload()) {
+            addReloader(builder, className1, context);
+            loadInstanceBuilder.addStatement("return new $T(RELOADER.load())", className1);
+        } else {
+            loadInstanceBuilder
+                    .addStatement(generateContextConstruction(context))
+                    .addStatement("$T propifyPropertiesBuilder = new $T()", PropifyPropertiesBuilder.class, PropifyPropertiesBuilder.class)
+                    .addStatement("return new $T(propifyPropertiesBuilder.build(context))", className1);
+        }
+        builder.addMethod(loadInstanceBuilder.build());
+        addInstanceAccessors(builder, className1, !context.isEmbedded(), !context.isEmbedded() && context.isReload());
+        TypeSpec typeSpec = builder.build();
+        JavaFile javaFile = JavaFile.builder(packageName, typeSpec)
+                .addFileComment("Generated code - do not modify")
+                .build();
+
+        StringBuilder sb = new StringBuilder();
+        try {
+            javaFile.writeTo(sb);
+            return sb.toString();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to generate code", e);
+        }
+    }
+
+    private void addReloader(TypeSpec.Builder builder, ClassName className, PropifyContext context) {
+        builder.addField(
+                FieldSpec.builder(PropifyReloader.class, "RELOADER", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("createReloader()")
+                        .build()
+        );
+        builder.addMethod(
+                MethodSpec.methodBuilder("createReloader")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .returns(PropifyReloader.class)
+                        .addStatement(generateContextConstruction(context))
+                        .addStatement("return new $T(context, $LL, properties -> INSTANCE_REF.set(new $T(properties)))",
+                                PropifyReloader.class, context.getReloadDebounceMillis(), className)
+                        .build()
+        );
+        builder.addMethod(
+                MethodSpec.methodBuilder("addReloadListener")
+                        .addJavadoc("Registers a listener notified with the changed keys after the configuration was reloaded.\n")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .addParameter(PropifyReloadListener.class, "listener")
+                        .addStatement("RELOADER.addListener(listener)")
+                        .build()
+        );
+        builder.addMethod(
+                MethodSpec.methodBuilder("removeReloadListener")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .returns(TypeName.BOOLEAN)
+                        .addParameter(PropifyReloadListener.class, "listener")
+                        .addStatement("return RELOADER.removeListener(listener)")
+                        .build()
+        );
+    }
+
+    private void addInstanceAccessors(TypeSpec.Builder builder, ClassName className, boolean refreshable, boolean reloadable) {
+        TypeName refType = ParameterizedTypeName.get(ClassName.get(AtomicReference.class), className);
+        builder.addField(
+                FieldSpec.builder(refType, "INSTANCE_REF", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<$T>()", AtomicReference.class, className)
+                        .build()
+        );
+        builder.addMethod(
+                MethodSpec.methodBuilder("getInstance")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .returns(className)
+                        .addStatement("$T instance = INSTANCE_REF.get()", className)
+                        .beginControlFlow("if ( instance == null )")
+                        .addStatement("instance = loadInstance()")
+                        .beginControlFlow("if (!INSTANCE_REF.compareAndSet(null, instance))")
+                        .addStatement("instance = INSTANCE_REF.get()")
+                        .endControlFlow() // end if compare and set
+                        .endControlFlow() // end if instance == null
+                        .addStatement("return instance")
+                        .build()
+        );
+        if (refreshable) {
+            MethodSpec.Builder refresh = MethodSpec.methodBuilder("refresh")
+                    .addJavadoc("Reloads the configuration and atomically replaces the shared instance.\n")
+                    .addJavadoc("<p>Callers of {@code getInstance()} keep seeing the previous instance until\n")
+                    .addJavadoc("the new one is fully built.\n")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .returns(className);
+            if (reloadable) {
+                refresh.addStatement("RELOADER.reload()")
+                        .addStatement("return INSTANCE_REF.get()");
+            } else {
+                refresh.addStatement("$T instance = loadInstance()", className)
+                        .addStatement("INSTANCE_REF.set(instance)")
+                        .addStatement("return instance");
+            }
+            builder.addMethod(refresh.build());
+        }
+    }
+
+    private CodeBlock generateContextConstruction(PropifyContext context) {
         String[] lookups = context.getLookups();
 
         CodeBlock.Builder constructContextCodeBuilder = CodeBlock.builder();
@@ -41,32 +147,10 @@ public final class PropifyCodeGenerator {
         constructContextCodeBuilder.add(",$T.getInstance()", RuntimeResourceLoaderProvider.class);
         constructContextCodeBuilder.add(",new $T()", RuntimeLogger.class);
         constructContextCodeBuilder.add(")");
-
-
-        builder.addMethod(
-                MethodSpec.methodBuilder("getInstance")
-                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-                        .returns(className1)
-                        .addStatement(constructContextCodeBuilder.build())
-                        .addStatement("$T propifyPropertiesBuilder = new $T()", PropifyPropertiesBuilder.class, PropifyPropertiesBuilder.class)
-                        .addStatement("return new $T(propifyPropertiesBuilder.build(context))", className1)
-                        .build()
-        );
-        TypeSpec typeSpec = builder.build();
-        JavaFile javaFile = JavaFile.builder(packageName, typeSpec)
-                .addFileComment("Generated code - do not modify")
-                .build();
-
-        StringBuilder sb = new StringBuilder();
-        try {
-            javaFile.writeTo(sb);
-            return sb.toString();
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to generate code", e);
-        }
+        return constructContextCodeBuilder.build();
     }
 
-    private TypeSpec.Builder generateType(ClassName className, PropifyProperties properties) {
+    private TypeSpec.Builder generateType(ClassName className, PropifyProperties properties, boolean copyArrays) {
         TypeSpec.Builder builder = TypeSpec.classBuilder(
                         className
                 )
@@ -89,28 +173,11 @@ public final class PropifyCodeGenerator {
                 );
         properties.forEach((key, value) -> {
             if (value instanceof PropifyProperties) {
-                this.generateFromNestedProperties(builder, className, key, (PropifyProperties) value);
+                this.generateFromNestedProperties(builder, className, key, (PropifyProperties) value, copyArrays);
             } else if(value instanceof List) {
                 List<?> list = (List<?>) value;
-                Set<Class<?>> elementClasses = list.stream().map(Object::getClass).collect(Collectors.toSet());
-
-                if (elementClasses.size() == 1 && elementClasses.iterator().next().equals(PropifyProperties.class)) {
-                    List<String> allKeys = list.stream()
-                        .map(it -> ((PropifyProperties) it).keySet())
-                        .flatMap(Collection::stream)
-                        .collect(Collectors.toList());
-
-                    Map<String, Class<?>> keyTypes = allKeys.stream()
-                            .collect(Collectors.toMap(keyi -> keyi, keyi -> {
-                        Set<Class<?>> types = list.stream().map(item -> {
-                            Object valuei = ((Map<String, Object>) item).get(keyi);
-                            if(valuei == null) {
-                                return Object.class;
-                            }
-                            return valuei.getClass();
-                        }).collect(Collectors.toSet());
-                        return types.size() == 1 ? types.iterator().next() : Object.class;
-                    }, (a, b) -> b));
+                if (isListOfProperties(list)) {
+                    Map<String, Class<?>> keyTypes = collectItemKeyTypes(list);
 
                     ClassName elementClassName = className.nestedClass(Utils.convertToClassName(key+"Item"));
                     builder.addType(
@@ -153,17 +220,162 @@ public final class PropifyCodeGenerator {
                     );
                 } else {
                     builder.addMethod(
-                            generateGetterMethod(key, getType(value))
+                            generateGetterMethod(key, getType(value), copyArrays)
                     );
                 }
             } else {
                 builder.addMethod(
-                        generateGetterMethod(key, getType(value))
+                        generateGetterMethod(key, getType(value), copyArrays)
                 );
             }
         });
         return builder;
     }
+    private boolean isListOfProperties(List<?> list) {
+        Set<Class<?>> elementClasses = list.stream().map(Object::getClass).collect(Collectors.toSet());
+        return elementClasses.size() == 1 && elementClasses.iterator().next().equals(PropifyProperties.class);
+    }
+
+    private Map<String, Class<?>> collectItemKeyTypes(List<?> list) {
+        List<String> allKeys = list.stream()
+            .map(it -> ((PropifyProperties) it).keySet())
+            .flatMap(Collection::stream)
+            .collect(Collectors.toList());
+
+        return allKeys.stream()
+                .collect(Collectors.toMap(keyi -> keyi, keyi -> {
+            Set<Class<?>> types = list.stream().map(item -> {
+                Object valuei = ((Map<String, Object>) item).get(keyi);
+                if(valuei == null) {
+                    return Object.class;
+                }
+                return valuei.getClass();
+            }).collect(Collectors.toSet());
+            return types.size() == 1 ? types.iterator().next() : Object.class;
+        }, (a, b) -> b));
+    }
+
+    private TypeSpec.Builder generateFieldBackedType(ClassName className, PropifyProperties properties, boolean copyArrays) {
+        TypeSpec.Builder builder = TypeSpec.classBuilder(
+                        className
+                )
+                .addModifiers(
+                        Modifier.FINAL
+                )
+                .addJavadoc("Generated property class for accessing configuration values.\n");
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(PropifyProperties.class, "properties");
+        properties.forEach((key, value) -> {
+            String fieldName = Utils.convertToFieldName(key);
+            if (value instanceof PropifyProperties) {
+                ClassName innerClassName = className.nestedClass(Utils.convertToClassName(key));
+                TypeSpec.Builder innerTypeBuilder = generateFieldBackedType(innerClassName, (PropifyProperties) value, copyArrays);
+                innerTypeBuilder.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+                builder.addType(innerTypeBuilder.build());
+                constructor.addStatement(
+                        "this.$N = properties.get($S) == null ? null : new $T(properties.getValue($S, $T.class))",
+                        fieldName, key, innerClassName, key, PropifyProperties.class
+                );
+                addFieldWithGetter(builder, innerClassName, fieldName, Utils.convertToGetterName(key, false), copyArrays);
+            } else if (value instanceof List && isListOfProperties((List<?>) value)) {
+                ClassName elementClassName = className.nestedClass(Utils.convertToClassName(key + "Item"));
+                builder.addType(generateFieldBackedNestClass(collectItemKeyTypes((List<?>) value), elementClassName, copyArrays));
+                TypeName fieldClassName = ParameterizedTypeName.get(ClassName.get(List.class), elementClassName);
+                constructor.addStatement(
+                        "this.$N = $T.unmodifiableList((($T<$T>) properties.getRequiredValue($S, $T.class)).stream().map(it -> new $T(it)).collect($T.toList()))",
+                        fieldName, Collections.class, List.class, PropifyProperties.class, key, List.class, elementClassName, Collectors.class
+                );
+                addFieldWithGetter(builder, fieldClassName, fieldName, Utils.convertToGetterName(key, false), copyArrays);
+            } else {
+                TypeName type = unboxIfPresent(getType(value), value);
+                boolean isBoolean = TypeName.BOOLEAN.equals(type) || TypeName.BOOLEAN.box().equals(type);
+                addFieldInitializer(constructor, type, fieldName, key);
+                addFieldWithGetter(builder, type, fieldName, Utils.convertToGetterName(key, isBoolean), copyArrays);
+            }
+        });
+        return builder.addMethod(constructor.build());
+    }
+
+    private TypeSpec generateFieldBackedNestClass(Map<String, Class<?>> keyTypes, ClassName classname, boolean copyArrays) {
+        TypeSpec.Builder builder = TypeSpec.classBuilder(
+                classname
+        )
+                .addModifiers(
+                        Modifier.PUBLIC,
+                        Modifier.STATIC,
+                        Modifier.FINAL
+                )
+                .addJavadoc("Generated property class for accessing configuration values.\n");
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(PropifyProperties.class, "properties");
+        keyTypes.forEach((key, type) -> {
+            TypeName fieldClassName;
+            if(List.class.isAssignableFrom(type)) {
+                fieldClassName = ParameterizedTypeName.get(List.class, Object.class);
+            } else if(Map.class.isAssignableFrom(type)) {
+                fieldClassName = ParameterizedTypeName.get(Map.class, String.class, Object.class);
+            } else {
+                fieldClassName = ClassName.get(type);
+            }
+            String fieldName = Utils.convertToFieldName(key);
+            addFieldInitializer(constructor, fieldClassName, fieldName, key);
+            addFieldWithGetter(
+                    builder,
+                    fieldClassName,
+                    fieldName,
+                    Utils.convertToGetterName(key, type.isPrimitive() && type.isAssignableFrom(Boolean.class)),
+                    copyArrays
+            );
+        });
+        return builder.addMethod(constructor.build()).build();
+    }
+
+    /**
+     * Assigns a field from the properties, checking the type of the value so that a runtime file
+     * that does not match the compile-time one fails with the offending key. Primitive fields
+     * also require the value to be present.
+     */
+    private void addFieldInitializer(MethodSpec.Builder constructor, TypeName type, String fieldName, String key) {
+        if (type.isPrimitive()) {
+            constructor.addStatement("this.$N = properties.getRequiredValue($S, $T.class)", fieldName, key, type.box());
+        } else if (type instanceof ParameterizedTypeName) {
+            ClassName rawType = ((ParameterizedTypeName) type).rawType;
+            constructor.addStatement("this.$N = ($T) properties.getValue($S, $T.class)", fieldName, type, key, rawType);
+        } else if (TypeName.OBJECT.equals(type)) {
+            constructor.addStatement("this.$N = properties.get($S)", fieldName, key);
+        } else {
+            constructor.addStatement("this.$N = properties.getValue($S, $T.class)", fieldName, key, type);
+        }
+    }
+
+    private void addFieldWithGetter(TypeSpec.Builder builder, TypeName type, String fieldName, String getterName, boolean copyArrays) {
+        builder.addField(type, fieldName, Modifier.PRIVATE, Modifier.FINAL);
+        MethodSpec.Builder getter = MethodSpec.methodBuilder(getterName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(type);
+        if (copyArrays && type instanceof ArrayTypeName) {
+            // arrays are mutable, hand out copies so callers cannot change the configuration
+            getter.addStatement("return $N == null ? null : $N.clone()", fieldName, fieldName);
+        } else {
+            addSharedArrayJavadoc(getter, type);
+            getter.addStatement("return $N", fieldName);
+        }
+        builder.addMethod(getter.build());
+    }
+
+    /**
+     * Returns the primitive counterpart of a boxed type when the parsed value is present,
+     * so that field-backed getters can return primitives without unboxing on every read.
+     */
+    private TypeName unboxIfPresent(TypeName type, Object value) {
+        if (value != null && type.isBoxedPrimitive()) {
+            return type.unbox();
+        }
+        return type;
+    }
+
     private TypeSpec generateNestClass(Map<String, Class<?>> keyTypes, ClassName classname) {
         TypeSpec.Builder builder = TypeSpec.classBuilder(
                 classname
@@ -208,11 +420,12 @@ public final class PropifyCodeGenerator {
         });
         return builder.build();
     }
-    private void generateFromNestedProperties(TypeSpec.Builder builder, ClassName outerClass, String key, PropifyProperties properties) {
+    private void generateFromNestedProperties(TypeSpec.Builder builder, ClassName outerClass, String key, PropifyProperties properties, boolean copyArrays) {
         ClassName innerClassName = outerClass.nestedClass(Utils.convertToClassName(key));
         TypeSpec.Builder innerTypeBuilder = generateType(
                 innerClassName,
-                properties
+                properties,
+                copyArrays
         );
         innerTypeBuilder.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
         TypeSpec innerType = innerTypeBuilder.build();
@@ -241,15 +454,33 @@ public final class PropifyCodeGenerator {
                         .build()
         );
     }
-    private MethodSpec generateGetterMethod(String propertyName, TypeName type) {
+    private MethodSpec generateGetterMethod(String propertyName, TypeName type, boolean copyArrays) {
         boolean isBoolean = TypeName.BOOLEAN.equals(type) || TypeName.BOOLEAN.box().equals(type);
-        return MethodSpec.methodBuilder(
+        MethodSpec.Builder getter = MethodSpec.methodBuilder(
                     Utils.convertToGetterName(propertyName, isBoolean)
                 )
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
-                .returns(type)
-                .addStatement("return ($T)properties.get($S)", type, propertyName)
-                .build();
+                .returns(type);
+        if (copyArrays && type instanceof ArrayTypeName) {
+            // arrays are mutable, hand out copies so callers cannot change the configuration
+            getter.addStatement("$T value = ($T)properties.get($S)", type, type, propertyName)
+                    .addStatement("return value == null ? null : value.clone()");
+        } else {
+            addSharedArrayJavadoc(getter, type);
+            getter.addStatement("return ($T)properties.get($S)", type, propertyName);
+        }
+        return getter.build();
+    }
+
+    /**
+     * Warns on getters of array values that the returned array is shared, since
+     * {@link com.vgerbot.propify.core.Propify#copyArrays()} is off by default.
+     */
+    private static void addSharedArrayJavadoc(MethodSpec.Builder getter, TypeName type) {
+        if (type instanceof ArrayTypeName) {
+            getter.addJavadoc("Returns the array held by the configuration, shared by every caller.\n")
+                    .addJavadoc("<p>Do not modify it: changes are visible to all other callers.\n");
+        }
     }
     private TypeName getType(Object value) {
         if (value == null) {
@@ -8,6 +8,7 @@ import org.apache.commons.configuration2.io.FileHandler;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
@@ -25,39 +26,27 @@ public abstract class AbstractPropifyResourceBundleControl extends ResourceBundl
             return super.newBundle(baseName, locale, format, loader, reload);
         }
         String bundleName = this.toBundleName(baseName, locale);
-        FileBasedConfiguration configuration = null;
-        String fileName = null;
+        String fileName = toFileName(bundleName, format);
+        FileBasedConfiguration configuration;
         switch(format) {
-            case "java.properties": {
-                fileName = bundleName + ".properties";
+            case "java.properties":
                 configuration = new PropertiesConfiguration();
-            }
-            break;
-            case "xml": {
-                fileName = bundleName + ".xml";
+                break;
+            case "xml":
                 configuration = new XMLConfiguration();
-            }
-            break;
-            case "yaml": {
-                fileName = bundleName + ".yaml";
+                break;
+            case "yaml":
                 configuration = new YAMLConfiguration();
-            }
-            break;
-            case "json": {
-                fileName = bundleName + ".json";
+                break;
+            case "json":
                 configuration = new JSONConfiguration();
-            }
-            break;
-            case "ini": {
-                fileName = bundleName + ".ini";
+                break;
+            case "ini":
                 configuration = new INIConfiguration();
-            }
-            break;
-            case "xml.properties": {
-                fileName = bundleName + ".properties.xml";
+                break;
+            case "xml.properties":
                 configuration = new XMLPropertiesConfiguration();
-            }
-            break;
+                break;
             default:
                 throw new IllegalArgumentException("unknown format: " + format);
         }
@@ -78,5 +67,47 @@ public abstract class AbstractPropifyResourceBundleControl extends ResourceBundl
             return null;
         }
     }
+
+    /**
+     * Returns the names of the resources that may be read when loading a bundle for a locale,
+     * in lookup order. Bundles implemented as classes are not included.
+     *
+     * @param baseName the base name of the bundle
+     * @param locale the requested locale
+     * @return the resource names of all candidate locales and file formats
+     * @since 3.1.0
+     */
+    public List<String> getCandidateResourceNames(String baseName, Locale locale) {
+        List<String> names = new ArrayList<>();
+        for (Locale candidate : getCandidateLocales(baseName, locale)) {
+            String bundleName = toBundleName(baseName, candidate);
+            for (String format : getFormats(baseName)) {
+                if (!"java.class".equals(format)) {
+                    names.add(toFileName(bundleName, format));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String toFileName(String bundleName, String format) {
+        switch (format) {
+            case "java.properties":
+                return bundleName + ".properties";
+            case "xml":
+                return bundleName + ".xml";
+            case "yaml":
+                return bundleName + ".yaml";
+            case "json":
+                return bundleName + ".json";
+            case "ini":
+                return bundleName + ".ini";
+            case "xml.properties":
+                return bundleName + ".properties.xml";
+            default:
+                throw new IllegalArgumentException("unknown format: " + format);
+        }
+    }
+
     protected abstract InputStream loadResource(String resourceName, ClassLoader loader, boolean reloadFlag) throws IOException;
 }
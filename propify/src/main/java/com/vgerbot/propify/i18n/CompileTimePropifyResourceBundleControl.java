@@ -1,10 +1,13 @@
 package com.vgerbot.propify.i18n;
 
+import com.vgerbot.propify.SynchronizedFiler;
+import com.vgerbot.propify.common.ByteBuffers;
+
 import javax.annotation.processing.ProcessingEnvironment;
-import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Locale;
 
 public class CompileTimePropifyResourceBundleControl extends AbstractPropifyResourceBundleControl {
     private final ProcessingEnvironment processingEnvironment;
@@ -12,9 +15,18 @@ public class CompileTimePropifyResourceBundleControl extends AbstractPropifyReso
     public CompileTimePropifyResourceBundleControl(ProcessingEnvironment processingEnvironment) {
         this.processingEnvironment = processingEnvironment;
     }
+    /**
+     * Bundles are never cached, since the JVM running the compiler may outlive changes to the
+     * bundle files, for example in a build daemon or an IDE.
+     */
+    @Override
+    public long getTimeToLive(String baseName, Locale locale) {
+        return TTL_DONT_CACHE;
+    }
+
     @Override
     protected InputStream loadResource(String resourceName, ClassLoader loader, boolean reloadFlag) throws IOException {
-        FileObject fileObject = processingEnvironment.getFiler().getResource(StandardLocation.CLASS_PATH, "", resourceName);
-        return fileObject.openInputStream();
+        return ByteBuffers.newInputStream(
+                SynchronizedFiler.readResource(processingEnvironment.getFiler(), StandardLocation.CLASS_PATH, "", resourceName));
     }
 }
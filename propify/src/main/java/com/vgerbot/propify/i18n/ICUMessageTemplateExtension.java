@@ -1,16 +1,81 @@
 package com.vgerbot.propify.i18n;
 
-import com.ibm.icu.text.MessageFormat;
+import com.ibm.icu.text.MessagePattern;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 public class ICUMessageTemplateExtension implements MessageTemplateExtension {
-    private static final ThreadLocal<Map<String, MessageFormat>> formats = ThreadLocal.withInitial(HashMap::new);
+    private final MessageFormatCache formats;
+
+    public ICUMessageTemplateExtension() {
+        this(MessageFormatCache.getInstance());
+    }
+
+    /**
+     * Creates an extension that compiles its messages into the given cache.
+     *
+     * @param formats the cache of compiled formats
+     * @since 3.1.0
+     */
+    public ICUMessageTemplateExtension(MessageFormatCache formats) {
+        this.formats = formats;
+    }
 
     @Override
     public String format(String message, Map<String, Object> arguments) {
-        MessageFormat format = formats.get().computeIfAbsent(message, k -> new MessageFormat(message));
-        return format.format(arguments);
+        return format(message, arguments, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Formats a message with the format compiled for the locale.
+     *
+     * @since 3.1.0
+     */
+    @Override
+    public String format(String message, Map<String, Object> arguments, Locale locale) {
+        return formats.format(message, locale, arguments);
+    }
+
+    /**
+     * Compiles a message into a pattern whose arguments are numbered by their position in
+     * {@code argumentNames}, so it is formatted from the argument array directly. The compiled
+     * format is shared through the {@link MessageFormatCache}.
+     *
+     * @since 3.1.0
+     */
+    @Override
+    public MessageTemplate compile(String message, Locale locale, String... argumentNames) {
+        String pattern = toPositionalPattern(message, Arrays.asList(argumentNames));
+        if (pattern == null) {
+            return MessageTemplateExtension.super.compile(message, locale, argumentNames);
+        }
+        return arguments -> formats.format(pattern, locale, arguments);
+    }
+
+    /**
+     * Replaces every argument of a message by its position in a list of argument names.
+     * Returns null if the message uses an argument that is not in the list.
+     */
+    private static String toPositionalPattern(String message, List<String> argumentNames) {
+        MessagePattern messagePattern = new MessagePattern(message);
+        StringBuilder pattern = new StringBuilder(message.length());
+        int copied = 0;
+        for (int i = 0; i < messagePattern.countParts(); i++) {
+            MessagePattern.Part part = messagePattern.getPart(i);
+            MessagePattern.Part.Type type = part.getType();
+            if (type != MessagePattern.Part.Type.ARG_NAME && type != MessagePattern.Part.Type.ARG_NUMBER) {
+                continue;
+            }
+            int position = argumentNames.indexOf(messagePattern.getSubstring(part));
+            if (position < 0) {
+                return null;
+            }
+            pattern.append(message, copied, part.getIndex()).append(position);
+            copied = part.getLimit();
+        }
+        return pattern.append(message, copied, message.length()).toString();
     }
 }
@@ -0,0 +1,189 @@
+package com.vgerbot.propify.i18n;
+
+import com.ibm.icu.text.MessageFormat;
+import com.ibm.icu.util.ULocale;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of compiled ICU {@link MessageFormat}s shared by all threads.
+ *
+ * <p>Formats are keyed by pattern and locale. Every pattern is parsed once into a prototype
+ * that is never used for formatting itself. Since a {@code MessageFormat} must not be used by
+ * several threads at the same time, each format call borrows a clone of the prototype from a
+ * small pool and returns it afterwards. The pool holds at most as many idle clones as there
+ * are processors, so the memory used per pattern does not grow with the number of threads.
+ *
+ * <p>When the cache is full, the least recently used pattern is evicted. The size of the
+ * shared instance is read from the {@value #MAXIMUM_SIZE_PROPERTY} system property.
+ *
+ * @since 3.1.0
+ */
+public class MessageFormatCache {
+    /**
+     * System property with the maximum number of patterns kept by the shared instance.
+     */
+    public static final String MAXIMUM_SIZE_PROPERTY = "propify.i18n.formatCacheSize";
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 1024;
+    private static final int MAX_IDLE_FORMATS = Runtime.getRuntime().availableProcessors();
+
+    private static class SingletonHolder {
+        private static final MessageFormatCache INSTANCE =
+                new MessageFormatCache(Integer.getInteger(MAXIMUM_SIZE_PROPERTY, DEFAULT_MAXIMUM_SIZE));
+    }
+
+    public static MessageFormatCache getInstance() {
+        return SingletonHolder.INSTANCE;
+    }
+
+    private final int maximumSize;
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MessageFormatCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Formats a pattern with the compiled format of a locale.
+     *
+     * @param pattern the ICU message pattern
+     * @param locale the locale to format for
+     * @param arguments the arguments, either an {@code Object[]} for numbered arguments or a
+     *                  {@code Map<String, Object>} for named arguments
+     * @return the formatted message
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public String format(String pattern, Locale locale, Object arguments) {
+        CacheEntry entry = getEntry(pattern, locale);
+        MessageFormat format = entry.idle.poll();
+        if (format == null) {
+            format = (MessageFormat) entry.prototype.clone();
+        }
+        try {
+            return format.format(arguments);
+        } finally {
+            entry.idle.offer(format);
+        }
+    }
+
+    private CacheEntry getEntry(String pattern, Locale locale) {
+        CacheKey key = new CacheKey(pattern, locale);
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            CacheEntry created = new CacheEntry(new MessageFormat(pattern, ULocale.forLocale(locale)));
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                entry = created;
+                evictIfFull();
+            }
+        }
+        entry.lastUsed = System.nanoTime();
+        return entry;
+    }
+
+    /**
+     * Evicts least recently used patterns until the cache fits its maximum size. Only called
+     * on misses, so the scan does not slow down formatting of cached patterns.
+     */
+    private void evictIfFull() {
+        while (entries.size() > maximumSize) {
+            Map.Entry<CacheKey, CacheEntry> eldest = null;
+            for (Map.Entry<CacheKey, CacheEntry> candidate : entries.entrySet()) {
+                if (eldest == null || candidate.getValue().lastUsed - eldest.getValue().lastUsed < 0) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            entries.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * Returns the number of format calls that found the pattern in the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of format calls that had to compile the pattern.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached patterns.
+     *
+     * @return the size of the cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all cached patterns. Counters are not reset.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class CacheKey {
+        private final String pattern;
+        private final Locale locale;
+
+        CacheKey(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return pattern.equals(other.pattern) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pattern, locale);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final MessageFormat prototype;
+        private final BlockingQueue<MessageFormat> idle = new ArrayBlockingQueue<>(MAX_IDLE_FORMATS);
+        private volatile long lastUsed;
+
+        CacheEntry(MessageFormat prototype) {
+            this.prototype = prototype;
+            this.lastUsed = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.vgerbot.propify.i18n;
+
+/**
+ * A message compiled for a fixed list of arguments.
+ *
+ * <p>Instances are created once per message and locale and may be used by several threads
+ * at the same time.
+ *
+ * @see MessageTemplateExtension#compile(String, java.util.Locale, String...)
+ * @since 3.1.0
+ */
+@FunctionalInterface
+public interface MessageTemplate {
+    /**
+     * Formats the message.
+     *
+     * @param arguments the argument values, in the order of the argument names the message
+     *                  was compiled with
+     * @return the formatted message
+     */
+    String format(Object... arguments);
+}
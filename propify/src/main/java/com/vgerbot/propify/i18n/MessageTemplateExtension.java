@@ -1,7 +1,45 @@
 package com.vgerbot.propify.i18n;
 
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 public interface MessageTemplateExtension {
     String format(String message, Map<String, Object> arguments);
+
+    /**
+     * Formats a message for a locale, for example to pick its number format and plural rules.
+     * The default implementation ignores the locale and calls {@link #format(String, Map)}.
+     *
+     * @param message the message pattern
+     * @param arguments the argument values by name
+     * @param locale the locale the message is requested for
+     * @return the formatted message
+     * @since 3.1.0
+     */
+    default String format(String message, Map<String, Object> arguments, Locale locale) {
+        return format(message, arguments);
+    }
+
+    /**
+     * Compiles a message of a locale for a fixed list of arguments, so formatting it does no
+     * more work than necessary. The default implementation collects the arguments into a map
+     * and calls {@link #format(String, Map, Locale)}.
+     *
+     * @param message the message pattern
+     * @param locale the locale the message is requested for
+     * @param argumentNames the names of the arguments, in the order their values are passed to
+     *                      {@link MessageTemplate#format(Object...)}
+     * @return the compiled message
+     * @since 3.1.0
+     */
+    default MessageTemplate compile(String message, Locale locale, String... argumentNames) {
+        return arguments -> {
+            Map<String, Object> values = new HashMap<>();
+            for (int i = 0; i < argumentNames.length; i++) {
+                values.put(argumentNames[i], arguments[i]);
+            }
+            return format(message, values, locale);
+        };
+    }
 }
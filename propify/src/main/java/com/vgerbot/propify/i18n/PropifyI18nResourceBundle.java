@@ -3,6 +3,7 @@ package com.vgerbot.propify.i18n;
 import java.lang.reflect.Proxy;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import com.vgerbot.propify.common.PropifyException;
@@ -17,6 +18,60 @@ public class PropifyI18nResourceBundle {
         this.extension = extension;
     }
 
+    /**
+     * Returns the messages of a locale, creating them with a factory the first time they are
+     * requested. Generated message resources pass a factory that compiles every message of the
+     * bundle up front, see {@link #getMessageTemplate(ResourceBundle, Locale, String, String...)}.
+     *
+     * @param type the type of the messages
+     * @param locale the locale of the messages
+     * @param factory creates the messages from the resource bundle of the locale and the locale
+     * @param <T> the type of the messages
+     * @return the messages of the locale
+     * @since 3.1.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getMessageBundle(Class<T> type, Locale locale, BiFunction<ResourceBundle, Locale, ? extends T> factory) {
+        return (T) proxyCache.computeIfAbsent(new CacheKey(type, locale), key ->
+                factory.apply(ResourceBundle.getBundle(this.baseName, locale, new RuntimePropifyResourceBundleControl()), locale));
+    }
+
+    /**
+     * Compiles the message of a key. Messages without arguments are returned as they are in
+     * the bundle. If the bundle has no message for the key, the returned template throws a
+     * {@link MissingResourceException} when it is used.
+     *
+     * <p>Messages are formatted for the requested locale rather than the locale of the bundle,
+     * which is less specific when the bundle was found through a fallback.
+     *
+     * @param bundle the resource bundle of a locale
+     * @param locale the requested locale
+     * @param key the key of the message
+     * @param argumentNames the names of the message arguments, in parameter order
+     * @return the compiled message
+     * @since 3.1.0
+     */
+    public MessageTemplate getMessageTemplate(ResourceBundle bundle, Locale locale, String key, String... argumentNames) {
+        final Object value;
+        try {
+            value = bundle.getObject(key);
+        } catch (MissingResourceException e) {
+            return arguments -> {
+                throw e;
+            };
+        }
+        if (argumentNames.length == 0 || !(value instanceof CharSequence)) {
+            final String message = String.valueOf(value);
+            return arguments -> message;
+        }
+        return extension.compile(value.toString(), locale, argumentNames);
+    }
+
+    /**
+     * Returns the messages of a locale as a proxy that resolves and formats the message of
+     * each {@link Message} annotated method on every call. Used by message resources generated
+     * before 3.1.0.
+     */
     @SuppressWarnings("unchecked")
     public <T> T getMessageBundle(Class<T> type, Locale locale) {
         CacheKey cacheKey = new CacheKey(type, locale);
@@ -39,7 +94,7 @@ public class PropifyI18nResourceBundle {
                             .collect(Collectors.toMap(i -> arguments[i], i -> args[i]));
                     Object value = bundle.getObject(keyName);
                     if(value instanceof CharSequence) {
-                        return extension.format(value.toString(), paramsMap);
+                        return extension.format(value.toString(), paramsMap, locale);
                     }
                     return value;
                 }
@@ -1,10 +1,11 @@
 package com.vgerbot.propify.loader;
 
+import com.vgerbot.propify.SynchronizedFiler;
+import com.vgerbot.propify.common.ByteBuffers;
 import com.vgerbot.propify.core.ResourceLoader;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.tools.Diagnostic;
-import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 import java.io.IOException;
 import java.io.InputStream;
@@ -46,17 +47,12 @@ public class CompileTimeClasspathResourceLoader implements ResourceLoader {
                     "loading classpath source: " + filePath
             );
 
-            FileObject fileObject = processingEnvironment.getFiler().getResource(
+            return ByteBuffers.newInputStream(SynchronizedFiler.readResource(
+                    processingEnvironment.getFiler(),
                     StandardLocation.CLASS_PATH,
                     "",
                     filePath
-            );
-
-            if (fileObject == null) {
-                throw new IOException("Could not find resource: " + filePath);
-            }
-
-            return fileObject.openInputStream();
+            ));
         } catch (IOException e) {
             throw new IOException("Could not find resource: " + filePath, e);
         } catch (Exception e) {
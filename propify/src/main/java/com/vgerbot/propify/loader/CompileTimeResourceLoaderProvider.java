@@ -2,14 +2,31 @@ package com.vgerbot.propify.loader;
 
 import com.vgerbot.propify.core.ResourceLoader;
 import com.vgerbot.propify.core.ResourceLoaderProvider;
+import com.vgerbot.propify.logger.CompileTimeLogger;
+import com.vgerbot.propify.logger.Logger;
 
 import javax.annotation.processing.ProcessingEnvironment;
 
 public class CompileTimeResourceLoaderProvider implements ResourceLoaderProvider {
     private final ProcessingEnvironment processingEnvironment;
+    private final HTTPResourceLoader httpResourceLoader;
 
     public CompileTimeResourceLoaderProvider(ProcessingEnvironment processingEnvironment) {
+        this(processingEnvironment, null);
+    }
+
+    /**
+     * Creates a provider that serves HTTP locations from a shared loader, so resources it
+     * {@link HTTPResourceLoader#prefetch(java.util.Collection) prefetched} are reused. Warnings of
+     * the shared loader are reported through this provider's processing environment.
+     *
+     * @param processingEnvironment the processing environment
+     * @param httpResourceLoader the loader for HTTP locations, or null to create one per location
+     * @since 3.1.0
+     */
+    public CompileTimeResourceLoaderProvider(ProcessingEnvironment processingEnvironment, HTTPResourceLoader httpResourceLoader) {
         this.processingEnvironment = processingEnvironment;
+        this.httpResourceLoader = httpResourceLoader;
     }
 
     @Override
@@ -23,7 +40,8 @@ public class CompileTimeResourceLoaderProvider implements ResourceLoaderProvider
             return new FileResourceLoader();
         }
         if (location.startsWith("http:") || location.startsWith("https:")) {
-            return new HTTPResourceLoader();
+            Logger logger = new CompileTimeLogger(processingEnvironment);
+            return httpResourceLoader != null ? httpResourceLoader.withLogger(logger) : new HTTPResourceLoader(logger);
         }
         throw new IllegalArgumentException("Unsupported location: " + location);
     }
@@ -1,12 +1,19 @@
 package com.vgerbot.propify.loader;
 
-import com.vgerbot.propify.core.ResourceLoader;
+import com.vgerbot.propify.core.ByteBufferResourceLoader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * A ResourceLoader implementation that loads resources from the file system.
@@ -24,10 +31,25 @@ import java.nio.file.Paths;
  * file:relative/path/to/config.properties
  * </pre>
  *
+ * <p>The loader also provides files as {@link ByteBuffer}s. Files of at least
+ * {@value #MAPPING_THRESHOLD_PROPERTY} bytes (1 MiB by default) are memory-mapped, smaller
+ * files are read into a heap buffer.
+ *
  * @since 1.1.0
  */
-public class FileResourceLoader implements ResourceLoader {
+public class FileResourceLoader implements ByteBufferResourceLoader {
+    /**
+     * System property for the file size, in bytes, from which {@link #loadBuffer(String)}
+     * memory-maps files instead of reading them.
+     *
+     * @since 3.1.0
+     */
+    public static final String MAPPING_THRESHOLD_PROPERTY = "propify.file.mappingThresholdBytes";
+
     private static final String FILE_PREFIX = "file:";
+    private static final long MAPPING_THRESHOLD = 1024 * 1024;
+
+    private final long mappingThreshold = Long.getLong(MAPPING_THRESHOLD_PROPERTY, MAPPING_THRESHOLD);
 
     @Override
     public boolean accept(String location) {
@@ -42,32 +64,100 @@ public class FileResourceLoader implements ResourceLoader {
         if (location == null) {
             throw new IllegalArgumentException("Location cannot be null");
         }
-        if (!location.startsWith(FILE_PREFIX)) {
-            throw new IllegalArgumentException("Location must start with 'file:': " + location);
+        String filePath = getFilePath(location);
+
+        try {
+            Path path = Paths.get(filePath);
+            checkRegularFile(path, filePath);
+            return Files.newInputStream(path);
+        } catch (AccessDeniedException e) {
+            throw new IOException("File is not readable: " + filePath, e);
+        } catch (SecurityException e) {
+            throw new IOException("Security error accessing file: " + filePath, e);
+        } catch (IOException e) {
+            throw new IOException("Error loading file: " + filePath, e);
         }
+    }
 
-        String filePath = location.substring(FILE_PREFIX.length()).trim();
-        if (filePath.isEmpty()) {
-            throw new IllegalArgumentException("File path cannot be empty");
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Files of at least the mapping threshold are mapped read-only into memory. Smaller
+     * files are read into a heap buffer, which parsers can use as a byte array directly.
+     *
+     * @since 3.1.0
+     */
+    @Override
+    public ByteBuffer loadBuffer(String location) throws IOException {
+        if (location == null) {
+            throw new IllegalArgumentException("Location cannot be null");
         }
+        String filePath = getFilePath(location);
 
         try {
             Path path = Paths.get(filePath);
-            if (!Files.exists(path)) {
-                throw new IOException("File does not exist: " + filePath);
-            }
-            if (!Files.isRegularFile(path)) {
-                throw new IOException("Path is not a regular file: " + filePath);
-            }
-            if (!Files.isReadable(path)) {
-                throw new IOException("File is not readable: " + filePath);
+            long size = checkRegularFile(path, filePath).size();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (size >= mappingThreshold) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                    // keep reading until the file is consumed
+                }
+                // Buffer.flip(), since ByteBuffer.flip() only exists from Java 9 on
+                ((Buffer) buffer).flip();
+                return buffer;
             }
-
-            return Files.newInputStream(path);
+        } catch (AccessDeniedException e) {
+            throw new IOException("File is not readable: " + filePath, e);
         } catch (SecurityException e) {
             throw new IOException("Security error accessing file: " + filePath, e);
         } catch (IOException e) {
             throw new IOException("Error loading file: " + filePath, e);
         }
     }
+
+    /**
+     * Reads the attributes of a file with a single call and checks that it is a regular file.
+     */
+    private static BasicFileAttributes checkRegularFile(Path path, String filePath) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new IOException("File does not exist: " + filePath, e);
+        }
+        if (!attributes.isRegularFile()) {
+            throw new IOException("Path is not a regular file: " + filePath);
+        }
+        return attributes;
+    }
+
+    /**
+     * Resolves a {@code file:} location to the path of the file it refers to.
+     *
+     * @param location the location, starting with {@code file:}
+     * @return the path of the file
+     * @throws IllegalArgumentException if the location is not a valid {@code file:} location
+     * @since 3.1.0
+     */
+    public static Path toPath(String location) {
+        if (location == null) {
+            throw new IllegalArgumentException("Location cannot be null");
+        }
+        return Paths.get(getFilePath(location));
+    }
+
+    private static String getFilePath(String location) {
+        if (!location.startsWith(FILE_PREFIX)) {
+            throw new IllegalArgumentException("Location must start with 'file:': " + location);
+        }
+
+        String filePath = location.substring(FILE_PREFIX.length()).trim();
+        if (filePath.isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be empty");
+        }
+        return filePath;
+    }
 }
@@ -0,0 +1,133 @@
+package com.vgerbot.propify.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * On-disk cache of resources downloaded by {@link HTTPResourceLoader}.
+ *
+ * <p>Every URL is stored as two files named after the SHA-256 hash of the URL: the response
+ * body and a properties file with the validators ({@code ETag} and {@code Last-Modified})
+ * needed to revalidate it. Both files are written to a temporary file first and then moved
+ * into place, so concurrent builds never read a partially written entry.
+ *
+ * @since 3.1.0
+ */
+final class HTTPResourceCache {
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".properties";
+    private static final String URL_KEY = "url";
+    private static final String ETAG_KEY = "etag";
+    private static final String LAST_MODIFIED_KEY = "lastModified";
+    private static final String LENGTH_KEY = "length";
+
+    private final Path directory;
+
+    HTTPResourceCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads the cached entry of a URL.
+     *
+     * @param url the URL
+     * @return the cached entry, or null if the URL is not cached or the entry is incomplete
+     */
+    Entry read(String url) {
+        String name = fileName(url);
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(directory.resolve(name + META_SUFFIX))) {
+            meta.load(in);
+            if (!url.equals(meta.getProperty(URL_KEY))) {
+                return null;
+            }
+            byte[] body = Files.readAllBytes(directory.resolve(name + BODY_SUFFIX));
+            if (!String.valueOf(body.length).equals(meta.getProperty(LENGTH_KEY))) {
+                return null;
+            }
+            return new Entry(body, meta.getProperty(ETAG_KEY), meta.getProperty(LAST_MODIFIED_KEY));
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the response of a URL, replacing any previous entry.
+     *
+     * @param url the URL
+     * @param entry the response body and validators
+     * @throws IOException if the entry cannot be written
+     */
+    void store(String url, Entry entry) throws IOException {
+        Files.createDirectories(directory);
+        String name = fileName(url);
+        Properties meta = new Properties();
+        meta.setProperty(URL_KEY, url);
+        meta.setProperty(LENGTH_KEY, String.valueOf(entry.body.length));
+        if (entry.etag != null) {
+            meta.setProperty(ETAG_KEY, entry.etag);
+        }
+        if (entry.lastModified != null) {
+            meta.setProperty(LAST_MODIFIED_KEY, entry.lastModified);
+        }
+
+        Path body = Files.createTempFile(directory, name, ".tmp");
+        Path metaFile = Files.createTempFile(directory, name, ".tmp");
+        try {
+            Files.write(body, entry.body);
+            try (OutputStream out = Files.newOutputStream(metaFile)) {
+                meta.store(out, null);
+            }
+            move(body, directory.resolve(name + BODY_SUFFIX));
+            move(metaFile, directory.resolve(name + META_SUFFIX));
+        } finally {
+            Files.deleteIfExists(body);
+            Files.deleteIfExists(metaFile);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String fileName(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A cached response body with the validators used to revalidate it.
+     */
+    static final class Entry {
+        final byte[] body;
+        final String etag;
+        final String lastModified;
+
+        Entry(byte[] body, String etag, String lastModified) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+}
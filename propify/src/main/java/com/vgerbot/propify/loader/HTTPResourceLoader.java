@@ -1,12 +1,35 @@
 package com.vgerbot.propify.loader;
 
 import com.vgerbot.propify.core.ResourceLoader;
+import com.vgerbot.propify.logger.Logger;
+import com.vgerbot.propify.logger.RuntimeLogger;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * A ResourceLoader implementation that loads resources from HTTP/HTTPS URLs.
@@ -14,11 +37,23 @@ import java.net.URLConnection;
  * <p>This loader handles resources with "http:" and "https:" protocol prefixes. It supports:
  * <ul>
  *   <li>HTTP and HTTPS protocols</li>
- *   <li>Automatic redirect following</li>
- *   <li>Connection timeout handling</li>
+ *   <li>Redirect following, bounded by {@value #MAX_REDIRECTS_PROPERTY}</li>
+ *   <li>Connect and read timeouts, set by {@value #CONNECT_TIMEOUT_PROPERTY} and
+ *       {@value #READ_TIMEOUT_PROPERTY}</li>
+ *   <li>Concurrent prefetching of several locations</li>
  *   <li>Basic error handling and status code validation</li>
+ *   <li>An optional on-disk cache revalidated with conditional requests</li>
  * </ul>
  *
+ * <p>The cache is enabled by setting the {@value #CACHE_DIR_PROPERTY} system property to a
+ * directory. Cached resources are revalidated with {@code If-None-Match} and
+ * {@code If-Modified-Since}, so unchanged resources are not downloaded again. When the
+ * server cannot be reached, times out or answers with a server error ({@code 5xx}), the
+ * cached copy is used and a warning is logged. Other responses, such as {@code 404 Not Found},
+ * are reported as failures even if a cached copy exists. With
+ * {@value #STALE_WHILE_REVALIDATE_PROPERTY} set to {@code true}, a cached copy is returned
+ * immediately and revalidated in the background for the next load.
+ *
  * <p>Example usage:
  * <pre>
  * http://example.com/config.yaml
@@ -28,10 +63,125 @@ import java.net.URLConnection;
  * @since 1.1.0
  */
 public class HTTPResourceLoader implements ResourceLoader {
+    /**
+     * System property naming the directory of the on-disk cache. Caching is disabled when unset.
+     *
+     * @since 3.1.0
+     */
+    public static final String CACHE_DIR_PROPERTY = "propify.http.cache.dir";
+    /**
+     * System property that makes cached resources be returned without waiting for revalidation.
+     *
+     * @since 3.1.0
+     */
+    public static final String STALE_WHILE_REVALIDATE_PROPERTY = "propify.http.cache.staleWhileRevalidate";
+    /**
+     * System property for the connect timeout in milliseconds.
+     *
+     * @since 3.1.0
+     */
+    public static final String CONNECT_TIMEOUT_PROPERTY = "propify.http.connectTimeoutMillis";
+    /**
+     * System property for the read timeout in milliseconds.
+     *
+     * @since 3.1.0
+     */
+    public static final String READ_TIMEOUT_PROPERTY = "propify.http.readTimeoutMillis";
+    /**
+     * System property for the maximum number of redirects followed for one resource.
+     *
+     * @since 3.1.0
+     */
+    public static final String MAX_REDIRECTS_PROPERTY = "propify.http.maxRedirects";
+
     private static final int CONNECT_TIMEOUT = 10000; // 10 seconds
     private static final int READ_TIMEOUT = 10000; // 10 seconds
+    private static final int MAX_REDIRECTS = 5;
+    private static final int MAX_PREFETCH_THREADS = 8;
+    private static final int HTTP_TEMPORARY_REDIRECT = 307;
+    private static final int HTTP_PERMANENT_REDIRECT = 308;
     private static final String HTTP_PREFIX = "http:";
     private static final String HTTPS_PREFIX = "https:";
+    private static final ExecutorService REVALIDATION_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "propify-http-revalidate");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Set<String> REVALIDATING = ConcurrentHashMap.newKeySet();
+    private static final ExecutorService PREFETCH_EXECUTOR = createPrefetchExecutor();
+
+    private final HTTPResourceCache cache;
+    private final boolean staleWhileRevalidate;
+    private final Logger logger;
+    private final int connectTimeout = Integer.getInteger(CONNECT_TIMEOUT_PROPERTY, CONNECT_TIMEOUT);
+    private final int readTimeout = Integer.getInteger(READ_TIMEOUT_PROPERTY, READ_TIMEOUT);
+    private final int maxRedirects = Integer.getInteger(MAX_REDIRECTS_PROPERTY, MAX_REDIRECTS);
+    private final Map<String, CompletableFuture<Download>> prefetched;
+
+    /**
+     * Creates a loader configured by the {@value #CACHE_DIR_PROPERTY} and
+     * {@value #STALE_WHILE_REVALIDATE_PROPERTY} system properties.
+     */
+    public HTTPResourceLoader() {
+        this(new RuntimeLogger());
+    }
+
+    /**
+     * Creates a loader configured by the {@value #CACHE_DIR_PROPERTY} and
+     * {@value #STALE_WHILE_REVALIDATE_PROPERTY} system properties.
+     *
+     * @param logger the logger that reports when a cached copy is used instead of the server's
+     * @since 3.1.0
+     */
+    public HTTPResourceLoader(Logger logger) {
+        this(getCacheDirectory(), Boolean.getBoolean(STALE_WHILE_REVALIDATE_PROPERTY), logger);
+    }
+
+    /**
+     * Creates a loader with an explicit cache configuration.
+     *
+     * @param cacheDirectory the directory of the on-disk cache, or null to disable caching
+     * @param staleWhileRevalidate whether cached resources are returned before they are revalidated
+     * @since 3.1.0
+     */
+    public HTTPResourceLoader(Path cacheDirectory, boolean staleWhileRevalidate) {
+        this(cacheDirectory, staleWhileRevalidate, new RuntimeLogger());
+    }
+
+    /**
+     * Creates a loader with an explicit cache configuration.
+     *
+     * @param cacheDirectory the directory of the on-disk cache, or null to disable caching
+     * @param staleWhileRevalidate whether cached resources are returned before they are revalidated
+     * @param logger the logger that reports when a cached copy is used instead of the server's
+     * @since 3.1.0
+     */
+    public HTTPResourceLoader(Path cacheDirectory, boolean staleWhileRevalidate, Logger logger) {
+        this.cache = cacheDirectory == null ? null : new HTTPResourceCache(cacheDirectory);
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.logger = logger;
+        this.prefetched = new ConcurrentHashMap<>();
+    }
+
+    private HTTPResourceLoader(HTTPResourceLoader shared, Logger logger) {
+        this.cache = shared.cache;
+        this.staleWhileRevalidate = shared.staleWhileRevalidate;
+        this.logger = logger;
+        this.prefetched = shared.prefetched;
+    }
+
+    /**
+     * Returns a loader that shares the cache and the prefetched resources of this loader, but
+     * reports warnings to another logger. The annotation processor uses it to report warnings
+     * of each annotated element through that element's own diagnostics.
+     *
+     * @param logger the logger for warnings of the returned loader
+     * @return a loader sharing the state of this loader
+     * @since 3.1.0
+     */
+    public HTTPResourceLoader withLogger(Logger logger) {
+        return new HTTPResourceLoader(this, logger);
+    }
 
     @Override
     public boolean accept(String location) {
@@ -50,45 +200,306 @@ public class HTTPResourceLoader implements ResourceLoader {
             throw new IllegalArgumentException("Location must start with 'http:' or 'https:': " + location);
         }
 
+        CompletableFuture<Download> prefetch = prefetched.get(location);
+        Download download;
+        if (prefetch != null) {
+            try {
+                download = prefetch.join();
+            } catch (CompletionException e) {
+                throw prefetchFailure(e.getCause());
+            }
+        } else {
+            download = loadRemote(location);
+        }
+        if (download.warning != null) {
+            logger.warn(download.warning);
+        }
+        return new ByteArrayInputStream(download.body);
+    }
+
+    /**
+     * Starts downloading the given locations concurrently.
+     *
+     * <p>Later calls to {@link #load(String)} for these locations return the downloaded content
+     * instead of sending another request, until {@link #clearPrefetched()} is called. Locations
+     * this loader does not accept are ignored. Warnings of the downloads are reported by the
+     * {@code load} call that uses them, not by the downloading threads, and a failed download
+     * is rethrown by that call instead of being retried. Downloads run on a pool of at most
+     * {@value #MAX_PREFETCH_THREADS} daemon threads shared by all loaders.
+     *
+     * @param locations the locations to download
+     * @since 3.1.0
+     */
+    public void prefetch(Collection<String> locations) {
+        List<String> remote = locations.stream()
+                .filter(this::accept)
+                .distinct()
+                .filter(location -> !prefetched.containsKey(location))
+                .collect(Collectors.toList());
+        if (remote.isEmpty()) {
+            return;
+        }
+        for (String location : remote) {
+            prefetched.put(location, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return loadRemote(location);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, PREFETCH_EXECUTOR));
+        }
+    }
+
+    private static ExecutorService createPrefetchExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                MAX_PREFETCH_THREADS, MAX_PREFETCH_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "propify-http-prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns the failure of a prefetched download as thrown by {@link #load(String)}.
+     */
+    private static IOException prefetchFailure(Throwable cause) {
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * Discards the content downloaded by {@link #prefetch(Collection)}.
+     *
+     * @since 3.1.0
+     */
+    public void clearPrefetched() {
+        prefetched.clear();
+    }
+
+    /**
+     * Downloads a resource. Warnings are returned with the content instead of being logged, so
+     * that downloads running on other threads do not report them out of order.
+     */
+    private Download loadRemote(String location) throws IOException {
+        if (cache == null) {
+            try (InputStream stream = connect(location, null).getInputStream()) {
+                return new Download(readFully(stream), null);
+            } catch (Exception e) {
+                throw new IOException("Failed to load resource from URL: " + location, e);
+            }
+        }
+
+        HTTPResourceCache.Entry cached = cache.read(location);
+        if (cached != null && staleWhileRevalidate) {
+            revalidateInBackground(location, cached);
+            return new Download(cached.body, null);
+        }
         try {
-            URL url = new URL(location);
-            URLConnection connection = url.openConnection();
-            
+            return new Download(fetch(location, cached).body, null);
+        } catch (Exception e) {
+            if (cached != null && isUnavailable(e)) {
+                return new Download(cached.body,
+                        "Using cached copy of " + location + " because the server is unavailable: " + e);
+            }
+            throw new IOException("Failed to load resource from URL: " + location, e);
+        }
+    }
+
+    /**
+     * Returns whether a failure means the server could not be reached or could not answer,
+     * as opposed to a response that rejects the request.
+     */
+    private static boolean isUnavailable(Exception e) {
+        if (e instanceof HTTPStatusException) {
+            return ((HTTPStatusException) e).responseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+        }
+        return e instanceof SocketTimeoutException
+                || e instanceof SocketException
+                || e instanceof UnknownHostException;
+    }
+
+    /**
+     * Downloads a resource, revalidating the cached copy if there is one, and updates the cache.
+     */
+    private HTTPResourceCache.Entry fetch(String location, HTTPResourceCache.Entry cached) throws IOException {
+        HttpURLConnection connection = connect(location, cached);
+        try (InputStream stream = connection.getInputStream()) {
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return cached;
+            }
+            HTTPResourceCache.Entry entry = new HTTPResourceCache.Entry(
+                    readFully(stream),
+                    connection.getHeaderField("ETag"),
+                    connection.getHeaderField("Last-Modified")
+            );
+            try {
+                cache.store(location, entry);
+            } catch (IOException e) {
+                // The downloaded resource is still usable without a cache entry
+            }
+            return entry;
+        }
+    }
+
+    private void revalidateInBackground(String location, HTTPResourceCache.Entry cached) {
+        if (!REVALIDATING.add(location)) {
+            return;
+        }
+        REVALIDATION_EXECUTOR.execute(() -> {
+            try {
+                fetch(location, cached);
+            } catch (Exception e) {
+                // Keep serving the cached copy until the server can be reached again
+            } finally {
+                REVALIDATING.remove(location);
+            }
+        });
+    }
+
+    /**
+     * Opens a connection to the location, following at most {@code maxRedirects} redirects,
+     * and returns it once the response is {@code 200 OK}, or {@code 304 Not Modified} when a
+     * cached copy was sent for revalidation.
+     *
+     * <p>Responses that are not returned are drained instead of disconnected, so the
+     * underlying connection goes back to the JDK's keep-alive pool and is reused by the next
+     * request to the same server.
+     */
+    private HttpURLConnection connect(String location, HTTPResourceCache.Entry cached) throws IOException {
+        String current = location;
+        for (int redirects = 0; ; redirects++) {
+            URLConnection connection = new URL(current).openConnection();
+
             if (!(connection instanceof HttpURLConnection)) {
-                throw new IOException("Not an HTTP connection: " + location);
+                throw new IOException("Not an HTTP connection: " + current);
             }
 
             HttpURLConnection httpConnection = (HttpURLConnection) connection;
             configureConnection(httpConnection);
-
-            try {
-                int responseCode = httpConnection.getResponseCode();
-                if (responseCode == HttpURLConnection.HTTP_MOVED_TEMP 
-                    || responseCode == HttpURLConnection.HTTP_MOVED_PERM 
-                    || responseCode == HttpURLConnection.HTTP_SEE_OTHER) {
-                    String newUrl = httpConnection.getHeaderField("Location");
-                    httpConnection.disconnect();
-                    return load(newUrl); // Handle redirect
+            if (cached != null) {
+                if (cached.etag != null) {
+                    httpConnection.setRequestProperty("If-None-Match", cached.etag);
                 }
-
-                if (responseCode != HttpURLConnection.HTTP_OK) {
-                    throw new IOException("HTTP request failed with response code: " + responseCode);
+                if (cached.lastModified != null) {
+                    httpConnection.setRequestProperty("If-Modified-Since", cached.lastModified);
                 }
+            }
 
-                return httpConnection.getInputStream();
+            int responseCode;
+            try {
+                responseCode = httpConnection.getResponseCode();
             } catch (IOException e) {
                 httpConnection.disconnect();
                 throw e;
             }
-        } catch (Exception e) {
-            throw new IOException("Failed to load resource from URL: " + location, e);
+            if (isRedirect(responseCode)) {
+                String target = httpConnection.getHeaderField("Location");
+                discard(httpConnection);
+                if (target == null) {
+                    throw new IOException("Redirect without a Location header from: " + current);
+                }
+                if (redirects >= maxRedirects) {
+                    throw new IOException("Too many redirects (" + maxRedirects + ") loading: " + location);
+                }
+                current = new URL(new URL(current), target).toString();
+                continue;
+            }
+
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                return httpConnection;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                discard(httpConnection);
+                throw new HTTPStatusException(responseCode);
+            }
+
+            return httpConnection;
+        }
+    }
+
+    private static boolean isRedirect(int responseCode) {
+        return responseCode == HttpURLConnection.HTTP_MOVED_TEMP
+                || responseCode == HttpURLConnection.HTTP_MOVED_PERM
+                || responseCode == HttpURLConnection.HTTP_SEE_OTHER
+                || responseCode == HTTP_TEMPORARY_REDIRECT
+                || responseCode == HTTP_PERMANENT_REDIRECT;
+    }
+
+    /**
+     * Reads and closes the body of a response that is not used, so its connection can be reused.
+     */
+    private static void discard(HttpURLConnection connection) {
+        try {
+            InputStream stream = connection.getErrorStream();
+            if (stream == null) {
+                stream = connection.getInputStream();
+            }
+            try (InputStream body = stream) {
+                byte[] buffer = new byte[8192];
+                while (body.read(buffer) != -1) {
+                    // drain
+                }
+            }
+        } catch (IOException e) {
+            connection.disconnect();
         }
     }
 
     private void configureConnection(HttpURLConnection connection) {
-        connection.setConnectTimeout(CONNECT_TIMEOUT);
-        connection.setReadTimeout(READ_TIMEOUT);
-        connection.setInstanceFollowRedirects(true);
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setInstanceFollowRedirects(false);
         connection.setRequestProperty("User-Agent", "Propify-HTTPResourceLoader/1.0");
     }
+
+    private static byte[] readFully(InputStream stream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static Path getCacheDirectory() {
+        String directory = System.getProperty(CACHE_DIR_PROPERTY);
+        return directory == null || directory.trim().isEmpty() ? null : Paths.get(directory.trim());
+    }
+
+    /**
+     * Thrown when the server answers with a status that is neither a redirect nor a success.
+     */
+    private static final class HTTPStatusException extends IOException {
+        private final int responseCode;
+
+        HTTPStatusException(int responseCode) {
+            super("HTTP request failed with response code: " + responseCode);
+            this.responseCode = responseCode;
+        }
+    }
+
+    /**
+     * The content of a downloaded resource and the warning to report when it is used.
+     */
+    private static final class Download {
+        private final byte[] body;
+        private final String warning;
+
+        Download(byte[] body, String warning) {
+            this.body = body;
+            this.warning = warning;
+        }
+    }
 }
@@ -0,0 +1,181 @@
+package com.vgerbot.propify.lookup;
+
+import com.vgerbot.propify.logger.Logger;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.interpol.Lookup;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Resolves the placeholders of {@link BatchPropifyLookup batch lookups} ahead of interpolation.
+ *
+ * <p>The raw configuration values are scanned once for {@code ${prefix:variable}}
+ * placeholders. The variables found for each batch lookup are resolved with one
+ * {@link BatchPropifyLookup#lookupAllAsync(Set)} call per lookup, all issued before any of
+ * them is awaited. The resolved values are then served by lookups installed in place of the
+ * batch lookups' adaptors.
+ *
+ * <p>When a batch lookup's adaptor is a {@link CachingLookupAdaptor}, variables it still
+ * caches are served from the cache and only the others are batched. The batch results are
+ * stored back into the cache.
+ *
+ * @since 3.1.0
+ */
+public final class BatchLookupPrefetcher {
+    private static final String PLACEHOLDER_START = "${";
+    private static final char PLACEHOLDER_END = '}';
+    private static final char PREFIX_SEPARATOR = ':';
+
+    private BatchLookupPrefetcher() {}
+
+    /**
+     * Prefetches the placeholders of the batch lookups among {@code lookupInstances}.
+     *
+     * @param configuration the parsed, not yet interpolated configuration
+     * @param lookupInstances the configured lookups by prefix
+     * @param lookups the interpolation lookups by prefix
+     * @param logger the logger used to report failed batches, may be null
+     * @return the lookups to install, with batch lookups replaced by prefetched ones
+     */
+    public static Map<String, Lookup> prefetch(Configuration configuration,
+                                               Map<String, ? extends PropifyLookup> lookupInstances,
+                                               Map<String, Lookup> lookups,
+                                               Logger logger) {
+        Map<String, BatchPropifyLookup> batchLookups = new HashMap<>();
+        lookupInstances.forEach((prefix, lookup) -> {
+            if (lookup instanceof BatchPropifyLookup) {
+                batchLookups.put(prefix, (BatchPropifyLookup) lookup);
+            }
+        });
+        if (batchLookups.isEmpty()) {
+            return lookups;
+        }
+
+        Map<String, Set<String>> variablesByPrefix = new HashMap<>();
+        for (Iterator<String> keys = configuration.getKeys(); keys.hasNext(); ) {
+            collectPlaceholders(configuration.getProperty(keys.next()), batchLookups.keySet(), variablesByPrefix);
+        }
+        if (variablesByPrefix.isEmpty()) {
+            return lookups;
+        }
+
+        Map<String, Map<String, Object>> cachedByPrefix = new HashMap<>();
+        Map<String, CompletableFuture<Map<String, Object>>> batches = new LinkedHashMap<>();
+        variablesByPrefix.forEach((prefix, variables) -> {
+            Lookup adaptor = lookups.get(prefix);
+            if (adaptor instanceof CachingLookupAdaptor) {
+                Map<String, Object> cached = ((CachingLookupAdaptor) adaptor).getCachedValues(variables);
+                cachedByPrefix.put(prefix, cached);
+                variables.removeAll(cached.keySet());
+                if (variables.isEmpty()) {
+                    batches.put(prefix, CompletableFuture.completedFuture(Collections.emptyMap()));
+                    return;
+                }
+            }
+            try {
+                batches.put(prefix, batchLookups.get(prefix).lookupAllAsync(variables));
+            } catch (RuntimeException e) {
+                CompletableFuture<Map<String, Object>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                batches.put(prefix, failed);
+            }
+        });
+
+        Map<String, Lookup> result = new HashMap<>(lookups);
+        batches.forEach((prefix, batch) -> {
+            Lookup adaptor = lookups.get(prefix);
+            Map<String, Object> values = new HashMap<>(cachedByPrefix.getOrDefault(prefix, Collections.emptyMap()));
+            try {
+                Map<String, Object> fetched = batch.join();
+                if (fetched != null) {
+                    if (adaptor instanceof CachingLookupAdaptor) {
+                        ((CachingLookupAdaptor) adaptor).putAll(fetched);
+                    }
+                    values.putAll(fetched);
+                }
+            } catch (CompletionException e) {
+                if (logger != null) {
+                    logger.warn("Batch lookup for prefix '" + prefix + "' failed, resolving placeholders one by one: " + e.getCause());
+                }
+            }
+            if (!values.isEmpty()) {
+                result.put(prefix, new PrefetchedLookup(values, adaptor));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Collects the variables of placeholders with one of the given prefixes from a raw
+     * configuration value, descending into lists and maps. Placeholders whose variable
+     * contains another placeholder are skipped, but the inner placeholder is collected.
+     */
+    static void collectPlaceholders(Object value, Set<String> prefixes, Map<String, Set<String>> variablesByPrefix) {
+        if (value instanceof String) {
+            collectPlaceholders((String) value, prefixes, variablesByPrefix);
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                collectPlaceholders(element, prefixes, variablesByPrefix);
+            }
+        } else if (value instanceof Map) {
+            for (Object element : ((Map<?, ?>) value).values()) {
+                collectPlaceholders(element, prefixes, variablesByPrefix);
+            }
+        }
+    }
+
+    private static void collectPlaceholders(String text, Set<String> prefixes, Map<String, Set<String>> variablesByPrefix) {
+        int start = text.indexOf(PLACEHOLDER_START);
+        while (start >= 0) {
+            int contentStart = start + PLACEHOLDER_START.length();
+            int end = text.indexOf(PLACEHOLDER_END, contentStart);
+            if (end < 0) {
+                return;
+            }
+            int nested = text.indexOf(PLACEHOLDER_START, contentStart);
+            if (nested >= 0 && nested < end) {
+                start = nested;
+                continue;
+            }
+            int separator = text.indexOf(PREFIX_SEPARATOR, contentStart);
+            if (separator > contentStart && separator < end) {
+                String prefix = text.substring(contentStart, separator);
+                if (prefixes.contains(prefix)) {
+                    variablesByPrefix.computeIfAbsent(prefix, key -> new LinkedHashSet<>())
+                            .add(text.substring(separator + 1, end));
+                }
+            }
+            start = text.indexOf(PLACEHOLDER_START, end + 1);
+        }
+    }
+
+    /**
+     * Serves prefetched values, delegating variables that were not prefetched.
+     */
+    private static final class PrefetchedLookup implements Lookup {
+        private final Map<String, Object> values;
+        private final Lookup delegate;
+
+        PrefetchedLookup(Map<String, Object> values, Lookup delegate) {
+            this.values = values;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object lookup(String variable) {
+            if (values.containsKey(variable)) {
+                return values.get(variable);
+            }
+            return delegate == null ? null : delegate.lookup(variable);
+        }
+    }
+}
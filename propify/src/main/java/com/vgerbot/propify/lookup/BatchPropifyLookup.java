@@ -0,0 +1,47 @@
+package com.vgerbot.propify.lookup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link PropifyLookup} that can resolve many variables in one request.
+ *
+ * <p>Before a configuration is interpolated, every {@code ${prefix:variable}} placeholder
+ * using this lookup's prefix is collected and passed to {@link #lookupAllAsync(Set)} in a
+ * single call. The batches of all batch lookups are requested concurrently, so loading a
+ * configuration costs one round trip per backend instead of one per placeholder.
+ * Placeholders that the batch result does not contain are resolved through
+ * {@link #lookup(String)} as usual.
+ *
+ * @since 3.1.0
+ */
+public interface BatchPropifyLookup extends PropifyLookup {
+
+    /**
+     * Resolves the given variables.
+     *
+     * @param variables the variables referenced by placeholders with this lookup's prefix
+     * @return the resolved values by variable; a variable mapped to null is treated as
+     *         unresolved, and a variable missing from the map is resolved through {@link #lookup(String)}
+     */
+    Map<String, Object> lookupAll(Set<String> variables);
+
+    /**
+     * Resolves the given variables asynchronously. Implementations backed by a non-blocking
+     * client should override this method; the default calls {@link #lookupAll(Set)} on the
+     * calling thread.
+     *
+     * @param variables the variables referenced by placeholders with this lookup's prefix
+     * @return a future completed with the resolved values, as returned by {@link #lookupAll(Set)}
+     */
+    default CompletableFuture<Map<String, Object>> lookupAllAsync(Set<String> variables) {
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        try {
+            future.complete(lookupAll(variables));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
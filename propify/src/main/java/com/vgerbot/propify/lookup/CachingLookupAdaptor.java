@@ -0,0 +1,159 @@
+package com.vgerbot.propify.lookup;
+
+import org.apache.commons.configuration2.interpol.Lookup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Lookup} that caches the values resolved by a {@link PropifyLookup}.
+ *
+ * <p>Values are kept for the lookup's {@link PropifyLookup#getCacheTtlMillis() cache TTL}.
+ * Variables that resolve to null are cached as well, so missing values do not reach the
+ * backend again until they expire. When several threads miss on the same variable at the
+ * same time, only one of them calls the wrapped lookup and the others wait for its result.
+ *
+ * @since 3.1.0
+ */
+public class CachingLookupAdaptor implements Lookup {
+    private final PropifyLookup lookup;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingLookupAdaptor(PropifyLookup lookup) {
+        this(lookup, System::nanoTime);
+    }
+
+    CachingLookupAdaptor(PropifyLookup lookup, LongSupplier nanoClock) {
+        this.lookup = lookup;
+        long ttlMillis = lookup.getCacheTtlMillis();
+        this.ttlNanos = ttlMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Object lookup(String variable) {
+        CacheEntry entry = cache.get(variable);
+        if (entry != null && !entry.isExpired(nanoClock.getAsLong())) {
+            hits.increment();
+            return entry.value;
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = pending.putIfAbsent(variable, future);
+        if (inFlight != null) {
+            hits.increment();
+            return await(inFlight);
+        }
+        misses.increment();
+        try {
+            Object value = lookup.lookup(variable);
+            cache.put(variable, new CacheEntry(value, nanoClock.getAsLong()));
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pending.remove(variable, future);
+        }
+    }
+
+    /**
+     * Returns the cached values of the given variables that have not expired, counting each
+     * of them as a hit. Used to skip variables a batch lookup does not need to resolve again.
+     *
+     * @param variables the variables to look up in the cache
+     * @return the cached values by variable, without the variables that are not cached
+     */
+    Map<String, Object> getCachedValues(Set<String> variables) {
+        long now = nanoClock.getAsLong();
+        Map<String, Object> values = new HashMap<>();
+        for (String variable : variables) {
+            CacheEntry entry = cache.get(variable);
+            if (entry != null && !entry.isExpired(now)) {
+                values.put(variable, entry.value);
+            }
+        }
+        hits.add(values.size());
+        return values;
+    }
+
+    /**
+     * Caches values resolved outside this adaptor by the wrapped lookup, such as by a batch
+     * lookup, counting each of them as a miss.
+     *
+     * @param values the resolved values by variable
+     */
+    void putAll(Map<String, Object> values) {
+        long now = nanoClock.getAsLong();
+        values.forEach((variable, value) -> cache.put(variable, new CacheEntry(value, now)));
+        misses.add(values.size());
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache, including lookups that waited for
+     * a concurrent call resolving the same variable.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that called the wrapped {@link PropifyLookup}.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes all cached values. Counters are not reset.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private final class CacheEntry {
+        private final Object value;
+        private final long resolvedAt;
+
+        CacheEntry(Object value, long resolvedAt) {
+            this.value = value;
+            this.resolvedAt = resolvedAt;
+        }
+
+        boolean isExpired(long now) {
+            return ttlNanos >= 0 && now - resolvedAt >= ttlNanos;
+        }
+    }
+}
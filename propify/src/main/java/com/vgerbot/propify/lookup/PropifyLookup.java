@@ -3,4 +3,19 @@ package com.vgerbot.propify.lookup;
 public interface PropifyLookup {
     String getPrefix();
     Object lookup(String variable);
-}
\ No newline at end of file
+
+    /**
+     * Returns how long resolved values may be reused, in milliseconds.
+     *
+     * <p>A positive value caches each resolved variable, including variables that resolve to
+     * null, for that duration. A negative value caches resolved variables until the lookup is
+     * closed through {@link PropifyLookupRegistry}. Zero, the default, disables caching and
+     * calls {@link #lookup(String)} for every placeholder.
+     *
+     * @return the cache duration in milliseconds
+     * @since 3.1.0
+     */
+    default long getCacheTtlMillis() {
+        return 0;
+    }
+}
@@ -0,0 +1,223 @@
+package com.vgerbot.propify.lookup;
+
+import com.vgerbot.propify.common.PropifyException;
+import com.vgerbot.propify.common.ReflectionUtils;
+import org.apache.commons.configuration2.interpol.Lookup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Holds the shared instances of {@link PropifyLookup} implementations.
+ *
+ * <p>Each lookup class is instantiated once, through its no-argument constructor, and the
+ * instance is reused by every configuration load. Instances are attached to their class, so
+ * there is one instance per class loader that defines the lookup, and a class loader can still
+ * be unloaded together with its lookups.
+ *
+ * <p>Lookups that declare a {@link PropifyLookup#getCacheTtlMillis() cache TTL} also share
+ * their cached values across configuration loads.
+ *
+ * <p>Lookups that implement {@link AutoCloseable} can be released with {@link #close(Class)}
+ * or {@link #closeAll()}. A closed lookup is dropped from the registry, and the next request
+ * for its class creates a new instance.
+ *
+ * @since 3.1.0
+ */
+public final class PropifyLookupRegistry {
+    private static final PropifyLookupRegistry INSTANCE = new PropifyLookupRegistry();
+
+    /**
+     * Holders of the lookup instances. {@link ClassValue} may compute a value several times
+     * when threads race, so it only holds a cheap holder, which creates the lookup once.
+     */
+    private final ClassValue<LookupHolder> instances = new ClassValue<LookupHolder>() {
+        @Override
+        protected LookupHolder computeValue(Class<?> type) {
+            return new LookupHolder(type);
+        }
+    };
+
+    private final ClassValue<Lookup> adaptors = new ClassValue<Lookup>() {
+        @Override
+        protected Lookup computeValue(Class<?> type) {
+            PropifyLookup lookup = instances.get(type).get();
+            return lookup.getCacheTtlMillis() == 0 ? new PropifyLookupAdaptor(lookup) : new CachingLookupAdaptor(lookup);
+        }
+    };
+
+    /**
+     * Classes whose lookup has been instantiated, used by {@link #closeAll()}.
+     */
+    private final Map<Class<?>, Boolean> created = new WeakHashMap<>();
+
+    private PropifyLookupRegistry() {}
+
+    /**
+     * Gets the singleton instance of the registry.
+     *
+     * @return the singleton instance
+     */
+    public static PropifyLookupRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the shared instance of the given lookup class, creating it on first use.
+     *
+     * @param type the lookup class
+     * @return the shared lookup instance
+     * @throws PropifyException if the lookup cannot be instantiated
+     */
+    public PropifyLookup getLookup(Class<? extends PropifyLookup> type) {
+        return instances.get(type).get();
+    }
+
+    /**
+     * Returns the shared instance of the lookup class with the given name.
+     *
+     * @param className the fully qualified lookup class name
+     * @param classLoader the class loader used to resolve the class
+     * @return the shared lookup instance
+     * @throws PropifyException if the class cannot be found, is not a lookup or cannot be instantiated
+     */
+    public PropifyLookup getLookup(String className, ClassLoader classLoader) {
+        return instances.get(resolveLookupClass(className, classLoader)).get();
+    }
+
+    /**
+     * Returns the shared interpolation adaptor for the lookup class with the given name.
+     *
+     * <p>Lookups with a non-zero {@link PropifyLookup#getCacheTtlMillis() cache TTL} are wrapped
+     * in a {@link CachingLookupAdaptor}, whose cache is shared by every configuration load until
+     * the lookup is closed.
+     *
+     * @param className the fully qualified lookup class name
+     * @param classLoader the class loader used to resolve the class
+     * @return the shared adaptor
+     * @throws PropifyException if the class cannot be found, is not a lookup or cannot be instantiated
+     */
+    public Lookup getLookupAdaptor(String className, ClassLoader classLoader) {
+        return adaptors.get(resolveLookupClass(className, classLoader));
+    }
+
+    private static Class<?> resolveLookupClass(String className, ClassLoader classLoader) {
+        Class<?> type;
+        try {
+            type = Class.forName(className, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new PropifyException("Failed to instantiate lookup class", e);
+        }
+        if (!PropifyLookup.class.isAssignableFrom(type)) {
+            throw new PropifyException("Lookup class " + className + " does not implement " + PropifyLookup.class.getName());
+        }
+        return type;
+    }
+
+    /**
+     * Closes the shared instance of the given lookup class, if one was created, and removes it
+     * from the registry. Instances that do not implement {@link AutoCloseable} are only removed.
+     *
+     * @param type the lookup class
+     * @throws PropifyException if closing the lookup fails
+     */
+    public void close(Class<? extends PropifyLookup> type) {
+        PropifyLookup lookup;
+        synchronized (created) {
+            if (created.remove(type) == null) {
+                return;
+            }
+            lookup = instances.get(type).lookup;
+            instances.remove(type);
+            adaptors.remove(type);
+        }
+        try {
+            closeLookup(lookup);
+        } catch (Exception e) {
+            throw new PropifyException("Failed to close lookup " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Closes and removes every lookup instance created by this registry.
+     *
+     * @throws PropifyException if closing any lookup fails; the remaining lookups are still closed
+     */
+    public void closeAll() {
+        List<PropifyLookup> lookups = new ArrayList<>();
+        synchronized (created) {
+            for (Class<?> type : created.keySet()) {
+                lookups.add(instances.get(type).lookup);
+                instances.remove(type);
+                adaptors.remove(type);
+            }
+            created.clear();
+        }
+        PropifyException failure = null;
+        for (PropifyLookup lookup : lookups) {
+            try {
+                closeLookup(lookup);
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = new PropifyException("Failed to close lookups", e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void closeLookup(PropifyLookup lookup) throws Exception {
+        if (lookup instanceof AutoCloseable) {
+            ((AutoCloseable) lookup).close();
+        }
+    }
+
+    private static PropifyLookup instantiate(Class<?> type) {
+        try {
+            MethodHandle constructor = MethodHandles.lookup()
+                    .unreflectConstructor(ReflectionUtils.getDeclaredConstructor(type));
+            return (PropifyLookup) constructor.invoke();
+        } catch (PropifyException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new PropifyException("Failed to instantiate lookup class", e);
+        }
+    }
+
+    /**
+     * Creates the lookup of one class on first use and records it for {@link #closeAll()}.
+     */
+    private final class LookupHolder {
+        private final Class<?> type;
+        private volatile PropifyLookup lookup;
+
+        LookupHolder(Class<?> type) {
+            this.type = type;
+        }
+
+        PropifyLookup get() {
+            PropifyLookup result = lookup;
+            if (result == null) {
+                synchronized (this) {
+                    result = lookup;
+                    if (result == null) {
+                        result = instantiate(type);
+                        lookup = result;
+                        synchronized (created) {
+                            created.put(type, Boolean.TRUE);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -11,8 +11,18 @@ import org.apache.commons.configuration2.io.FileHandler;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 public class IniConfigParser implements PropifyConfigParser {
+    private static final Set<String> MEDIA_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "text/ini",
+            "text/plain"
+    )));
+    private static final Set<String> FILE_EXTENSIONS = Collections.singleton("ini");
+
     @Override
     public Configuration parse(PropifyContext context, InputStream stream) throws IOException {
         FileBasedConfiguration configuration = new INIConfiguration();
@@ -37,8 +47,16 @@ public class IniConfigParser implements PropifyConfigParser {
         if (mediaType == null) {
             return false;
         }
-        String type = mediaType.toLowerCase();
-        return "text/ini".equals(type) ||
-                "text/plain".equals(type);
+        return MEDIA_TYPES.contains(mediaType.toLowerCase());
+    }
+
+    @Override
+    public Set<String> getMediaTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public Set<String> getFileExtensions() {
+        return FILE_EXTENSIONS;
     }
 }
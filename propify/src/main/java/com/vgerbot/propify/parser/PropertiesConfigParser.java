@@ -11,8 +11,20 @@ import org.apache.commons.configuration2.io.FileHandler;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 public class PropertiesConfigParser implements PropifyConfigParser {
+    private static final Set<String> MEDIA_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "application/java-properties",
+            "application/x-java-properties",
+            "text/java-properties",
+            "text/x-java-properties"
+    )));
+    private static final Set<String> FILE_EXTENSIONS = Collections.singleton("properties");
+
     @Override
     public Configuration parse(PropifyContext context, InputStream stream) throws IOException {
         if (stream == null) {
@@ -45,10 +57,16 @@ public class PropertiesConfigParser implements PropifyConfigParser {
             }
             return false;
         }
-        String type = mediaType.toLowerCase();
-        return "application/java-properties".equals(type) ||
-               "application/x-java-properties".equals(type) ||
-               "text/java-properties".equals(type) ||
-               "text/x-java-properties".equals(type);
+        return MEDIA_TYPES.contains(mediaType.toLowerCase());
+    }
+
+    @Override
+    public Set<String> getMediaTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public Set<String> getFileExtensions() {
+        return FILE_EXTENSIONS;
     }
 }
@@ -1,19 +1,42 @@
 package com.vgerbot.propify.parser;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.vgerbot.propify.common.ByteBuffers;
 import com.vgerbot.propify.common.FlatDottedMapConfiguration;
 import com.vgerbot.propify.core.PropifyConfigParser;
 import com.vgerbot.propify.core.PropifyContext;
 import org.apache.commons.configuration2.Configuration;
-import org.apache.commons.configuration2.MapConfiguration;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class YamlConfigParser implements PropifyConfigParser {
+    /**
+     * Factories are thread-safe once configured, so one instance is shared by all parse calls.
+     */
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory();
+    private static final Set<String> MEDIA_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "application/yaml",
+            "application/x-yaml",
+            "text/yaml",
+            "text/x-yaml"
+    )));
+    private static final Set<String> FILE_EXTENSIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "yml",
+            "yaml"
+    )));
+
     @Override
     public Configuration parse(PropifyContext context, InputStream stream) throws IOException {
         if (stream == null) {
@@ -22,15 +45,93 @@ public class YamlConfigParser implements PropifyConfigParser {
         if (context == null) {
             throw new IllegalArgumentException("PropifyContext cannot be null");
         }
-        if (stream.available() == 0) {
-            return new MapConfiguration(Collections.emptyMap());
+        Map<String, Object> map;
+        try (JsonParser parser = YAML_FACTORY.createParser(stream)) {
+            map = readDocument(parser);
         }
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        Map map = mapper.readValue(stream, Map.class);
-        MapConfiguration configuration = new FlatDottedMapConfiguration(map);
-        return configuration;
+        return new FlatDottedMapConfiguration(map);
     }
 
+    @Override
+    public Configuration parseBuffer(PropifyContext context, ByteBuffer buffer) throws IOException {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Buffer cannot be null");
+        }
+        if (context == null) {
+            throw new IllegalArgumentException("PropifyContext cannot be null");
+        }
+        Map<String, Object> map;
+        try (JsonParser parser = ByteBuffers.createParser(YAML_FACTORY, buffer)) {
+            map = readDocument(parser);
+        }
+        return new FlatDottedMapConfiguration(map);
+    }
+
+    /**
+     * Reads the first YAML document from the token stream into nested maps and lists,
+     * without going through a data-binding layer.
+     */
+    private Map<String, Object> readDocument(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return new LinkedHashMap<>();
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("YAML document must be a mapping, but found " + token);
+        }
+        return readObject(parser);
+    }
+
+    private Map<String, Object> readObject(JsonParser parser) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            map.put(name, readValue(parser));
+        }
+        return map;
+    }
+
+    private List<Object> readArray(JsonParser parser) throws IOException {
+        List<Object> list = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException("Unexpected end of YAML document");
+            }
+            list.add(readValue(parser));
+        }
+        return list;
+    }
+
+    private Object readValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            throw new IOException("Unexpected end of YAML document");
+        }
+        switch (token) {
+            case START_OBJECT:
+                return readObject(parser);
+            case START_ARRAY:
+                return readArray(parser);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            case VALUE_EMBEDDED_OBJECT:
+                return parser.getEmbeddedObject();
+            default:
+                throw new IOException("Unexpected YAML token: " + token);
+        }
+    }
 
     @Override
     public Boolean accept(PropifyContext context) {
@@ -44,10 +145,16 @@ public class YamlConfigParser implements PropifyConfigParser {
             }
             return false;
         }
-        String type = mediaType.toLowerCase();
-        return "application/yaml".equals(type) || 
-               "application/x-yaml".equals(type) ||
-               "text/yaml".equals(type) ||
-               "text/x-yaml".equals(type);
+        return MEDIA_TYPES.contains(mediaType.toLowerCase());
+    }
+
+    @Override
+    public Set<String> getMediaTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public Set<String> getFileExtensions() {
+        return FILE_EXTENSIONS;
     }
 }
@@ -0,0 +1,318 @@
+package com.vgerbot.propify.reload;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches files for changes and notifies callbacks once the changes have settled.
+ *
+ * <p>Files are watched through a {@link WatchService} registered on their parent directory.
+ * Any event in that directory makes the watcher compare the file's modification time, size
+ * and file key (the inode on most file systems) with the last values it saw, which also
+ * catches files replaced through renamed symbolic links. When no watch service is available,
+ * or when the {@value #POLLING_PROPERTY} system property is {@code true}, the same attributes
+ * are polled instead.
+ *
+ * <p>Callbacks are debounced: a callback runs once the file has not changed for the
+ * requested period, so a burst of writes triggers a single call. Callbacks run on pooled
+ * daemon threads, apart from the thread that detects changes, so a slow callback does not
+ * delay the other watched files. The callbacks of one registration never run concurrently:
+ * a change that settles while its callback is running triggers one more call afterwards.
+ *
+ * @since 3.1.0
+ */
+public final class FileWatcher implements Closeable {
+    /**
+     * System property that forces polling instead of a {@link WatchService}, for example on
+     * network file systems that do not report changes.
+     */
+    public static final String POLLING_PROPERTY = "propify.reload.polling";
+
+    static final long MIN_POLL_INTERVAL_MILLIS = 100;
+
+    private static final FileWatcher INSTANCE = new FileWatcher(Boolean.getBoolean(POLLING_PROPERTY));
+
+    private final boolean polling;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService callbacks;
+    private final Map<WatchKey, List<Registration>> registrations = new HashMap<>();
+    private final Map<Path, WatchKey> keysByDirectory = new HashMap<>();
+    private WatchService watchService;
+    private boolean watchServiceUnavailable;
+    private volatile boolean closed;
+
+    public static FileWatcher getInstance() {
+        return INSTANCE;
+    }
+
+    FileWatcher(boolean polling) {
+        this.polling = polling;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "propify-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+        this.callbacks = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "propify-reload-callback");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts watching a file.
+     *
+     * @param file the file to watch; it does not have to exist yet
+     * @param debounceMillis how long the file must stay unchanged before the callback runs
+     * @param callback the callback to run after the file changed
+     * @return a handle that stops watching the file when closed
+     */
+    public Closeable watch(Path file, long debounceMillis, Runnable callback) {
+        if (closed) {
+            throw new IllegalStateException("FileWatcher is closed");
+        }
+        Path path = file.toAbsolutePath().normalize();
+        Registration registration = new Registration(path, Math.max(0, debounceMillis), callback);
+        WatchKey key = polling ? null : register(path.getParent());
+        if (key == null) {
+            long interval = Math.max(registration.debounceMillis, MIN_POLL_INTERVAL_MILLIS);
+            registration.poller = scheduler.scheduleWithFixedDelay(
+                    registration::checkState, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            synchronized (this) {
+                registration.key = key;
+                registrations.computeIfAbsent(key, it -> new ArrayList<>()).add(registration);
+            }
+        }
+        return registration;
+    }
+
+    /**
+     * Stops watching all files and releases the watcher's threads.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        scheduler.shutdownNow();
+        callbacks.shutdownNow();
+        WatchService service;
+        synchronized (this) {
+            service = watchService;
+            registrations.clear();
+            keysByDirectory.clear();
+        }
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    private synchronized WatchKey register(Path directory) {
+        if (directory == null || watchServiceUnavailable) {
+            return null;
+        }
+        WatchKey key = keysByDirectory.get(directory);
+        if (key != null) {
+            return key;
+        }
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                Thread thread = new Thread(this::processEvents, "propify-watch");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            key = directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            if (watchService == null) {
+                watchServiceUnavailable = true;
+            }
+            return null;
+        }
+        keysByDirectory.put(directory, key);
+        return key;
+    }
+
+    private void processEvents() {
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            List<WatchEvent<?>> events = key.pollEvents();
+            List<Registration> targets;
+            synchronized (this) {
+                List<Registration> registered = registrations.get(key);
+                targets = registered == null ? null : new ArrayList<>(registered);
+            }
+            if (targets != null && !events.isEmpty()) {
+                targets.forEach(Registration::checkState);
+            }
+            key.reset();
+        }
+    }
+
+    private synchronized void unregister(Registration registration) {
+        List<Registration> registered = registrations.get(registration.key);
+        if (registered != null && registered.remove(registration) && registered.isEmpty()) {
+            registrations.remove(registration.key);
+            keysByDirectory.values().remove(registration.key);
+            registration.key.cancel();
+        }
+    }
+
+    private final class Registration implements Closeable {
+        private final Path path;
+        private final long debounceMillis;
+        private final Runnable callback;
+        private FileState state;
+        private WatchKey key;
+        private ScheduledFuture<?> poller;
+        private ScheduledFuture<?> pending;
+        private boolean cancelled;
+        private boolean running;
+        private boolean rerun;
+
+        Registration(Path path, long debounceMillis, Runnable callback) {
+            this.path = path;
+            this.debounceMillis = debounceMillis;
+            this.callback = callback;
+            this.state = FileState.of(path);
+        }
+
+        synchronized void checkState() {
+            FileState current = FileState.of(path);
+            if (cancelled || current.equals(state)) {
+                return;
+            }
+            state = current;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            pending = scheduler.schedule(this::fire, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void fire() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                pending = null;
+                if (running) {
+                    rerun = true;
+                    return;
+                }
+                running = true;
+            }
+            try {
+                callbacks.execute(this::runCallback);
+            } catch (RejectedExecutionException e) {
+                // the watcher was closed
+            }
+        }
+
+        private void runCallback() {
+            while (true) {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    // callbacks report their own failures, keep serving the next change
+                }
+                synchronized (this) {
+                    if (cancelled || !rerun) {
+                        running = false;
+                        return;
+                    }
+                    rerun = false;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                cancelled = true;
+                if (pending != null) {
+                    pending.cancel(false);
+                }
+                if (poller != null) {
+                    poller.cancel(false);
+                }
+            }
+            if (key != null) {
+                unregister(this);
+            }
+        }
+    }
+
+    /**
+     * The attributes compared to detect a change: modification time, size and file key.
+     */
+    private static final class FileState {
+        private static final FileState MISSING = new FileState(null, -1, null);
+
+        private final Object lastModified;
+        private final long size;
+        private final Object fileKey;
+
+        private FileState(Object lastModified, long size, Object fileKey) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.fileKey = fileKey;
+        }
+
+        static FileState of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileState(attributes.lastModifiedTime(), attributes.size(), attributes.fileKey());
+            } catch (IOException | SecurityException e) {
+                return MISSING;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FileState)) {
+                return false;
+            }
+            FileState that = (FileState) o;
+            return size == that.size
+                    && Objects.equals(lastModified, that.lastModified)
+                    && Objects.equals(fileKey, that.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lastModified, size, fileKey);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.vgerbot.propify.reload;
+
+import com.vgerbot.propify.core.PropifyProperties;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The keys that differ between two versions of a configuration.
+ *
+ * <p>Keys of nested sections are reported in dot notation, for example {@code server.port}.
+ * Lists are compared as a whole and reported under their own key.
+ *
+ * @since 3.1.0
+ */
+public final class PropertiesDiff {
+    private final Set<String> addedKeys;
+    private final Set<String> removedKeys;
+    private final Set<String> modifiedKeys;
+
+    private PropertiesDiff(Set<String> addedKeys, Set<String> removedKeys, Set<String> modifiedKeys) {
+        this.addedKeys = Collections.unmodifiableSet(addedKeys);
+        this.removedKeys = Collections.unmodifiableSet(removedKeys);
+        this.modifiedKeys = Collections.unmodifiableSet(modifiedKeys);
+    }
+
+    /**
+     * Computes the difference between two versions of a configuration.
+     *
+     * @param previous the previous configuration, or null if there was none
+     * @param current the current configuration
+     * @return the keys that were added, removed or modified
+     */
+    public static PropertiesDiff between(PropifyProperties previous, PropifyProperties current) {
+        Map<String, Object> before = new HashMap<>();
+        Map<String, Object> after = new HashMap<>();
+        flatten("", previous, before);
+        flatten("", current, after);
+
+        Set<String> added = new TreeSet<>();
+        Set<String> modified = new TreeSet<>();
+        after.forEach((key, value) -> {
+            if (!before.containsKey(key)) {
+                added.add(key);
+            } else if (!Objects.deepEquals(before.get(key), value)) {
+                modified.add(key);
+            }
+        });
+        Set<String> removed = new TreeSet<>(before.keySet());
+        removed.removeAll(after.keySet());
+        return new PropertiesDiff(added, removed, modified);
+    }
+
+    private static void flatten(String prefix, Map<String, Object> properties, Map<String, Object> target) {
+        if (properties == null) {
+            return;
+        }
+        properties.forEach((key, value) -> {
+            String path = prefix + key;
+            if (value instanceof PropifyProperties) {
+                flatten(path + ".", (PropifyProperties) value, target);
+            } else {
+                target.put(path, value);
+            }
+        });
+    }
+
+    public Set<String> getAddedKeys() {
+        return addedKeys;
+    }
+
+    public Set<String> getRemovedKeys() {
+        return removedKeys;
+    }
+
+    public Set<String> getModifiedKeys() {
+        return modifiedKeys;
+    }
+
+    /**
+     * Returns all keys that were added, removed or modified, in sorted order.
+     *
+     * @return the changed keys
+     */
+    public Set<String> getChangedKeys() {
+        Set<String> changed = new TreeSet<>(addedKeys);
+        changed.addAll(removedKeys);
+        changed.addAll(modifiedKeys);
+        return Collections.unmodifiableSet(changed);
+    }
+
+    public boolean isEmpty() {
+        return addedKeys.isEmpty() && removedKeys.isEmpty() && modifiedKeys.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "PropertiesDiff{added=" + addedKeys + ", removed=" + removedKeys + ", modified=" + modifiedKeys + "}";
+    }
+}
@@ -0,0 +1,22 @@
+package com.vgerbot.propify.reload;
+
+/**
+ * Listener notified after a reloadable configuration was rebuilt with different values.
+ *
+ * <p>Listeners are registered through the {@code addReloadListener} method of classes
+ * generated with {@code @Propify(reload = true)}. They are called on the thread that
+ * reloaded the configuration, after the new instance has been published, and only when at
+ * least one key changed.
+ *
+ * @since 3.1.0
+ */
+@FunctionalInterface
+public interface PropifyReloadListener {
+
+    /**
+     * Called after the configuration was reloaded.
+     *
+     * @param diff the keys that changed
+     */
+    void onReload(PropertiesDiff diff);
+}
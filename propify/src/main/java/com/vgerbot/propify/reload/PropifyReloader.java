@@ -0,0 +1,133 @@
+package com.vgerbot.propify.reload;
+
+import com.vgerbot.propify.core.PropifyContext;
+import com.vgerbot.propify.core.PropifyProperties;
+import com.vgerbot.propify.core.PropifyPropertiesBuilder;
+import com.vgerbot.propify.loader.FileResourceLoader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the configuration of a class generated with {@code @Propify(reload = true)} up to date.
+ *
+ * <p>From the first load on, the reloader watches the configuration file through the
+ * {@link FileWatcher}. The watch starts before the file is first read, so a change written
+ * during that read is not missed. When the file changes, the configuration is rebuilt on a
+ * callback thread of the watcher, one rebuild at a time, and handed to the publisher, which swaps the new instance into the generated class.
+ * Listeners are then notified with the keys that changed. If the rebuild fails, for example
+ * because the file is half written or invalid, the previous configuration stays in place and
+ * a warning is logged.
+ *
+ * @since 3.1.0
+ */
+public final class PropifyReloader {
+    private final PropifyContext context;
+    private final long debounceMillis;
+    private final Consumer<PropifyProperties> publisher;
+    private final FileWatcher watcher;
+    private final List<PropifyReloadListener> listeners = new CopyOnWriteArrayList<>();
+    private PropifyProperties current;
+    private Closeable watch;
+
+    /**
+     * Creates a reloader.
+     *
+     * @param context the context of the generated class; its location must be a {@code file:} location
+     * @param debounceMillis how long the file must stay unchanged before it is reloaded
+     * @param publisher receives every reloaded configuration
+     */
+    public PropifyReloader(PropifyContext context, long debounceMillis, Consumer<PropifyProperties> publisher) {
+        this(context, debounceMillis, publisher, FileWatcher.getInstance());
+    }
+
+    PropifyReloader(PropifyContext context, long debounceMillis, Consumer<PropifyProperties> publisher, FileWatcher watcher) {
+        this.context = context;
+        this.debounceMillis = debounceMillis;
+        this.publisher = publisher;
+        this.watcher = watcher;
+    }
+
+    /**
+     * Returns the current configuration, loading it and starting to watch the file on the first call.
+     *
+     * @return the current configuration
+     */
+    public synchronized PropifyProperties load() {
+        if (current == null) {
+            startWatching();
+            try {
+                current = new PropifyPropertiesBuilder().build(context);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds the configuration, publishes it and notifies the listeners if any key changed.
+     *
+     * @return the keys that changed
+     * @throws RuntimeException if the configuration cannot be rebuilt or published; the current one is kept
+     */
+    public synchronized PropertiesDiff reload() {
+        PropifyProperties previous = current;
+        PropifyProperties properties = new PropifyPropertiesBuilder().build(context);
+        publisher.accept(properties);
+        current = properties;
+        startWatching();
+
+        PropertiesDiff diff = PropertiesDiff.between(previous, properties);
+        if (!diff.isEmpty()) {
+            for (PropifyReloadListener listener : listeners) {
+                try {
+                    listener.onReload(diff);
+                } catch (RuntimeException e) {
+                    context.getLogger().warn("Reload listener failed for " + context.getLocation() + ": " + e);
+                }
+            }
+        }
+        return diff;
+    }
+
+    public void addListener(PropifyReloadListener listener) {
+        listeners.add(listener);
+    }
+
+    public boolean removeListener(PropifyReloadListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Stops watching the configuration file. A later {@link #reload()} starts watching again.
+     */
+    public synchronized void close() {
+        if (watch != null) {
+            try {
+                watch.close();
+            } catch (IOException e) {
+                context.getLogger().warn("Failed to stop watching " + context.getLocation() + ": " + e);
+            }
+            watch = null;
+        }
+    }
+
+    private void startWatching() {
+        if (watch == null) {
+            watch = watcher.watch(FileResourceLoader.toPath(context.getLocation()), debounceMillis, this::reloadOnChange);
+        }
+    }
+
+    private void reloadOnChange() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            context.getLogger().warn("Failed to reload " + context.getLocation() + ", keeping the previous configuration: " + e);
+        }
+    }
+}
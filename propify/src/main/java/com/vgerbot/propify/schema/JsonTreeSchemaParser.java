@@ -0,0 +1,39 @@
+package com.vgerbot.propify.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Optional extension of {@link SchemaParser} for parsers that read the schema document into a
+ * Jackson tree before building the {@link SchemaDefinition}.
+ *
+ * <p>Splitting the two steps lets a tree be read once and shared by every annotation that
+ * refers to the same document, for example several {@link SchemaGen} annotations selecting
+ * different {@link SchemaGen#schemaRef() schemas} of one OpenAPI specification. Parsers must
+ * not modify the trees they are given.
+ *
+ * @since 3.1.0
+ */
+public interface JsonTreeSchemaParser extends SchemaParser {
+
+    /**
+     * Reads a schema document held in a buffer into a tree.
+     *
+     * @param context the schema context
+     * @param buffer the buffer containing the document
+     * @return the root node of the document
+     * @throws IOException if the document cannot be read
+     */
+    JsonNode readTree(SchemaContext context, ByteBuffer buffer) throws IOException;
+
+    /**
+     * Builds the schema definition selected by the context from a document tree.
+     *
+     * @param context the schema context
+     * @param rootNode the root node of the document
+     * @return the parsed schema definition
+     */
+    SchemaDefinition parseTree(SchemaContext context, JsonNode rootNode);
+}
@@ -1,11 +1,13 @@
 package com.vgerbot.propify.schema;
 
+import com.vgerbot.propify.core.ByteBufferResourceLoader;
 import com.vgerbot.propify.core.ResourceLoader;
 import com.vgerbot.propify.core.ResourceLoaderProvider;
 import com.vgerbot.propify.logger.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Context object that holds configuration for schema-based code generation.
@@ -59,6 +61,21 @@ public class SchemaContext {
         return loader.load(location);
     }
 
+    /**
+     * Loads the schema resource into a buffer, if its loader supports it.
+     *
+     * @return the resource content, or null if the loader only provides streams
+     * @throws IOException if the resource cannot be loaded
+     * @since 3.1.0
+     */
+    public ByteBuffer loadResourceBuffer() throws IOException {
+        ResourceLoader loader = resourceLoaderProvider.getLoader(location);
+        if (loader instanceof ByteBufferResourceLoader) {
+            return ((ByteBufferResourceLoader) loader).loadBuffer(location);
+        }
+        return null;
+    }
+
     public String getLocation() {
         return location;
     }
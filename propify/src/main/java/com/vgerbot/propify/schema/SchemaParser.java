@@ -1,7 +1,10 @@
 package com.vgerbot.propify.schema;
 
+import com.vgerbot.propify.common.ByteBuffers;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Interface for parsing schema definitions from various formats.
@@ -19,6 +22,24 @@ public interface SchemaParser {
      * @throws IOException if an error occurs while reading the stream
      */
     SchemaDefinition parse(SchemaContext context, InputStream inputStream) throws IOException;
+
+    /**
+     * Parse a schema held in a buffer.
+     *
+     * <p>The default implementation reads the buffer through a stream. Parsers that can read
+     * a buffer or byte array in place should override it.
+     *
+     * @param context the schema context
+     * @param buffer the buffer containing the schema
+     * @return the parsed schema definition
+     * @throws IOException if an error occurs while reading the buffer
+     * @since 3.1.0
+     */
+    default SchemaDefinition parseBuffer(SchemaContext context, ByteBuffer buffer) throws IOException {
+        try (InputStream inputStream = ByteBuffers.newInputStream(buffer)) {
+            return parse(context, inputStream);
+        }
+    }
     
     /**
      * Check if this parser can handle the given schema type.
@@ -2,15 +2,17 @@ package com.vgerbot.propify.schema.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vgerbot.propify.common.ByteBuffers;
 import com.vgerbot.propify.common.Utils;
 import com.vgerbot.propify.schema.PropertyDefinition;
+import com.vgerbot.propify.schema.JsonTreeSchemaParser;
 import com.vgerbot.propify.schema.SchemaContext;
 import com.vgerbot.propify.schema.SchemaDefinition;
-import com.vgerbot.propify.schema.SchemaParser;
 import com.vgerbot.propify.schema.SchemaType;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -22,7 +24,7 @@ import java.util.Map;
  *
  * @since 2.1.0
  */
-public class JsonSchemaParser implements SchemaParser {
+public class JsonSchemaParser implements JsonTreeSchemaParser {
 
     private final ObjectMapper objectMapper;
 
@@ -32,8 +34,25 @@ public class JsonSchemaParser implements SchemaParser {
 
     @Override
     public SchemaDefinition parse(SchemaContext context, InputStream inputStream) throws IOException {
-        JsonNode rootNode = objectMapper.readTree(inputStream);
+        return parseDocument(objectMapper.readTree(inputStream));
+    }
+
+    @Override
+    public SchemaDefinition parseBuffer(SchemaContext context, ByteBuffer buffer) throws IOException {
+        return parseDocument(readTree(context, buffer));
+    }
+
+    @Override
+    public JsonNode readTree(SchemaContext context, ByteBuffer buffer) throws IOException {
+        return ByteBuffers.readTree(objectMapper, buffer);
+    }
+
+    @Override
+    public SchemaDefinition parseTree(SchemaContext context, JsonNode rootNode) {
+        return parseDocument(rootNode);
+    }
 
+    private SchemaDefinition parseDocument(JsonNode rootNode) {
         SchemaDefinition schema = new SchemaDefinition();
 
         // Extract title
@@ -3,15 +3,17 @@ package com.vgerbot.propify.schema.parser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.vgerbot.propify.common.ByteBuffers;
 import com.vgerbot.propify.common.Utils;
 import com.vgerbot.propify.schema.PropertyDefinition;
+import com.vgerbot.propify.schema.JsonTreeSchemaParser;
 import com.vgerbot.propify.schema.SchemaContext;
 import com.vgerbot.propify.schema.SchemaDefinition;
-import com.vgerbot.propify.schema.SchemaParser;
 import com.vgerbot.propify.schema.SchemaType;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -22,7 +24,7 @@ import java.util.Map;
  *
  * @since 2.1.0
  */
-public class OpenApiSchemaParser implements SchemaParser {
+public class OpenApiSchemaParser implements JsonTreeSchemaParser {
 
     private final ObjectMapper jsonMapper;
     private final ObjectMapper yamlMapper;
@@ -34,12 +36,33 @@ public class OpenApiSchemaParser implements SchemaParser {
 
     @Override
     public SchemaDefinition parse(SchemaContext context, InputStream inputStream) throws IOException {
-        // Determine if it's YAML or JSON based on location
-        ObjectMapper mapper = context.getLocation().endsWith(".yaml") || context.getLocation().endsWith(".yml")
-                ? yamlMapper : jsonMapper;
+        return parseDocument(context, selectMapper(context).readTree(inputStream));
+    }
 
-        JsonNode rootNode = mapper.readTree(inputStream);
+    @Override
+    public SchemaDefinition parseBuffer(SchemaContext context, ByteBuffer buffer) throws IOException {
+        return parseDocument(context, readTree(context, buffer));
+    }
+
+    @Override
+    public JsonNode readTree(SchemaContext context, ByteBuffer buffer) throws IOException {
+        return ByteBuffers.readTree(selectMapper(context), buffer);
+    }
+
+    @Override
+    public SchemaDefinition parseTree(SchemaContext context, JsonNode rootNode) {
+        return parseDocument(context, rootNode);
+    }
+
+    /**
+     * Determines if it's YAML or JSON based on location.
+     */
+    private ObjectMapper selectMapper(SchemaContext context) {
+        return context.getLocation().endsWith(".yaml") || context.getLocation().endsWith(".yml")
+                ? yamlMapper : jsonMapper;
+    }
 
+    private SchemaDefinition parseDocument(SchemaContext context, JsonNode rootNode) {
         // Validate it's an OpenAPI document
         if (!rootNode.has("openapi") && !rootNode.has("swagger")) {
             throw new IllegalArgumentException("Not a valid OpenAPI specification");
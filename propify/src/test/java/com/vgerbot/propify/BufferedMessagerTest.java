@@ -0,0 +1,41 @@
+package com.vgerbot.propify;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+
+import static org.mockito.Mockito.*;
+
+public class BufferedMessagerTest {
+
+    @Test
+    public void testReplayReportsMessagesInOrder() {
+        BufferedMessager buffer = new BufferedMessager();
+        Element element = mock(Element.class);
+        buffer.printMessage(Diagnostic.Kind.NOTE, "loading");
+        buffer.printMessage(Diagnostic.Kind.ERROR, "failed", element);
+
+        Messager target = mock(Messager.class);
+        buffer.replay(target);
+
+        InOrder inOrder = inOrder(target);
+        inOrder.verify(target).printMessage(Diagnostic.Kind.NOTE, "loading");
+        inOrder.verify(target).printMessage(Diagnostic.Kind.ERROR, "failed", element);
+        verifyNoMoreInteractions(target);
+    }
+
+    @Test
+    public void testReplayClearsTheBuffer() {
+        BufferedMessager buffer = new BufferedMessager();
+        buffer.printMessage(Diagnostic.Kind.WARNING, "once");
+
+        Messager target = mock(Messager.class);
+        buffer.replay(target);
+        buffer.replay(target);
+
+        verify(target, times(1)).printMessage(Diagnostic.Kind.WARNING, "once");
+    }
+}
@@ -0,0 +1,52 @@
+package com.vgerbot.propify;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class FingerprintManifestTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testSavedEntriesAreLoadedAgain() throws IOException {
+        Path directory = tempFolder.getRoot().toPath().resolve("cache");
+        FingerprintManifest manifest = FingerprintManifest.load(directory);
+        manifest.put("com.test.AppConfig@Propify", new FingerprintManifest.Entry(
+                "com.test.AppConfigPropify", "classpath:app.yml", "content", "fingerprint", "output"));
+        manifest.save();
+
+        FingerprintManifest.Entry entry = FingerprintManifest.load(directory).get("com.test.AppConfig@Propify");
+
+        assertEquals("com.test.AppConfigPropify", entry.generatedType);
+        assertEquals("classpath:app.yml", entry.location);
+        assertEquals("content", entry.contentHash);
+        assertEquals("fingerprint", entry.fingerprint);
+        assertEquals("output", entry.outputHash);
+    }
+
+    @Test
+    public void testUnmodifiedManifestIsNotWritten() throws IOException {
+        Path directory = tempFolder.getRoot().toPath().resolve("cache");
+
+        FingerprintManifest.load(directory).save();
+
+        assertFalse(Files.exists(directory.resolve(FingerprintManifest.FILE_NAME)));
+    }
+
+    @Test
+    public void testCorruptManifestIsTreatedAsEmpty() throws IOException {
+        Path directory = tempFolder.newFolder("cache").toPath();
+        Files.write(directory.resolve(FingerprintManifest.FILE_NAME), "key.fingerprint=\\u00".getBytes(StandardCharsets.ISO_8859_1));
+
+        assertNull(FingerprintManifest.load(directory).get("key"));
+    }
+}
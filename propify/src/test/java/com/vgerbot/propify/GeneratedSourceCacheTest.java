@@ -0,0 +1,50 @@
+package com.vgerbot.propify;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class GeneratedSourceCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testWrittenSourceIsReadAgain() throws IOException {
+        GeneratedSourceCache cache = new GeneratedSourceCache(tempFolder.getRoot().toPath().resolve("sources"));
+        cache.write("abc", "com.test.AppConfigPropify", "class AppConfigPropify {}");
+
+        GeneratedSourceCache.Entry entry = cache.read("abc");
+
+        assertEquals("com.test.AppConfigPropify", entry.qualifiedName);
+        assertEquals("class AppConfigPropify {}", entry.code);
+    }
+
+    @Test
+    public void testUnknownFingerprintIsNotFound() {
+        GeneratedSourceCache cache = new GeneratedSourceCache(tempFolder.getRoot().toPath().resolve("sources"));
+
+        assertNull(cache.read("missing"));
+    }
+
+    @Test
+    public void testRetainAllDeletesOtherFingerprints() throws IOException {
+        Path directory = tempFolder.getRoot().toPath().resolve("sources");
+        GeneratedSourceCache cache = new GeneratedSourceCache(directory);
+        cache.write("kept", "com.test.Kept", "class Kept {}");
+        cache.write("stale", "com.test.Stale", "class Stale {}");
+
+        cache.retainAll(Collections.singleton("kept"));
+
+        assertNotNull(cache.read("kept"));
+        assertNull(cache.read("stale"));
+        assertFalse(Files.exists(directory.resolve("stale")));
+    }
+}
@@ -0,0 +1,68 @@
+package com.vgerbot.propify;
+
+import com.vgerbot.propify.common.Digests;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ParsedResourceCacheTest {
+
+    private final ParsedResourceCache cache = new ParsedResourceCache();
+
+    @Test
+    public void testSameContentIsParsedOnce() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+
+        String first = cache.get("config", "file:a.yml", content("name: a"), () -> "parsed-" + parses.incrementAndGet());
+        String second = cache.get("config", "file:a.yml", content("name: a"), () -> "parsed-" + parses.incrementAndGet());
+
+        assertEquals("parsed-1", first);
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    public void testChangedContentKindOrLocationIsParsedAgain() throws IOException {
+        AtomicInteger parses = new AtomicInteger();
+
+        cache.get("config", "file:a.yml", content("name: a"), parses::incrementAndGet);
+        cache.get("config", "file:a.yml", content("name: b"), parses::incrementAndGet);
+        cache.get("schema", "file:a.yml", content("name: a"), parses::incrementAndGet);
+        cache.get("config", "file:b.yml", content("name: a"), parses::incrementAndGet);
+
+        assertEquals(4, parses.get());
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws IOException {
+        try {
+            cache.get("config", "file:a.yml", content("name: a"), () -> {
+                throw new IOException("broken");
+            });
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("broken", e.getMessage());
+        }
+
+        assertEquals("fixed", cache.get("config", "file:a.yml", content("name: a"), () -> "fixed"));
+    }
+
+    @Test
+    public void testClearRemovesEntries() throws IOException {
+        cache.get("config", "file:a.yml", content("name: a"), () -> "parsed");
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+    }
+
+    private static String content(String text) {
+        return Digests.sha256(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,5 +1,8 @@
 package com.vgerbot.propify;
 
+import com.vgerbot.propify.common.PropifyException;
+import com.vgerbot.propify.reload.PropertiesDiff;
+import com.vgerbot.propify.reload.PropifyReloadListener;
 import org.junit.Test;
 import org.junit.Rule;
 import org.junit.rules.TemporaryFolder;
@@ -10,9 +13,19 @@ import javax.tools.*;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -81,6 +94,363 @@ public class PropifyProcessorIntegrationTest {
         assertTrue("Generated file should exist", generatedFile.exists());
     }
     
+    @Test
+    public void testEmbeddedPropifyAnnotationProcessing() throws Exception {
+        File sourceDir = tempFolder.newFolder("embedded-source");
+        File outputDir = tempFolder.newFolder("embedded-output");
+
+        File resourcesDir = tempFolder.newFolder("embedded-resources");
+        File configFile = new File(resourcesDir, "embedded-config.yml");
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("server:");
+            writer.println("  host: localhost");
+            writer.println("  port: 8080");
+            writer.println("timeout(Duration): PT30S");
+            writer.println("buckets(long[]): [10, 100]");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        File sourceFile = new File(packageDir, "EmbeddedConfig.java");
+        try (PrintWriter writer = new PrintWriter(sourceFile)) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(");
+            writer.println("    location = \"file:" + configFile.getAbsolutePath() + "\",");
+            writer.println("    embedded = true");
+            writer.println(")");
+            writer.println("public interface EmbeddedConfig {");
+            writer.println("}");
+        }
+
+        boolean success = compile(sourceDir, outputDir, resourcesDir);
+        assertTrue("Compilation should succeed", success);
+
+        // The generated class must not need the configuration resource at runtime
+        assertTrue(configFile.delete());
+
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> generatedClass = classLoader.loadClass("com.test.EmbeddedConfigPropify");
+            Object config = generatedClass.getMethod("getInstance").invoke(null);
+            Object server = generatedClass.getMethod("getServer").invoke(config);
+            assertEquals("localhost", server.getClass().getMethod("getHost").invoke(server));
+            assertEquals(8080, server.getClass().getMethod("getPort").invoke(server));
+            assertEquals(Duration.ofSeconds(30), generatedClass.getMethod("getTimeout").invoke(config));
+            long[] buckets = (long[]) generatedClass.getMethod("getBuckets").invoke(config);
+            assertArrayEquals(new long[]{10L, 100L}, buckets);
+            assertSame(buckets, generatedClass.getMethod("getBuckets").invoke(config));
+        }
+    }
+
+    @Test
+    public void testEmbeddedLargeCollectionsCompile() throws Exception {
+        File sourceDir = tempFolder.newFolder("embedded-large-source");
+        File outputDir = tempFolder.newFolder("embedded-large-output");
+        File resourcesDir = tempFolder.newFolder("embedded-large-resources");
+        File configFile = new File(resourcesDir, "embedded-large.yml");
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("routes:");
+            for (int i = 0; i < 10000; i++) {
+                writer.println("  - /route/" + i);
+            }
+            writer.println("matrix:");
+            for (int i = 0; i < 300; i++) {
+                writer.println("  - [" + i + ", " + (i + 1) + "]");
+            }
+            StringBuilder codes = new StringBuilder("codes(int[]): [0");
+            for (int i = 1; i < 5000; i++) {
+                codes.append(", ").append(i);
+            }
+            writer.println(codes.append(']'));
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "LargeConfig.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(location = \"file:" + configFile.getAbsolutePath() + "\", embedded = true)");
+            writer.println("public interface LargeConfig {");
+            writer.println("}");
+        }
+
+        List<String> messages = new ArrayList<>();
+        assertTrue(String.join("\n", messages), compile(sourceDir, outputDir, resourcesDir, messages));
+
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> generatedClass = classLoader.loadClass("com.test.LargeConfigPropify");
+            Object config = generatedClass.getMethod("getInstance").invoke(null);
+            List<?> routes = (List<?>) generatedClass.getMethod("getRoutes").invoke(config);
+            assertEquals(10000, routes.size());
+            assertEquals("/route/0", routes.get(0));
+            assertEquals("/route/9999", routes.get(9999));
+            List<?> matrix = (List<?>) generatedClass.getMethod("getMatrix").invoke(config);
+            assertEquals(300, matrix.size());
+            assertEquals(Arrays.asList(299, 300), matrix.get(299));
+            int[] codes = (int[]) generatedClass.getMethod("getCodes").invoke(config);
+            assertEquals(5000, codes.length);
+            assertEquals(4999, codes[4999]);
+        }
+    }
+
+    @Test
+    public void testEmbeddedConfigurationRejectsPlaceholders() throws IOException {
+        File sourceDir = tempFolder.newFolder("embedded-placeholder-source");
+        File resourcesDir = tempFolder.newFolder("embedded-placeholder-resources");
+        File configFile = new File(resourcesDir, "embedded-placeholder.properties");
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("name=app");
+            writer.println("home=${sys:user.home}");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "PlaceholderConfig.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(location = \"file:" + configFile.getAbsolutePath() + "\", embedded = true)");
+            writer.println("public interface PlaceholderConfig {");
+            writer.println("}");
+        }
+
+        List<String> messages = new ArrayList<>();
+        assertFalse(compile(sourceDir, tempFolder.newFolder("embedded-placeholder-output"), resourcesDir, messages));
+        assertTrue(messages.stream().anyMatch(message -> message.startsWith("ERROR")
+                && message.contains("Placeholders are not supported when embedded = true: home = ${sys:user.home}")));
+    }
+
+    @Test
+    public void testGeneratedInstanceIsSharedAndRefreshable() throws Exception {
+        File sourceDir = tempFolder.newFolder("refresh-source");
+        File outputDir = tempFolder.newFolder("refresh-output");
+
+        File resourcesDir = tempFolder.newFolder("refresh-resources");
+        File configFile = new File(resourcesDir, "refresh-config.properties");
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("name=first");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        File sourceFile = new File(packageDir, "RefreshConfig.java");
+        try (PrintWriter writer = new PrintWriter(sourceFile)) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(location = \"file:" + configFile.getAbsolutePath() + "\")");
+            writer.println("public interface RefreshConfig {");
+            writer.println("}");
+        }
+
+        boolean success = compile(sourceDir, outputDir, resourcesDir);
+        assertTrue("Compilation should succeed", success);
+
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> generatedClass = classLoader.loadClass("com.test.RefreshConfigPropify");
+            Object first = generatedClass.getMethod("getInstance").invoke(null);
+            assertSame(first, generatedClass.getMethod("getInstance").invoke(null));
+            assertEquals("first", generatedClass.getMethod("getName").invoke(first));
+
+            try (PrintWriter writer = new PrintWriter(configFile)) {
+                writer.println("name=second");
+            }
+            Object refreshed = generatedClass.getMethod("refresh").invoke(null);
+            assertNotSame(first, refreshed);
+            assertSame(refreshed, generatedClass.getMethod("getInstance").invoke(null));
+            assertEquals("second", generatedClass.getMethod("getName").invoke(refreshed));
+            assertEquals("first", generatedClass.getMethod("getName").invoke(first));
+        }
+    }
+
+    @Test
+    public void testReloadablePropifyAnnotationProcessing() throws Exception {
+        File sourceDir = tempFolder.newFolder("reload-source");
+        File outputDir = tempFolder.newFolder("reload-output");
+
+        File resourcesDir = tempFolder.newFolder("reload-resources");
+        File configFile = new File(resourcesDir, "reload-config.properties");
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("name=first");
+            writer.println("port=8080");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        File sourceFile = new File(packageDir, "ReloadConfig.java");
+        try (PrintWriter writer = new PrintWriter(sourceFile)) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(");
+            writer.println("    location = \"file:" + configFile.getAbsolutePath() + "\",");
+            writer.println("    reload = true,");
+            writer.println("    reloadDebounceMillis = 50");
+            writer.println(")");
+            writer.println("public interface ReloadConfig {");
+            writer.println("}");
+        }
+
+        boolean success = compile(sourceDir, outputDir, resourcesDir);
+        assertTrue("Compilation should succeed", success);
+
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> generatedClass = classLoader.loadClass("com.test.ReloadConfigPropify");
+            Object first = generatedClass.getMethod("getInstance").invoke(null);
+            assertEquals("first", generatedClass.getMethod("getName").invoke(first));
+
+            BlockingQueue<PropertiesDiff> diffs = new LinkedBlockingQueue<>();
+            PropifyReloadListener listener = diffs::add;
+            generatedClass.getMethod("addReloadListener", PropifyReloadListener.class).invoke(null, listener);
+
+            try (PrintWriter writer = new PrintWriter(configFile)) {
+                writer.println("name=second");
+                writer.println("port=8080");
+            }
+
+            PropertiesDiff diff = diffs.poll(10, TimeUnit.SECONDS);
+            assertNotNull("Reload listener should be notified", diff);
+            assertEquals(Collections.singleton("name"), diff.getChangedKeys());
+            Object reloaded = generatedClass.getMethod("getInstance").invoke(null);
+            assertNotSame(first, reloaded);
+            assertEquals("second", generatedClass.getMethod("getName").invoke(reloaded));
+            assertEquals("first", generatedClass.getMethod("getName").invoke(first));
+            assertTrue((Boolean) generatedClass.getMethod("removeReloadListener", PropifyReloadListener.class).invoke(null, listener));
+        }
+    }
+
+    @Test
+    public void testReloadRequiresFileLocation() throws IOException {
+        File sourceDir = tempFolder.newFolder("reload-classpath-source");
+        File outputDir = tempFolder.newFolder("reload-classpath-output");
+        File resourcesDir = tempFolder.newFolder("reload-classpath-resources");
+        try (PrintWriter writer = new PrintWriter(new File(resourcesDir, "reload.properties"))) {
+            writer.println("name=value");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "ClasspathReloadConfig.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(location = \"classpath:reload.properties\", reload = true)");
+            writer.println("public interface ClasspathReloadConfig {");
+            writer.println("}");
+        }
+
+        assertFalse("Compilation should fail", compile(sourceDir, outputDir, resourcesDir));
+    }
+
+    @Test
+    public void testFieldBackedPropifyAnnotationProcessing() throws Exception {
+        File sourceDir = tempFolder.newFolder("field-source");
+        File outputDir = tempFolder.newFolder("field-output");
+
+        File resourcesDir = tempFolder.newFolder("field-resources");
+        File configFile = new File(resourcesDir, "field-config.yml");
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("server:");
+            writer.println("  host: localhost");
+            writer.println("  port: 8080");
+            writer.println("  secure: true");
+            writer.println("nodes:");
+            writer.println("  - name: a");
+            writer.println("  - name: b");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        File sourceFile = new File(packageDir, "FieldConfig.java");
+        try (PrintWriter writer = new PrintWriter(sourceFile)) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(");
+            writer.println("    location = \"file:" + configFile.getAbsolutePath() + "\",");
+            writer.println("    fieldBacked = true");
+            writer.println(")");
+            writer.println("public interface FieldConfig {");
+            writer.println("}");
+        }
+
+        boolean success = compile(sourceDir, outputDir, resourcesDir);
+        assertTrue("Compilation should succeed", success);
+
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> generatedClass = classLoader.loadClass("com.test.FieldConfigPropify");
+            Object config = generatedClass.getMethod("getInstance").invoke(null);
+            Object server = generatedClass.getMethod("getServer").invoke(config);
+            assertEquals(int.class, server.getClass().getMethod("getPort").getReturnType());
+            assertEquals(8080, server.getClass().getMethod("getPort").invoke(server));
+            assertEquals(true, server.getClass().getMethod("isSecure").invoke(server));
+            assertEquals("localhost", server.getClass().getMethod("getHost").invoke(server));
+            List<?> nodes = (List<?>) generatedClass.getMethod("getNodes").invoke(config);
+            assertEquals(2, nodes.size());
+            assertEquals("b", nodes.get(1).getClass().getMethod("getName").invoke(nodes.get(1)));
+        }
+    }
+
+    @Test
+    public void testFieldBackedConfigurationReportsMissingRuntimeValue() throws Exception {
+        File sourceDir = tempFolder.newFolder("field-missing-source");
+        File outputDir = tempFolder.newFolder("field-missing-output");
+        File resourcesDir = tempFolder.newFolder("field-missing-resources");
+        File configFile = new File(resourcesDir, "field-missing.yml");
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("server:");
+            writer.println("  host: localhost");
+            writer.println("  port: 8080");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "MissingConfig.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(location = \"file:" + configFile.getAbsolutePath() + "\", fieldBacked = true)");
+            writer.println("public interface MissingConfig {");
+            writer.println("}");
+        }
+        assertTrue("Compilation should succeed", compile(sourceDir, outputDir, resourcesDir));
+
+        // The file deployed at runtime no longer has the port
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("server:");
+            writer.println("  host: localhost");
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> generatedClass = classLoader.loadClass("com.test.MissingConfigPropify");
+            generatedClass.getMethod("getInstance").invoke(null);
+            fail("Expected the missing port to be reported");
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            while (cause != null && !(cause instanceof PropifyException)) {
+                cause = cause.getCause();
+            }
+            assertNotNull(e.getCause().toString(), cause);
+            assertEquals("Missing configuration value 'port'", cause.getMessage());
+        }
+    }
+
     @Test
     public void testI18nAnnotationProcessing() throws IOException {
         // Create source files
@@ -132,7 +502,219 @@ public class PropifyProcessorIntegrationTest {
         assertTrue("Generated I18n file should exist", generatedFile.exists());
     }
     
+    @Test
+    public void testParallelProcessingKeepsDiagnosticOrder() throws IOException {
+        File resourcesDir = tempFolder.newFolder("parallel-resources");
+        File sourceDir = tempFolder.newFolder("parallel-source");
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        for (int i = 0; i < 8; i++) {
+            try (PrintWriter writer = new PrintWriter(new File(resourcesDir, "parallel" + i + ".properties"))) {
+                writer.println("name=config" + i);
+            }
+            try (PrintWriter writer = new PrintWriter(new File(packageDir, "ParallelConfig" + i + ".java"))) {
+                writer.println("package com.test;");
+                writer.println();
+                writer.println("import com.vgerbot.propify.core.Propify;");
+                writer.println();
+                writer.println("@Propify(location = \"classpath:parallel" + i + ".properties\")");
+                writer.println("public interface ParallelConfig" + i + " {");
+                writer.println("}");
+            }
+        }
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "MissingConfig.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(location = \"classpath:missing.properties\")");
+            writer.println("public interface MissingConfig {");
+            writer.println("}");
+        }
+
+        // Separate caches, so the second compilation does not reuse the sources of the first
+        List<String> sequential = new ArrayList<>();
+        assertFalse(compile(sourceDir, tempFolder.newFolder("sequential-output"), resourcesDir, sequential,
+                "-A" + PropifyProcessor.PARALLELISM_OPTION + "=1",
+                "-A" + PropifyProcessor.CACHE_DIR_OPTION + "=" + tempFolder.newFolder("sequential-cache")));
+        File parallelOutput = tempFolder.newFolder("parallel-output");
+        List<String> parallel = new ArrayList<>();
+        assertFalse(compile(sourceDir, parallelOutput, resourcesDir, parallel,
+                "-A" + PropifyProcessor.PARALLELISM_OPTION + "=4",
+                "-A" + PropifyProcessor.CACHE_DIR_OPTION + "=" + tempFolder.newFolder("parallel-cache")));
+
+        assertEquals(sequential, parallel);
+        assertTrue(parallel.stream().anyMatch(message -> message.contains("Could not find resource")));
+        for (int i = 0; i < 8; i++) {
+            assertTrue(new File(parallelOutput, "com/test/ParallelConfig" + i + "Propify.java").exists());
+        }
+    }
+
+    @Test
+    public void testInvalidParallelismIsReportedAsWarning() throws IOException {
+        File resourcesDir = tempFolder.newFolder("parallelism-resources");
+        try (PrintWriter writer = new PrintWriter(new File(resourcesDir, "parallelism.properties"))) {
+            writer.println("name=config");
+        }
+        File sourceDir = tempFolder.newFolder("parallelism-source");
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "ParallelismConfig.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(location = \"classpath:parallelism.properties\")");
+            writer.println("public interface ParallelismConfig {");
+            writer.println("}");
+        }
+
+        List<String> messages = new ArrayList<>();
+        assertTrue(compile(sourceDir, tempFolder.newFolder("parallelism-output"), resourcesDir, messages,
+                "-A" + PropifyProcessor.PARALLELISM_OPTION + "=many"));
+        assertTrue(messages.stream().anyMatch(message -> message.startsWith("WARNING")
+                && message.contains("Invalid " + PropifyProcessor.PARALLELISM_OPTION + " option: many")));
+    }
+
+    @Test
+    public void testSchemaGenAnnotationsShareOneSpecification() throws IOException {
+        File sourceDir = tempFolder.newFolder("shared-schema-source");
+        File outputDir = tempFolder.newFolder("shared-schema-output");
+        File resourcesDir = tempFolder.newFolder("shared-schema-resources");
+        File specFile = new File(resourcesDir, "shared-openapi.json");
+        try (PrintWriter writer = new PrintWriter(specFile)) {
+            writer.println("{\"openapi\": \"3.0.0\", \"components\": {\"schemas\": {");
+            writer.println("  \"User\": {\"type\": \"object\", \"properties\": {\"name\": {\"type\": \"string\"}}},");
+            writer.println("  \"Order\": {\"type\": \"object\", \"properties\": {\"total\": {\"type\": \"number\"}}}");
+            writer.println("}}}");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        for (String schema : new String[]{"User", "Order"}) {
+            try (PrintWriter writer = new PrintWriter(new File(packageDir, schema + "Schema.java"))) {
+                writer.println("package com.test;");
+                writer.println();
+                writer.println("import com.vgerbot.propify.schema.SchemaGen;");
+                writer.println();
+                writer.println("@SchemaGen(location = \"file:" + specFile.getAbsolutePath() + "\",");
+                writer.println("    schemaRef = \"#/components/schemas/" + schema + "\")");
+                writer.println("public interface " + schema + "Schema {");
+                writer.println("}");
+            }
+        }
+
+        assertTrue("Compilation should succeed", compile(sourceDir, outputDir, resourcesDir));
+        assertTrue(new File(outputDir, "com/test/User.class").exists());
+        assertTrue(new File(outputDir, "com/test/Order.class").exists());
+    }
+
+    @Test
+    public void testUnchangedInputsReusePreviouslyGeneratedSource() throws IOException {
+        File sourceDir = tempFolder.newFolder("incremental-source");
+        File outputDir = tempFolder.newFolder("incremental-output");
+        File resourcesDir = tempFolder.newFolder("incremental-resources");
+        File cacheDir = new File(tempFolder.getRoot(), "incremental-cache");
+        File configFile = new File(resourcesDir, "incremental.yml");
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("name: first");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "IncrementalConfig.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.core.Propify;");
+            writer.println();
+            writer.println("@Propify(location = \"file:" + configFile.getAbsolutePath() + "\", embedded = true)");
+            writer.println("public interface IncrementalConfig {");
+            writer.println("}");
+        }
+        String cacheOption = "-A" + PropifyProcessor.CACHE_DIR_OPTION + "=" + cacheDir.getAbsolutePath();
+
+        List<String> first = new ArrayList<>();
+        assertTrue(compile(sourceDir, outputDir, resourcesDir, first, cacheOption));
+        assertTrue(first.stream().anyMatch(message -> message.contains("Generated IncrementalConfigPropify")));
+        assertTrue(new File(cacheDir, "fingerprints.properties").exists());
+
+        List<String> second = new ArrayList<>();
+        assertTrue(compile(sourceDir, outputDir, resourcesDir, second, cacheOption));
+        assertTrue(second.stream().anyMatch(message -> message.contains("Reused IncrementalConfigPropify")));
+
+        try (PrintWriter writer = new PrintWriter(configFile)) {
+            writer.println("name: second");
+        }
+        List<String> third = new ArrayList<>();
+        assertTrue(compile(sourceDir, outputDir, resourcesDir, third, cacheOption));
+        assertTrue(third.stream().anyMatch(message -> message.contains("Generated IncrementalConfigPropify")));
+        String generated = new String(Files.readAllBytes(
+                new File(outputDir, "com/test/IncrementalConfigPropify.java").toPath()), StandardCharsets.UTF_8);
+        assertTrue(generated.contains("second"));
+    }
+
+    @Test
+    public void testI18nBundleIsReusedFromCacheAfterClean() throws IOException {
+        File sourceDir = tempFolder.newFolder("i18n-cache-source");
+        File resourcesDir = tempFolder.newFolder("i18n-cache-resources");
+        File cacheDir = new File(tempFolder.getRoot(), "i18n-cache");
+        File messagesFile = new File(resourcesDir, "cached.properties");
+        try (PrintWriter writer = new PrintWriter(messagesFile)) {
+            writer.println("welcome=Welcome");
+        }
+
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "Cached.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.i18n.I18n;");
+            writer.println();
+            writer.println("@I18n(baseName = \"cached\", defaultLocale = \"en\", generatedClassName = \"$$Messages\")");
+            writer.println("public interface Cached {");
+            writer.println("}");
+        }
+        String cacheOption = "-A" + PropifyProcessor.CACHE_DIR_OPTION + "=" + cacheDir.getAbsolutePath();
+
+        List<String> first = new ArrayList<>();
+        assertTrue(compile(sourceDir, tempFolder.newFolder("i18n-cache-output-1"), resourcesDir, first, cacheOption));
+        assertTrue(first.stream().anyMatch(message -> message.contains("Generated MessageResource")));
+
+        // A clean output directory still reuses the stored source
+        File secondOutput = tempFolder.newFolder("i18n-cache-output-2");
+        List<String> second = new ArrayList<>();
+        assertTrue(compile(sourceDir, secondOutput, resourcesDir, second, cacheOption));
+        assertTrue(second.stream().anyMatch(message -> message.contains("Reused CachedMessages")));
+        assertTrue(new File(secondOutput, "com/test/CachedMessages.class").exists());
+
+        // The bundle is read again, although this JVM already loaded it
+        try (PrintWriter writer = new PrintWriter(messagesFile)) {
+            writer.println("welcome=Welcome");
+            writer.println("farewell=Goodbye");
+        }
+        File thirdOutput = tempFolder.newFolder("i18n-cache-output-3");
+        List<String> third = new ArrayList<>();
+        assertTrue(compile(sourceDir, thirdOutput, resourcesDir, third, cacheOption));
+        assertTrue(third.stream().anyMatch(message -> message.contains("Generated MessageResource")));
+        assertTrue(new String(Files.readAllBytes(new File(thirdOutput, "com/test/CachedMessages.java").toPath()),
+                StandardCharsets.UTF_8).contains("String farewell()"));
+
+        File fourthOutput = tempFolder.newFolder("i18n-cache-output-4");
+        List<String> fourth = new ArrayList<>();
+        assertTrue(compile(sourceDir, fourthOutput, resourcesDir, fourth, cacheOption));
+        assertTrue(fourth.stream().anyMatch(message -> message.contains("Reused CachedMessages")));
+        assertTrue(new String(Files.readAllBytes(new File(fourthOutput, "com/test/CachedMessages.java").toPath()),
+                StandardCharsets.UTF_8).contains("String farewell()"));
+    }
+
     private boolean compile(File sourceDir, File outputDir, File resourcesDir) {
+        return compile(sourceDir, outputDir, resourcesDir, new ArrayList<>());
+    }
+
+    /**
+     * Compiles the sources and collects the processor's diagnostics, in the order they were reported.
+     */
+    private boolean compile(File sourceDir, File outputDir, File resourcesDir, List<String> messages, String... extraOptions) {
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
         DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
         StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
@@ -151,6 +733,7 @@ public class PropifyProcessorIntegrationTest {
             options.add(classpath);
             options.add("-processor");
             options.add(PropifyProcessor.class.getName());
+            options.addAll(Arrays.asList(extraOptions));
             
             // Run the compilation task
             JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, 
@@ -161,6 +744,7 @@ public class PropifyProcessorIntegrationTest {
             // Print diagnostic messages for debugging
             for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
                 System.out.println(diagnostic);
+                messages.add(diagnostic.getKind() + ": " + diagnostic.getMessage(null));
             }
             
             return success;
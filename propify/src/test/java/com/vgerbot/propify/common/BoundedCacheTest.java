@@ -0,0 +1,52 @@
+package com.vgerbot.propify.common;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testFullCacheEvictsOldestEntries() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+        assertEquals(Integer.valueOf(2), cache.get("b"));
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+    }
+
+    @Test
+    public void testNewKeysAreCachedAfterLimitIsReached() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(16);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(16, cache.size());
+        assertEquals(Integer.valueOf(99), cache.get(99));
+    }
+
+    @Test
+    public void testExistingKeyIsReplaced() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+
+        cache.put("a", 1);
+        cache.put("a", 2);
+        cache.put("b", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(Integer.valueOf(2), cache.get("a"));
+        assertEquals(Integer.valueOf(3), cache.get("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsEmptyLimit() {
+        new BoundedCache<String, Integer>(0);
+    }
+}
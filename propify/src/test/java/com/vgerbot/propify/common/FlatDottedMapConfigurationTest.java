@@ -271,4 +271,44 @@ public class FlatDottedMapConfigurationTest {
         assertNull(configuration.getString("property]"));
         assertNull(configuration.getString("property[]"));
     }
-} 
\ No newline at end of file
+
+    /**
+     * Tests that repeated lookups of the same key see changes to the underlying data.
+     */
+    @Test
+    public void testRepeatedLookupsReflectCurrentData() {
+        List<Object> items = new ArrayList<>(Arrays.asList("first", "second"));
+        testData.put("items", items);
+
+        assertEquals("second", configuration.getString("items[1]"));
+        assertNull(configuration.getString("items[-1]"));
+        assertNull(configuration.getString("items[x]"));
+
+        items.set(1, "changed");
+        assertEquals("changed", configuration.getString("items[1]"));
+    }
+
+    /**
+     * Tests navigating into plain objects through their declared fields.
+     */
+    @Test
+    public void testObjectFieldProperties() {
+        testData.put("server", new Endpoint("localhost", 8080));
+
+        assertEquals("localhost", configuration.getString("server.host"));
+        assertEquals(8080, configuration.getInt("server.port"));
+        assertEquals(8080, configuration.getInt("server.port"));
+        assertNull(configuration.getString("server.missing"));
+        assertNull(configuration.getString("server.missing"));
+    }
+
+    private static class Endpoint {
+        private final String host;
+        private final int port;
+
+        Endpoint(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.vgerbot.propify.core;
+
+import com.vgerbot.propify.logger.Logger;
+import com.vgerbot.propify.parser.IniConfigParser;
+import com.vgerbot.propify.parser.PropertiesConfigParser;
+import com.vgerbot.propify.parser.YamlConfigParser;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class PropifyConfigParserProviderTest {
+
+    private final PropifyConfigParserProvider provider = PropifyConfigParserProvider.getInstance();
+
+    @Test
+    public void testParserSelectedByMediaType() {
+        assertTrue(provider.getParser(createContext("config.txt", "application/x-yaml")) instanceof YamlConfigParser);
+        assertTrue(provider.getParser(createContext("config.txt", "TEXT/X-JAVA-PROPERTIES")) instanceof PropertiesConfigParser);
+    }
+
+    @Test
+    public void testParserSelectedByFileExtension() {
+        assertTrue(provider.getParser(createContext("classpath:config.yml", "")) instanceof YamlConfigParser);
+        assertTrue(provider.getParser(createContext("file:/etc/app/app.properties", "")) instanceof PropertiesConfigParser);
+        assertTrue(provider.getParser(createContext("settings.ini", "")) instanceof IniConfigParser);
+    }
+
+    @Test
+    public void testParserMustAcceptContext() {
+        assertNull(provider.getParser(createContext("config.properties", "text/plain")));
+        assertNull(provider.getParser(createContext("config.json", "")));
+    }
+
+    @Test
+    public void testParsersAreReused() {
+        PropifyConfigParser first = provider.getParser(createContext("config.yml", ""));
+        PropifyConfigParser second = provider.getParser(createContext("other.yaml", ""));
+        assertSame(first, second);
+    }
+
+    private PropifyContext createContext(String location, String mediaType) {
+        return new PropifyContext(
+                location,
+                mediaType,
+                "$$Propify",
+                ',',
+                new String[0],
+                mock(ResourceLoaderProvider.class),
+                mock(Logger.class)
+        );
+    }
+}
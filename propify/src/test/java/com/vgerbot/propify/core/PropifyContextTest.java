@@ -2,6 +2,7 @@ package com.vgerbot.propify.core;
 
 import com.vgerbot.propify.logger.Logger;
 import com.vgerbot.propify.lookup.PropifyLookup;
+import com.vgerbot.propify.lookup.PropifyLookupRegistry;
 import org.apache.commons.configuration2.interpol.Lookup;
 import org.junit.Before;
 import org.junit.Test;
@@ -59,6 +60,34 @@ public class PropifyContextTest {
         assertEquals(logger, context.getLogger());
     }
 
+    @Test
+    public void testBuilderSetsOptions() {
+        PropifyContext built = PropifyContext.builder()
+                .location(TEST_LOCATION)
+                .mediaType(TEST_MEDIA_TYPE)
+                .generatedClassName(TEST_CLASS_NAME)
+                .listDelimiter(TEST_DELIMITER)
+                .lookups(TEST_LOOKUPS)
+                .fieldBacked(true)
+                .copyArrays(true)
+                .reload(true)
+                .reloadDebounceMillis(250)
+                .resourceLoaderProvider(resourceLoaderProvider)
+                .logger(logger)
+                .build();
+
+        assertEquals(TEST_LOCATION, built.getLocation());
+        assertEquals(TEST_CLASS_NAME, built.getGeneratedClassName());
+        assertArrayEquals(TEST_LOOKUPS, built.getLookups());
+        assertFalse(built.isEmbedded());
+        assertTrue(built.isFieldBacked());
+        assertTrue(built.isCopyArrays());
+        assertTrue(built.isReload());
+        assertEquals(250, built.getReloadDebounceMillis());
+        assertFalse(context.isFieldBacked());
+        assertFalse(context.isReload());
+    }
+
     @Test
     public void testConstructorWithNullClassName() {
         PropifyContext nullClassNameContext = new PropifyContext(
@@ -190,6 +219,47 @@ public class PropifyContextTest {
         assertEquals("test-value", lookup.lookup("value"));
     }
 
+    public static class ClosableLookup implements PropifyLookup, AutoCloseable {
+        private volatile boolean closed;
+
+        @Override
+        public String getPrefix() {
+            return "closable";
+        }
+
+        @Override
+        public String lookup(String key) {
+            if (closed) {
+                throw new IllegalStateException("Lookup is closed");
+            }
+            return "closable-" + key;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testGetAllLookupsAfterLookupIsClosed() {
+        PropifyContext closableContext = new PropifyContext(
+                TEST_LOCATION,
+                TEST_MEDIA_TYPE,
+                TEST_CLASS_NAME,
+                TEST_DELIMITER,
+                new String[] { ClosableLookup.class.getName() },
+                resourceLoaderProvider,
+                logger);
+        assertEquals("closable-value", closableContext.getAllLookups().get("closable").lookup("value"));
+
+        PropifyLookupRegistry.getInstance().close(ClosableLookup.class);
+
+        assertEquals("closable-value", closableContext.getAllLookups().get("closable").lookup("value"));
+        assertSame(PropifyLookupRegistry.getInstance().getLookup(ClosableLookup.class),
+                closableContext.getLookupInstances().get("closable"));
+    }
+
     @Test(expected = RuntimeException.class)
     public void testGetAllLookupsWithInvalidClass() {
         PropifyContext invalidContext = new PropifyContext(
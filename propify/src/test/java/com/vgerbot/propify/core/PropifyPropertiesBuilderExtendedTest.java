@@ -137,4 +137,110 @@ public class PropifyPropertiesBuilderExtendedTest {
 
         assertThat(level5.get("value"), is("deeplyNested"));
     }
+
+    @Test
+    public void testFindTypeHintStart() {
+        assertThat(PropifyPropertiesBuilder.findTypeHintStart("plain"), is(-1));
+        assertThat(PropifyPropertiesBuilder.findTypeHintStart("port(int)"), is(4));
+        assertThat(PropifyPropertiesBuilder.findTypeHintStart("map(Map<String,List<int>>)"), is(3));
+        assertThat(PropifyPropertiesBuilder.findTypeHintStart("a(b)(int)"), is(4));
+        assertThat(PropifyPropertiesBuilder.findTypeHintStart("a((x)"), is(1));
+        assertThat(PropifyPropertiesBuilder.findTypeHintStart("empty()"), is(-1));
+        assertThat(PropifyPropertiesBuilder.findTypeHintStart("()"), is(-1));
+        assertThat(PropifyPropertiesBuilder.findTypeHintStart("closed)"), is(-1));
+    }
+
+    @Test
+    public void testFindTypedMapKey() {
+        assertThat(PropifyPropertiesBuilder.findTypedMapKey("plain.key"), is(nullValue()));
+        assertThat(PropifyPropertiesBuilder.findTypedMapKey("port(int)"), is(nullValue()));
+        assertThat(PropifyPropertiesBuilder.findTypedMapKey("routes(Map<String,Duration>).a"), is("routes(Map<String,Duration>)"));
+        assertThat(PropifyPropertiesBuilder.findTypedMapKey("app.routes(Map<String,int>).a.b"), is("app.routes(Map<String,int>)"));
+        assertThat(PropifyPropertiesBuilder.findTypedMapKey("items(List<int>).a"), is(nullValue()));
+    }
+
+    @Test
+    public void testParsedTypeHintsAreCached() {
+        PropifyPropertiesBuilder.TypeInfo first = PropifyPropertiesBuilder.parseType("Map<String,List<Duration>>");
+        PropifyPropertiesBuilder.TypeInfo second = PropifyPropertiesBuilder.parseType("Map<String,List<Duration>>");
+
+        assertThat(second, sameInstance(first));
+        assertThat(first.getRawType(), equalTo((Object) Map.class));
+        assertThat(first.getTypeParameters().get(1).getTypeParameters().get(0).getRawType(),
+                equalTo((Object) java.time.Duration.class));
+    }
+
+    @Test
+    public void testUnknownTypeHintFallsBackToString() {
+        PropifyPropertiesBuilder.TypeInfo first = PropifyPropertiesBuilder.parseType("NoSuchType");
+        PropifyPropertiesBuilder.TypeInfo second = PropifyPropertiesBuilder.parseType("NoSuchType");
+
+        assertThat(first.getRawType(), equalTo((Object) String.class));
+        assertThat(second.getRawType(), equalTo((Object) String.class));
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("a(NoSuchType)", "x");
+        map.put("b(NoSuchType)", "y");
+        PropifyProperties props = builder.config(new MapConfiguration(map)).build();
+        assertThat(props.get("a"), is("x"));
+        assertThat(props.get("b"), is("y"));
+    }
+
+    @Test
+    public void testMapTypeHintConvertsKeysAndValues() {
+        Map<String, Object> timeouts = new LinkedHashMap<>();
+        timeouts.put("fast", "PT1S");
+        timeouts.put("slow", "PT1M");
+        Map<Object, Object> buckets = new LinkedHashMap<>();
+        buckets.put("1", Arrays.asList("10", "20"));
+        buckets.put(2, Collections.singletonList(30));
+        Map<String, Object> map = new HashMap<>();
+        map.put("timeouts(Map<String,Duration>)", timeouts);
+        map.put("buckets(Map<Integer,List<Long>>)", buckets);
+
+        PropifyProperties props = builder.config(new MapConfiguration(map)).build();
+
+        Map<Object, Object> expectedTimeouts = new LinkedHashMap<>();
+        expectedTimeouts.put("fast", java.time.Duration.ofSeconds(1));
+        expectedTimeouts.put("slow", java.time.Duration.ofMinutes(1));
+        assertThat(props.get("timeouts"), is((Object) expectedTimeouts));
+
+        Map<Object, Object> expectedBuckets = new LinkedHashMap<>();
+        expectedBuckets.put(1, Arrays.asList(10L, 20L));
+        expectedBuckets.put(2, Collections.singletonList(30L));
+        assertThat(props.get("buckets"), is((Object) expectedBuckets));
+    }
+
+    @Test
+    public void testTypedCollectionsInsideNestedSection() {
+        Map<String, Object> limits = new LinkedHashMap<>();
+        limits.put("a", "1");
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("ports(List<int>)", Arrays.asList("80", "443"));
+        section.put("limits(Map<String,Integer>)", limits);
+        Map<String, Object> map = new HashMap<>();
+        map.put("server", section);
+
+        PropifyProperties props = builder.config(new MapConfiguration(map)).build();
+
+        PropifyProperties server = (PropifyProperties) props.get("server");
+        assertThat(server.get("ports"), is((Object) Arrays.asList(80, 443)));
+        assertThat(server.get("limits"), is((Object) Collections.singletonMap("a", 1)));
+    }
+
+    @Test
+    public void testKeysWithParenthesesAndDots() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("label(text)(int)", "7");
+        map.put("empty()", "value");
+        map.put("outer . inner(long)", "5");
+        map.put("trailing.", "dot");
+
+        PropifyProperties props = builder.config(new MapConfiguration(map)).build();
+
+        assertThat(props.get("label(text)"), is(7));
+        assertThat(props.get("empty()"), is("value"));
+        assertThat(((PropifyProperties) props.get("outer")).get("inner"), is(5L));
+        assertThat(props.get("trailing."), is("dot"));
+    }
 }
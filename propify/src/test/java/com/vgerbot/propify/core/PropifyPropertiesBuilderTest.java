@@ -1,9 +1,12 @@
 package com.vgerbot.propify.core;
 
 import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.io.FileHandler;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.Duration;
@@ -13,6 +16,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.Period;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.*;
 
@@ -88,8 +92,26 @@ public class PropifyPropertiesBuilderTest {
         Object[] stringArray = (Object[]) props.get("stringArray");
         assertThat(stringArray, is(new String[]{"a", "b", "c"}));
 
-        Object[] intArray = (Object[]) props.get("intArray");
-        assertThat(intArray, is(new Integer[]{1, 2, 3}));
+        int[] intArray = (int[]) props.get("intArray");
+        assertThat(intArray, is(new int[]{1, 2, 3}));
+    }
+
+    @Test
+    public void testPrimitiveArrayTypes() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("buckets(long[])", Arrays.asList("10", "100", "1000"));
+        map.put("boundaries(double[])", Arrays.asList("0.5", "0.99"));
+        map.put("flags(boolean[])", Arrays.asList("true", "false"));
+        map.put("boxed(Integer[])", Arrays.asList("1", "2"));
+        map.put("empty(int[])", Collections.emptyList());
+
+        PropifyProperties props = builder.config(new MapConfiguration(map)).build();
+
+        assertThat((long[]) props.get("buckets"), is(new long[]{10L, 100L, 1000L}));
+        assertThat((double[]) props.get("boundaries"), is(new double[]{0.5, 0.99}));
+        assertThat((boolean[]) props.get("flags"), is(new boolean[]{true, false}));
+        assertThat((Integer[]) props.get("boxed"), is(new Integer[]{1, 2}));
+        assertThat((int[]) props.get("empty"), is(new int[0]));
     }
 
     @Test
@@ -263,6 +285,74 @@ public class PropifyPropertiesBuilderTest {
         assertThat(prop2.get("value"), is(20));
     }
     
+    @Test
+    public void testTypedMapInPropertiesFormat() throws Exception {
+        PropertiesConfiguration config = new PropertiesConfiguration();
+        new FileHandler(config).load(new StringReader(
+                "routes(Map<String,Duration>).primary=PT5S\n"
+                        + "routes(Map<String,Duration>).fallback=PT30S\n"
+                        + "app.limits(Map<String,int>).requests=100\n"
+                        + "app.name=demo\n"));
+
+        PropifyProperties props = builder.config(config).build();
+
+        Map<?, ?> routes = (Map<?, ?>) props.get("routes");
+        assertThat(routes.size(), is(2));
+        assertThat(routes.get("primary"), is(Duration.ofSeconds(5)));
+        assertThat(routes.get("fallback"), is(Duration.ofSeconds(30)));
+        PropifyProperties app = (PropifyProperties) props.get("app");
+        assertThat(app.get("name"), is("demo"));
+        assertThat(((Map<?, ?>) app.get("limits")).get("requests"), is(100));
+    }
+
+    @Test
+    public void testTypedMapsAreBuiltWithoutScanningPrefixes() throws Exception {
+        AtomicInteger prefixScans = new AtomicInteger();
+        PropertiesConfiguration config = new PropertiesConfiguration() {
+            @Override
+            protected Iterator<String> getKeysInternal(String prefix) {
+                prefixScans.incrementAndGet();
+                return super.getKeysInternal(prefix);
+            }
+        };
+        new FileHandler(config).load(new StringReader(
+                "routes(Map<String,Duration>).primary=PT5S\n"
+                        + "limits(Map<String,int>).requests=100\n"
+                        + "routes(Map<String,Duration>).fallback=PT30S\n"
+                        + "limits(Map<String,int>).burst=10\n"));
+
+        PropifyProperties props = builder.config(config).build();
+
+        assertThat(((Map<?, ?>) props.get("routes")).get("fallback"), is(Duration.ofSeconds(30)));
+        assertThat(((Map<?, ?>) props.get("limits")).size(), is(2));
+        assertThat(prefixScans.get(), is(0));
+    }
+
+    @Test
+    public void testTypeHintsAreCachedAfterManyDistinctHints() {
+        for (int i = 0; i < 1100; i++) {
+            PropifyPropertiesBuilder.parseType("List<Missing" + i + ">");
+        }
+
+        PropifyPropertiesBuilder.TypeInfo first = PropifyPropertiesBuilder.parseType("Map<String,Missing>");
+
+        assertThat(PropifyPropertiesBuilder.parseType("Map<String,Missing>"), sameInstance(first));
+    }
+
+    @Test
+    public void testNullElementInPrimitiveArrayNamesKey() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("buckets(long[])", Arrays.asList("10", null));
+
+        try {
+            builder.config(new MapConfiguration(map)).build();
+            throw new AssertionError("Expected PropifyTypeConversionException");
+        } catch (PropifyPropertiesBuilder.PropifyTypeConversionException e) {
+            assertThat(e.getMessage(), is("Failed to convert property 'buckets(long[])' to type 'long[]'"));
+            assertThat(e.getCause().getMessage(), is("Element 1 is null and cannot be stored in a long[]"));
+        }
+    }
+
     @Test(expected = PropifyPropertiesBuilder.PropifyTypeConversionException.class)
     public void testInvalidTemporalConversion() {
         Map<String, Object> map = new HashMap<>();
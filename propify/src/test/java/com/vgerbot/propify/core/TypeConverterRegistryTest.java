@@ -0,0 +1,136 @@
+package com.vgerbot.propify.core;
+
+import com.vgerbot.propify.converter.BigNumberTypeConverter;
+import com.vgerbot.propify.converter.PrimitiveTypeConverter;
+import com.vgerbot.propify.converter.TemporalTypeConverter;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class TypeConverterRegistryTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final TypeConverterRegistry registry = TypeConverterRegistry.getInstance();
+
+    @Test
+    public void testBuiltInConvertersAreRegistered() {
+        assertThat(registry.getConverter(Integer.class), instanceOf(PrimitiveTypeConverter.class));
+        assertThat(registry.getConverter(char.class), instanceOf(PrimitiveTypeConverter.class));
+        assertThat(registry.getConverter(BigDecimal.class), instanceOf(BigNumberTypeConverter.class));
+        assertThat(registry.getConverter(Duration.class), instanceOf(TemporalTypeConverter.class));
+        assertThat(registry.getConverter(Date.class), instanceOf(TemporalTypeConverter.class));
+    }
+
+    @Test
+    public void testUnsupportedTypeHasNoConverter() {
+        assertNull(registry.getConverter(Locale.class));
+        assertNull(registry.getConverter(Locale.class));
+    }
+
+    @Test
+    public void testApplicationConvertersTakePrecedenceOverBuiltIns() {
+        TypeConverter hexIntegers = new HexIntegerConverter();
+        TypeConverterRegistry custom = new TypeConverterRegistry(Arrays.asList(new PrimitiveTypeConverter(), hexIntegers));
+
+        assertThat(custom.getConverter(Integer.class), sameInstance(hexIntegers));
+        assertThat(custom.getConverter(Long.class), instanceOf(PrimitiveTypeConverter.class));
+    }
+
+    @Test
+    public void testConvertersAreDiscoveredThroughContextClassLoader() throws Exception {
+        Path services = temporaryFolder.newFolder("META-INF", "services").toPath();
+        Files.write(services.resolve(TypeConverter.class.getName()),
+                LocaleConverter.class.getName().getBytes(StandardCharsets.UTF_8));
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{temporaryFolder.getRoot().toURI().toURL()}, getClass().getClassLoader())) {
+            thread.setContextClassLoader(classLoader);
+
+            TypeConverterRegistry contextRegistry = TypeConverterRegistry.getInstance();
+
+            assertThat(contextRegistry, sameInstance(TypeConverterRegistry.getInstance(classLoader)));
+            assertThat(contextRegistry.getConverter(Locale.class), instanceOf(LocaleConverter.class));
+            assertThat(contextRegistry.getConverter(Integer.class), instanceOf(PrimitiveTypeConverter.class));
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+        assertNull(TypeConverterRegistry.getInstance().getConverter(Locale.class));
+    }
+
+    @Test
+    public void testConvertersConvertRawValues() {
+        assertThat(registry.getConverter(Integer.class).convert("0x10", Integer.class), is((Object) 16));
+        assertThat(registry.getConverter(Long.class).convert(42, Long.class), is((Object) 42L));
+        assertThat(registry.getConverter(Boolean.class).convert("yes", Boolean.class), is((Object) true));
+        assertThat(registry.getConverter(Character.class).convert("xyz", Character.class), is((Object) 'x'));
+        assertThat(registry.getConverter(BigDecimal.class).convert("1.50", BigDecimal.class), is((Object) new BigDecimal("1.50")));
+        assertThat(registry.getConverter(LocalDate.class).convert("2024-02-29", LocalDate.class), is((Object) LocalDate.of(2024, 2, 29)));
+    }
+
+    @Test
+    public void testInvalidValueFailsWithConversionException() {
+        try {
+            registry.getConverter(Integer.class).convert("abc", Integer.class);
+            fail("Expected PropifyTypeConversionException");
+        } catch (PropifyPropertiesBuilder.PropifyTypeConversionException e) {
+            assertThat(e.getMessage(), containsString("abc"));
+        }
+    }
+
+    @Test
+    public void testCollectionElementsAreConvertedDirectly() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("ports(List<Integer>)", Arrays.asList("80", "443"));
+        map.put("timeouts(Set<Duration>)", Arrays.asList("PT1S", "PT5M"));
+        map.put("prices(BigDecimal[])", Arrays.asList("1.5", "2.25"));
+
+        PropifyProperties props = new PropifyPropertiesBuilder().config(new MapConfiguration(map)).build();
+
+        assertThat(props.get("ports"), is((Object) Arrays.asList(80, 443)));
+        assertThat(props.get("timeouts"), is((Object) new HashSet<>(Arrays.asList(Duration.ofSeconds(1), Duration.ofMinutes(5)))));
+        assertThat((Object[]) props.get("prices"), is(new Object[]{new BigDecimal("1.5"), new BigDecimal("2.25")}));
+    }
+
+    public static class HexIntegerConverter implements TypeConverter {
+        @Override
+        public boolean supports(Class<?> targetType) {
+            return targetType == Integer.class;
+        }
+
+        @Override
+        public Object convert(Object value, Class<?> targetType) {
+            return Integer.parseInt(value.toString(), 16);
+        }
+    }
+
+    public static class LocaleConverter implements TypeConverter {
+        @Override
+        public boolean supports(Class<?> targetType) {
+            return targetType == Locale.class;
+        }
+
+        @Override
+        public Object convert(Object value, Class<?> targetType) {
+            return Locale.forLanguageTag(value.toString());
+        }
+    }
+}
@@ -235,4 +235,27 @@ public class I18nJavaPoetCodeGeneratorTest {
                 "        arguments = {\"count\",\"gender\",\"date\",\"amount\"}\n" +
                 "    )"));
     }
+
+    @Test
+    public void testGenerateCompiledLocaleMessages() {
+        ResourceBundle bundle = new ListResourceBundle() {
+            @Override
+            protected Object[][] getContents() {
+                return new Object[][] {
+                    {"welcome", "Welcome, {name}!"}
+                };
+            }
+        };
+
+        String generatedCode = I18nJavaPoetCodeGenerator.getInstance()
+            .generateCode("com.example", "Messages", "messages", "", bundle);
+
+        final String cleanedCode = generatedCode.replaceAll("\\s+", " ").trim();
+        assertTrue(cleanedCode.contains("private static final class CompiledLocaleMessages implements LocaleMessages"));
+        assertTrue(cleanedCode.contains("private final MessageTemplate welcome;"));
+        assertTrue(cleanedCode.contains("this.welcome = Messages.resourceBundle.getMessageTemplate(bundle, locale, \"welcome\", \"name\");"));
+        assertTrue(cleanedCode.contains("return this.welcome.format(name);"));
+        assertTrue(cleanedCode.contains("return resourceBundle.getMessageBundle(LocaleMessages.class, locale, CompiledLocaleMessages::new);"));
+        assertFalse(cleanedCode.contains("Proxy"));
+    }
 }
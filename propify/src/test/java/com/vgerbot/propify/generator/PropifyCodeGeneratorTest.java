@@ -6,10 +6,15 @@ import com.vgerbot.propify.loader.RuntimeResourceLoaderProvider;
 import com.vgerbot.propify.logger.RuntimeLogger;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -79,6 +84,48 @@ public class PropifyCodeGeneratorTest {
         assertTrue(code.contains("public final List<String> getNames()"));
     }
 
+    @Test
+    public void testGenerateCodeWithPrimitiveArrays() {
+        // Setup
+        PropifyContext context = createContext();
+        PropifyProperties properties = new PropifyProperties();
+        properties.put("buckets", new long[]{1L, 2L});
+
+        // Execute
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", context, properties);
+        String fieldBackedCode = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", createFieldBackedContext(), properties);
+
+        // Verify
+        assertTrue(code.contains("public final long[] getBuckets()"));
+        assertTrue(code.contains("return (long[])properties.get(\"buckets\");"));
+        assertFalse(code.contains("clone()"));
+        assertTrue(fieldBackedCode.contains("private final long[] buckets;"));
+        assertTrue(fieldBackedCode.contains("return buckets;"));
+        assertFalse(fieldBackedCode.contains("clone()"));
+        assertTrue(code.contains("shared by every caller"));
+        assertTrue(fieldBackedCode.contains("shared by every caller"));
+    }
+
+    @Test
+    public void testGenerateCodeCopyingArrays() {
+        // Setup
+        PropifyProperties properties = new PropifyProperties();
+        properties.put("buckets", new long[]{1L, 2L});
+
+        // Execute
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", createCopyArraysContext(false), properties);
+        String fieldBackedCode = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", createCopyArraysContext(true), properties);
+
+        // Verify
+        assertTrue(code.contains("return value == null ? null : value.clone();"));
+        assertTrue(fieldBackedCode.contains("return buckets == null ? null : buckets.clone();"));
+        assertFalse(code.contains("shared by every caller"));
+    }
+
     @Test
     public void testGenerateCodeWithListOfObjects() {
         // Setup
@@ -161,11 +208,52 @@ public class PropifyCodeGeneratorTest {
         // Verify
         assertNotNull(code);
         assertTrue(code.contains("public static final TestConfig getInstance()"));
+        assertTrue(code.contains("private static TestConfig loadInstance()"));
         assertTrue(code.contains("PropifyContext context = new PropifyContext("));
         assertTrue(code.contains("PropifyPropertiesBuilder propifyPropertiesBuilder = new PropifyPropertiesBuilder()"));
         assertTrue(code.contains("return new TestConfig(propifyPropertiesBuilder.build(context))"));
     }
 
+    @Test
+    public void testGeneratedInstanceIsMemoized() {
+        // Setup
+        PropifyContext context = createContext();
+        PropifyProperties properties = new PropifyProperties();
+
+        // Execute
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", context, properties);
+
+        // Verify
+        assertTrue(code.contains("private static final AtomicReference<TestConfig> INSTANCE_REF = new AtomicReference<TestConfig>()"));
+        assertTrue(code.contains("TestConfig instance = INSTANCE_REF.get()"));
+        assertTrue(code.contains("if (!INSTANCE_REF.compareAndSet(null, instance))"));
+        assertTrue(code.contains("public static final TestConfig refresh()"));
+        assertTrue(code.contains("INSTANCE_REF.set(instance)"));
+    }
+
+    @Test
+    public void testEmbeddedInstanceHasNoRefresh() {
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", createEmbeddedContext(), new PropifyProperties());
+
+        assertTrue(code.contains("public static final TestConfig getInstance()"));
+        assertFalse(code.contains("refresh()"));
+    }
+
+    @Test
+    public void testReloadableInstanceDelegatesToReloader() {
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", createReloadContext(), new PropifyProperties());
+
+        assertTrue(code.contains("private static final PropifyReloader RELOADER = createReloader()"));
+        assertTrue(code.contains("return new PropifyReloader(context, 500L, properties -> INSTANCE_REF.set(new TestConfig(properties)))"));
+        assertTrue(code.contains("return new TestConfig(RELOADER.load())"));
+        assertTrue(code.contains("RELOADER.reload()"));
+        assertTrue(code.contains("public static final void addReloadListener(PropifyReloadListener listener)"));
+        assertTrue(code.contains("public static final boolean removeReloadListener(PropifyReloadListener listener)"));
+    }
+
     @Test
     public void testGeneratedFileComment() {
         // Setup
@@ -197,6 +285,171 @@ public class PropifyCodeGeneratorTest {
         assertTrue(code.contains("private final PropifyProperties properties"));
     }
 
+    @Test
+    public void testGenerateEmbeddedCode() {
+        // Setup
+        PropifyContext context = createEmbeddedContext();
+        PropifyProperties properties = new PropifyProperties();
+        properties.put("name", "app");
+        properties.put("port", 8080);
+        properties.put("timeout", 30L);
+        properties.put("ratio", 0.5D);
+        properties.put("price", new BigDecimal("9.99"));
+        properties.put("ttl", Duration.ofMinutes(5));
+        properties.put("tags", Arrays.asList("a", "b"));
+        properties.put("limits", new int[]{1, 2, 3});
+        PropifyProperties nested = properties.createNested("database");
+        nested.put("url", "jdbc:h2:mem");
+
+        // Execute
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", context, properties);
+
+        // Verify
+        assertNotNull(code);
+        assertTrue(code.contains("return new TestConfig(createProperties())"));
+        assertFalse(code.contains("PropifyPropertiesBuilder"));
+        assertFalse(code.contains("RuntimeResourceLoaderProvider"));
+        assertTrue(code.contains("properties.put(\"name\", \"app\")"));
+        assertTrue(code.contains("properties.put(\"port\", 8080)"));
+        assertTrue(code.contains("properties.put(\"timeout\", 30L)"));
+        assertTrue(code.contains("properties.put(\"ratio\", 0.5D)"));
+        assertTrue(code.contains("properties.put(\"price\", new BigDecimal(\"9.99\"))"));
+        assertTrue(code.contains("properties.put(\"ttl\", Duration.parse(\"PT5M\"))"));
+        assertTrue(code.contains("properties.put(\"limits\", new int[]{1, 2, 3})"));
+        assertTrue(code.contains("list.add(\"a\")"));
+        assertTrue(code.contains("private static PropifyProperties createProperties1()"));
+        assertTrue(code.contains("properties.put(\"url\", \"jdbc:h2:mem\")"));
+    }
+
+    @Test
+    public void testGenerateEmbeddedCodeSplitsLargeProperties() {
+        // Setup
+        PropifyContext context = createEmbeddedContext();
+        PropifyProperties properties = new PropifyProperties();
+        for (int i = 0; i < 600; i++) {
+            properties.put("key" + i, i);
+        }
+
+        // Execute
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", context, properties);
+
+        // Verify
+        assertTrue(code.contains("createProperties1(properties);"));
+        assertTrue(code.contains("createProperties2(properties);"));
+        assertTrue(code.contains("createProperties3(properties);"));
+        assertFalse(code.contains("createProperties4("));
+    }
+
+    @Test
+    public void testGenerateEmbeddedCodeBuildsLargeCollectionsInHelperMethods() {
+        // Setup
+        PropifyContext context = createEmbeddedContext();
+        PropifyProperties properties = new PropifyProperties();
+        List<Object> routes = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            routes.add("/route/" + i);
+        }
+        properties.put("routes", routes);
+
+        // Execute
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", context, properties);
+
+        // Verify
+        assertTrue(code.contains("properties.put(\"routes\", createList1())"));
+        assertTrue(code.contains("private static List<Object> createList1()"));
+        assertTrue(code.contains("createProperties2(list);"));
+        assertTrue(code.contains("createProperties3(list);"));
+        assertTrue(code.contains("createProperties4(list);"));
+        assertTrue(code.contains("private static void createProperties2(List<Object> list)"));
+        assertFalse(code.contains("createProperties5("));
+    }
+
+    @Test
+    public void testGenerateFieldBackedCode() {
+        // Setup
+        PropifyContext context = createFieldBackedContext();
+        PropifyProperties properties = new PropifyProperties();
+        properties.put("host", "localhost");
+        properties.put("port", 8080);
+        properties.put("enabled", true);
+        properties.put("missing", null);
+        PropifyProperties nested = properties.createNested("database");
+        nested.put("poolSize", 10L);
+        PropifyProperties user = new PropifyProperties();
+        user.put("id", 1);
+        properties.put("users", Arrays.asList(user));
+
+        // Execute
+        String code = PropifyCodeGenerator.getInstance().generateCode(
+                "com.example", "TestConfig", context, properties);
+
+        // Verify
+        assertFalse(code.contains("private final PropifyProperties properties"));
+        assertTrue(code.contains("private final String host;"));
+        assertTrue(code.contains("private final int port;"));
+        assertTrue(code.contains("private final boolean enabled;"));
+        assertTrue(code.contains("private final Object missing;"));
+        assertTrue(code.contains("private final long poolSize;"));
+        assertTrue(code.contains("private final Database database;"));
+        assertTrue(code.contains("private final List<UsersItem> users;"));
+        assertTrue(code.contains("this.port = properties.getRequiredValue(\"port\", Integer.class);"));
+        assertTrue(code.contains("this.missing = properties.get(\"missing\");"));
+        assertTrue(code.contains("this.database = properties.get(\"database\") == null ? null : new Database(properties.getValue(\"database\", PropifyProperties.class));"));
+        assertTrue(code.contains("public final int getPort()"));
+        assertTrue(code.contains("public final boolean isEnabled()"));
+        assertTrue(code.contains("public final long getPoolSize()"));
+        assertTrue(code.contains("return port;"));
+    }
+
+    private PropifyContext createFieldBackedContext() {
+        return PropifyContext.builder()
+                .location("classpath:application.properties")
+                .mediaType("properties")
+                .generatedClassName("TestConfig")
+                .fieldBacked(true)
+                .resourceLoaderProvider(RuntimeResourceLoaderProvider.getInstance())
+                .logger(new RuntimeLogger())
+                .build();
+    }
+
+    private PropifyContext createCopyArraysContext(boolean fieldBacked) {
+        return PropifyContext.builder()
+                .location("classpath:application.properties")
+                .mediaType("properties")
+                .generatedClassName("TestConfig")
+                .fieldBacked(fieldBacked)
+                .copyArrays(true)
+                .resourceLoaderProvider(RuntimeResourceLoaderProvider.getInstance())
+                .logger(new RuntimeLogger())
+                .build();
+    }
+
+    private PropifyContext createReloadContext() {
+        return PropifyContext.builder()
+                .location("file:application.properties")
+                .mediaType("properties")
+                .generatedClassName("TestConfig")
+                .reload(true)
+                .reloadDebounceMillis(500)
+                .resourceLoaderProvider(RuntimeResourceLoaderProvider.getInstance())
+                .logger(new RuntimeLogger())
+                .build();
+    }
+
+    private PropifyContext createEmbeddedContext() {
+        return PropifyContext.builder()
+                .location("classpath:application.properties")
+                .mediaType("properties")
+                .generatedClassName("TestConfig")
+                .embedded(true)
+                .resourceLoaderProvider(RuntimeResourceLoaderProvider.getInstance())
+                .logger(new RuntimeLogger())
+                .build();
+    }
+
     private PropifyContext createContext() {
         return new PropifyContext(
                 "classpath:application.properties",
@@ -253,6 +253,42 @@ public class I18nProcessorIntegrationTest {
         assertTrue("Generated interface class should exist", generatedInterfaceClass.exists());
     }
 
+    /**
+     * Tests that the generated message resource formats messages at runtime.
+     */
+    @Test
+    public void testGeneratedMessagesFormatAtRuntime() throws Exception {
+        File sourceDir = tempFolder.newFolder("i18n-runtime-source");
+        File outputDir = tempFolder.newFolder("i18n-runtime-output");
+        File resourcesDir = tempFolder.newFolder("i18n-runtime-resources");
+
+        // Uses messages.properties of the test resources, which the runtime bundle lookup can see
+        File packageDir = new File(sourceDir, "com/test");
+        packageDir.mkdirs();
+        try (PrintWriter writer = new PrintWriter(new File(packageDir, "RuntimeMessages.java"))) {
+            writer.println("package com.test;");
+            writer.println();
+            writer.println("import com.vgerbot.propify.i18n.I18n;");
+            writer.println();
+            writer.println("@I18n(baseName = \"messages\", generatedClassName = \"RuntimeMessagesResource\")");
+            writer.println("public interface RuntimeMessages {");
+            writer.println("}");
+        }
+
+        assertTrue("Compilation should succeed", compile(sourceDir, outputDir, resourcesDir));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()}, getClass().getClassLoader())) {
+            Class<?> resource = loader.loadClass("com.test.RuntimeMessagesResource");
+            Class<?> localeMessages = loader.loadClass("com.test.RuntimeMessagesResource$LocaleMessages");
+            Object messages = resource.getMethod("get", Locale.class).invoke(null, Locale.FRENCH);
+
+            assertFalse(java.lang.reflect.Proxy.isProxyClass(messages.getClass()));
+            assertEquals("Bonjour !", localeMessages.getMethod("greeting").invoke(messages));
+            assertEquals("Au revoir, Ana ! A bientôt à Paris.", localeMessages
+                    .getMethod("farewell", String.class, String.class).invoke(messages, "Ana", "Paris"));
+        }
+    }
+
     /**
      * Helper method to compile source files with the PropifyProcessor.
      */
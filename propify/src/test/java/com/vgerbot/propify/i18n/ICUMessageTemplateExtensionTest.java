@@ -4,6 +4,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -148,4 +149,54 @@ public class ICUMessageTemplateExtensionTest {
         
         extension.format(template, params);
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testCompileFormatsArgumentsByPosition() {
+        MessageTemplate template = extension.compile("User {username} has {count} messages.", Locale.ENGLISH, "username", "count");
+
+        assertEquals("User alice has 42 messages.", template.format("alice", 42));
+    }
+
+    @Test
+    public void testCompileWithPluralParameter() {
+        MessageTemplate template = extension.compile(
+                "{name} has {count, plural, one{one message} other{# messages}}", Locale.ENGLISH, "name", "count");
+
+        assertEquals("Alice has one message", template.format("Alice", 1));
+        assertEquals("Alice has 5 messages", template.format("Alice", 5));
+    }
+
+    @Test
+    public void testCompileWithNumberedArguments() {
+        MessageTemplate template = extension.compile("{1} before {0}", Locale.ENGLISH, "0", "1");
+
+        assertEquals("second before first", template.format("first", "second"));
+    }
+
+    @Test
+    public void testCompileWithUnknownArgumentFallsBackToNamedFormatting() {
+        MessageTemplate template = extension.compile("Hello, {name} from {city}!", Locale.ENGLISH, "name");
+
+        assertEquals("Hello, Bob from {city}!", template.format("Bob"));
+    }
+
+    @Test
+    public void testFormatUsesRequestedLocale() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("amount", 1234.5);
+
+        assertEquals("1,234.5", extension.format("{amount, number}", params, Locale.ENGLISH));
+        assertEquals("1.234,5", extension.format("{amount, number}", params, Locale.GERMAN));
+    }
+
+    @Test
+    public void testCompileUsesRequestedLocale() {
+        MessageTemplate english = extension.compile("{count, plural, one{# file} other{# files}}", Locale.ENGLISH, "count");
+        MessageTemplate russian = extension.compile("{count, plural, one{# файл} few{# файла} many{# файлов} other{# файла}}",
+                new Locale("ru"), "count");
+
+        assertEquals("3 files", english.format(3));
+        assertEquals("3 файла", russian.format(3));
+        assertEquals("5 файлов", russian.format(5));
+    }
+}
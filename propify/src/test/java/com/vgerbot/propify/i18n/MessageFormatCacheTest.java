@@ -0,0 +1,85 @@
+package com.vgerbot.propify.i18n;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class MessageFormatCacheTest {
+
+    @Test
+    public void testCountsHitsAndMisses() {
+        MessageFormatCache cache = new MessageFormatCache(16);
+
+        assertEquals("Hello, Ana!", cache.format("Hello, {name}!", Locale.ENGLISH, Collections.singletonMap("name", "Ana")));
+        assertEquals("Hello, Bob!", cache.format("Hello, {name}!", Locale.ENGLISH, Collections.singletonMap("name", "Bob")));
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testPatternsAreCachedPerLocale() {
+        MessageFormatCache cache = new MessageFormatCache(16);
+        String pattern = "{0, number}";
+
+        assertEquals("1,234.5", cache.format(pattern, Locale.ENGLISH, new Object[]{1234.5}));
+        assertEquals("1.234,5", cache.format(pattern, Locale.GERMAN, new Object[]{1234.5}));
+
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPatternIsEvicted() throws InterruptedException {
+        MessageFormatCache cache = new MessageFormatCache(2);
+        cache.format("first", Locale.ROOT, new Object[0]);
+        Thread.sleep(1);
+        cache.format("second", Locale.ROOT, new Object[0]);
+        Thread.sleep(1);
+        cache.format("first", Locale.ROOT, new Object[0]);
+        Thread.sleep(1);
+        cache.format("third", Locale.ROOT, new Object[0]);
+
+        assertEquals(2, cache.size());
+        long misses = cache.getMissCount();
+        cache.format("first", Locale.ROOT, new Object[0]);
+        assertEquals(misses, cache.getMissCount());
+        cache.format("second", Locale.ROOT, new Object[0]);
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void testConcurrentFormattingOfOnePattern() throws Exception {
+        MessageFormatCache cache = new MessageFormatCache(16);
+        String pattern = "{0} has {1, plural, one{one item} other{# items}}";
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final int count = i;
+                results.add(executor.submit(() -> cache.format(pattern, Locale.ENGLISH, new Object[]{"user" + count, count})));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                String expected = "user" + i + " has " + (i == 1 ? "one item" : i + " items");
+                assertEquals(expected, results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveSize() {
+        new MessageFormatCache(0);
+    }
+}
@@ -77,7 +77,7 @@ public class PropifyI18nResourceBundleTest {
     @Test
     public void testParameterizedMessages() {
         // Setup the extension mock to return formatted values
-        when(extension.format(anyString(), any())).thenAnswer(invocation -> {
+        when(extension.format(anyString(), any(), any(Locale.class))).thenAnswer(invocation -> {
             String template = invocation.getArgument(0);
             Map<String, Object> params = invocation.getArgument(1);
 
@@ -129,6 +129,57 @@ public class PropifyI18nResourceBundleTest {
         assertNotSame(frMessages, deMessages);
     }
 
+    @Test
+    public void testGetMessageBundleWithFactory() {
+        PropifyI18nResourceBundle icuBundle = new PropifyI18nResourceBundle(BASE_NAME, new ICUMessageTemplateExtension());
+
+        CompiledMessages messages = icuBundle.getMessageBundle(CompiledMessages.class, Locale.FRENCH,
+                (bundle, locale) -> new CompiledMessages(icuBundle, bundle, locale));
+
+        assertEquals("Bonjour !", messages.greeting.format());
+        assertEquals("Bienvenue, Ana !", messages.welcome.format("Ana"));
+        assertSame(messages, icuBundle.getMessageBundle(CompiledMessages.class, Locale.FRENCH,
+                (bundle, locale) -> new CompiledMessages(icuBundle, bundle, locale)));
+    }
+
+    @Test
+    public void testProxyPassesRequestedLocaleToExtension() {
+        when(extension.format(anyString(), any(), any(Locale.class))).thenReturn("formatted");
+        Locale canadianFrench = Locale.CANADA_FRENCH;
+
+        TestMessages messages = resourceBundle.getMessageBundle(TestMessages.class, canadianFrench);
+
+        assertEquals("formatted", messages.getWelcome("Ana"));
+        verify(extension).format(eq("Bienvenue, {name} !"), any(), eq(canadianFrench));
+    }
+
+    @Test
+    public void testMessageTemplateIsCompiledForRequestedLocale() {
+        ResourceBundle bundle = ResourceBundle.getBundle(BASE_NAME, Locale.CANADA_FRENCH, new RuntimePropifyResourceBundleControl());
+        MessageTemplate compiled = mock(MessageTemplate.class);
+        when(extension.compile("Bienvenue, {name} !", Locale.CANADA_FRENCH, "name")).thenReturn(compiled);
+
+        assertSame(compiled, resourceBundle.getMessageTemplate(bundle, Locale.CANADA_FRENCH, "welcome", "name"));
+    }
+
+    @Test(expected = java.util.MissingResourceException.class)
+    public void testMessageTemplateOfMissingKeyThrowsWhenUsed() {
+        ResourceBundle bundle = ResourceBundle.getBundle(BASE_NAME, Locale.ENGLISH, new RuntimePropifyResourceBundleControl());
+        MessageTemplate template = resourceBundle.getMessageTemplate(bundle, Locale.ENGLISH, "missing");
+
+        template.format();
+    }
+
+    private static final class CompiledMessages {
+        private final MessageTemplate greeting;
+        private final MessageTemplate welcome;
+
+        CompiledMessages(PropifyI18nResourceBundle resourceBundle, ResourceBundle bundle, Locale locale) {
+            this.greeting = resourceBundle.getMessageTemplate(bundle, locale, "greeting");
+            this.welcome = resourceBundle.getMessageTemplate(bundle, locale, "welcome", "name");
+        }
+    }
+
     // Test interface with @Message annotations
     private interface TestMessages {
         @Message(key = "greeting")
@@ -9,6 +9,8 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 
@@ -104,6 +106,46 @@ public class FileResourceLoaderTest {
         loader.load(location);
     }
 
+    @Test
+    public void testLoadBufferReadsSmallFileIntoHeapBuffer() throws IOException {
+        ByteBuffer buffer = loader.loadBuffer(FILE_PREFIX + testFile.getAbsolutePath());
+
+        assertFalse(buffer instanceof MappedByteBuffer);
+        assertTrue(buffer.hasArray());
+        assertEquals(testContent, StandardCharsets.UTF_8.decode(buffer).toString());
+    }
+
+    @Test
+    public void testLoadBufferMapsFilesAboveThreshold() throws IOException {
+        System.setProperty(FileResourceLoader.MAPPING_THRESHOLD_PROPERTY, "8");
+        try {
+            FileResourceLoader mappingLoader = new FileResourceLoader();
+            ByteBuffer buffer = mappingLoader.loadBuffer(FILE_PREFIX + testFile.getAbsolutePath());
+
+            assertTrue(buffer instanceof MappedByteBuffer);
+            assertTrue(buffer.isReadOnly());
+            assertEquals(testContent, StandardCharsets.UTF_8.decode(buffer).toString());
+        } finally {
+            System.clearProperty(FileResourceLoader.MAPPING_THRESHOLD_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testLoadBufferOfMissingFileReportsPath() {
+        File nonExistentFile = new File(tempFolder.getRoot(), "missing.properties");
+        try {
+            loader.loadBuffer(FILE_PREFIX + nonExistentFile.getAbsolutePath());
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("File does not exist: " + nonExistentFile.getAbsolutePath(), e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadBufferOfDirectory() throws IOException {
+        loader.loadBuffer(FILE_PREFIX + tempFolder.getRoot().getAbsolutePath());
+    }
+
     /**
      * Helper method to read an input stream into a string
      */
@@ -1,7 +1,12 @@
 package com.vgerbot.propify.loader;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.vgerbot.propify.logger.Logger;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -10,8 +15,17 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -24,6 +38,9 @@ import static org.junit.Assert.*;
 @RunWith(MockitoJUnitRunner.class)
 public class HTTPResourceLoaderTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private HTTPResourceLoader loader;
     private InputStream mockInputStream;
     
@@ -77,4 +94,336 @@ public class HTTPResourceLoaderTest {
         // This should fail since the URL is invalid/unreachable in a test environment
         loader.load("http://invalid.url.that.should.not.exist/config.properties");
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testCachedResourceIsRevalidatedWithValidators() throws IOException {
+        StubServer server = StubServer.start("name=cached", "\"v1\"");
+        try {
+            HTTPResourceLoader cachingLoader = new HTTPResourceLoader(tempFolder.getRoot().toPath(), false);
+
+            assertEquals("name=cached", read(cachingLoader.load(server.url())));
+            assertEquals("name=cached", read(cachingLoader.load(server.url())));
+            assertEquals("name=cached", read(new HTTPResourceLoader(tempFolder.getRoot().toPath(), false).load(server.url())));
+
+            assertEquals(3, server.requests.get());
+            assertEquals(1, server.downloads.get());
+            assertEquals("\"v1\"", server.lastIfNoneMatch);
+            assertEquals(StubServer.LAST_MODIFIED, server.lastIfModifiedSince);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testChangedResourceReplacesCachedCopy() throws IOException {
+        StubServer server = StubServer.start("name=first", "\"v1\"");
+        try {
+            HTTPResourceLoader cachingLoader = new HTTPResourceLoader(tempFolder.getRoot().toPath(), false);
+            assertEquals("name=first", read(cachingLoader.load(server.url())));
+
+            server.update("name=second", "\"v2\"");
+
+            assertEquals("name=second", read(cachingLoader.load(server.url())));
+            assertEquals(2, server.downloads.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testCachedCopyIsUsedWhenServerIsDown() throws IOException {
+        StubServer server = StubServer.start("name=offline", "\"v1\"");
+        String url = server.url();
+        HTTPResourceLoader cachingLoader = new HTTPResourceLoader(tempFolder.getRoot().toPath(), false);
+        assertEquals("name=offline", read(cachingLoader.load(url)));
+        server.stop();
+
+        assertEquals("name=offline", read(cachingLoader.load(url)));
+    }
+
+    @Test
+    public void testCachedCopyIsUsedWhenServerFails() throws IOException {
+        StubServer server = StubServer.start("name=cached", "\"v1\"");
+        try {
+            List<String> warnings = new ArrayList<>();
+            HTTPResourceLoader cachingLoader = new HTTPResourceLoader(tempFolder.getRoot().toPath(), false, new RecordingLogger(warnings));
+            assertEquals("name=cached", read(cachingLoader.load(server.url())));
+
+            server.fail(HttpURLConnection.HTTP_UNAVAILABLE);
+
+            assertEquals("name=cached", read(cachingLoader.load(server.url())));
+            assertEquals(1, warnings.size());
+            assertTrue(warnings.get(0).startsWith("Using cached copy of " + server.url()));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testPrefetchWarningsAreReportedByTheLoadingLogger() throws IOException {
+        StubServer server = StubServer.start("name=cached", "\"v1\"");
+        try {
+            List<String> sharedWarnings = new ArrayList<>();
+            HTTPResourceLoader cachingLoader = new HTTPResourceLoader(tempFolder.getRoot().toPath(), false, new RecordingLogger(sharedWarnings));
+            assertEquals("name=cached", read(cachingLoader.load(server.url())));
+            server.fail(HttpURLConnection.HTTP_UNAVAILABLE);
+
+            cachingLoader.prefetch(Collections.singletonList(server.url()));
+            List<String> elementWarnings = new ArrayList<>();
+            assertEquals("name=cached", read(cachingLoader.withLogger(new RecordingLogger(elementWarnings)).load(server.url())));
+
+            assertTrue(sharedWarnings.isEmpty());
+            assertEquals(1, elementWarnings.size());
+            assertTrue(elementWarnings.get(0).startsWith("Using cached copy of " + server.url()));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testCachedCopyIsNotUsedWhenResourceIsMissing() throws IOException {
+        StubServer server = StubServer.start("name=removed", "\"v1\"");
+        try {
+            List<String> warnings = new ArrayList<>();
+            HTTPResourceLoader cachingLoader = new HTTPResourceLoader(tempFolder.getRoot().toPath(), false, new RecordingLogger(warnings));
+            assertEquals("name=removed", read(cachingLoader.load(server.url())));
+
+            server.fail(HttpURLConnection.HTTP_NOT_FOUND);
+
+            cachingLoader.load(server.url());
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("HTTP request failed with response code: 404", e.getCause().getMessage());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testStaleWhileRevalidateReturnsCachedCopyImmediately() throws Exception {
+        StubServer server = StubServer.start("name=first", "\"v1\"");
+        try {
+            HTTPResourceLoader cachingLoader = new HTTPResourceLoader(tempFolder.getRoot().toPath(), true);
+            assertEquals("name=first", read(cachingLoader.load(server.url())));
+
+            server.update("name=second", "\"v2\"");
+            assertEquals("name=first", read(cachingLoader.load(server.url())));
+
+            long deadline = System.currentTimeMillis() + 10000;
+            while (server.downloads.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            String refreshed = null;
+            while (!"name=second".equals(refreshed) && System.currentTimeMillis() < deadline) {
+                refreshed = read(cachingLoader.load(server.url()));
+                Thread.sleep(20);
+            }
+            assertEquals("name=second", refreshed);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testRelativeAndTemporaryRedirectsAreFollowed() throws IOException {
+        HttpServer server = startServer();
+        try {
+            redirect(server, "/first", 307, "/second");
+            redirect(server, "/second", HttpURLConnection.HTTP_MOVED_PERM, "config.properties");
+            respond(server, "/config.properties", "name=redirected", new AtomicInteger());
+
+            assertEquals("name=redirected", read(loader.load(baseUrl(server) + "/first")));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testRedirectsAreBounded() throws IOException {
+        HttpServer server = startServer();
+        try {
+            redirect(server, "/loop", HttpURLConnection.HTTP_MOVED_TEMP, "/loop");
+
+            loader.load(baseUrl(server) + "/loop");
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getCause().getMessage().startsWith("Too many redirects (5)"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testPrefetchedLocationsAreLoadedOnce() throws IOException {
+        HttpServer server = startServer();
+        try {
+            AtomicInteger firstRequests = new AtomicInteger();
+            AtomicInteger secondRequests = new AtomicInteger();
+            respond(server, "/first.properties", "name=first", firstRequests);
+            respond(server, "/second.properties", "name=second", secondRequests);
+            String first = baseUrl(server) + "/first.properties";
+            String second = baseUrl(server) + "/second.properties";
+
+            loader.prefetch(Arrays.asList(first, second, first, "classpath:ignored.properties"));
+
+            assertEquals("name=first", read(loader.load(first)));
+            assertEquals("name=first", read(loader.load(first)));
+            assertEquals("name=second", read(loader.load(second)));
+            assertEquals(1, firstRequests.get());
+            assertEquals(1, secondRequests.get());
+
+            loader.clearPrefetched();
+            assertEquals("name=first", read(loader.load(first)));
+            assertEquals(2, firstRequests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testPrefetchFailureIsRethrownWithoutAnotherRequest() throws IOException {
+        StubServer server = StubServer.start("name=missing", "\"v1\"");
+        try {
+            server.fail(HttpURLConnection.HTTP_NOT_FOUND);
+            loader.prefetch(Collections.singletonList(server.url()));
+
+            for (int i = 0; i < 2; i++) {
+                try {
+                    loader.load(server.url());
+                    fail("Expected IOException");
+                } catch (IOException e) {
+                    assertTrue(e.getMessage(), e.getMessage().contains(server.url()));
+                }
+            }
+            assertEquals(1, server.requests.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static HttpServer startServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+        return server;
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getAddress().getPort();
+    }
+
+    private static void redirect(HttpServer server, String path, int status, String target) {
+        server.createContext(path, exchange -> {
+            exchange.getResponseHeaders().set("Location", target);
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+    }
+
+    private static void respond(HttpServer server, String path, String body, AtomicInteger requests) {
+        server.createContext(path, exchange -> {
+            requests.incrementAndGet();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        try (Scanner scanner = new Scanner(stream, "UTF-8").useDelimiter("\\A")) {
+            return scanner.hasNext() ? scanner.next() : "";
+        }
+    }
+
+    /**
+     * A local HTTP server that answers conditional requests for a single resource.
+     */
+    private static final class StubServer {
+        static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+        private final HttpServer server;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger downloads = new AtomicInteger();
+        private volatile byte[] body;
+        private volatile String etag;
+        private volatile int status = HttpURLConnection.HTTP_OK;
+        private volatile String lastIfNoneMatch;
+        private volatile String lastIfModifiedSince;
+
+        private StubServer(HttpServer server) {
+            this.server = server;
+        }
+
+        static StubServer start(String body, String etag) throws IOException {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            StubServer stub = new StubServer(httpServer);
+            stub.update(body, etag);
+            httpServer.createContext("/config.properties", stub::handle);
+            httpServer.start();
+            return stub;
+        }
+
+        void update(String body, String etag) {
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+            this.etag = etag;
+        }
+
+        void fail(int status) {
+            this.status = status;
+        }
+
+        String url() {
+            return "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                    + server.getAddress().getPort() + "/config.properties";
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            lastIfModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+            if (status != HttpURLConnection.HTTP_OK) {
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+            if (etag.equals(lastIfNoneMatch)) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+            } else {
+                downloads.incrementAndGet();
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        }
+    }
+
+    private static final class RecordingLogger implements Logger {
+        private final List<String> warnings;
+
+        RecordingLogger(List<String> warnings) {
+            this.warnings = warnings;
+        }
+
+        @Override
+        public void info(String message) {
+        }
+
+        @Override
+        public void warn(String message) {
+            warnings.add(message);
+        }
+
+        @Override
+        public void error(String message) {
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.vgerbot.propify.lookup;
+
+import com.vgerbot.propify.core.PropifyContext;
+import com.vgerbot.propify.core.PropifyProperties;
+import com.vgerbot.propify.core.PropifyPropertiesBuilder;
+import com.vgerbot.propify.core.ResourceLoader;
+import com.vgerbot.propify.core.ResourceLoaderProvider;
+import com.vgerbot.propify.logger.Logger;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.commons.configuration2.interpol.Lookup;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class BatchLookupPrefetcherTest {
+
+    @Before
+    public void setUp() {
+        InMemorySecrets.reset();
+    }
+
+    @After
+    public void tearDown() {
+        PropifyLookupRegistry.getInstance().closeAll();
+    }
+
+    @Test
+    public void testPlaceholdersAreResolvedInOneBatch() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("user", "${secrets:db.user}");
+        map.put("password", "${secrets:db.password}");
+        map.put("url", "jdbc://${secrets:db.host}:${secrets:db.port}/app");
+        map.put("hosts", Arrays.asList("${secrets:db.host}", "plain"));
+        map.put("nested", Collections.singletonMap("token", "${secrets:api.token}"));
+        map.put("other", "${env:HOME}");
+        MapConfiguration configuration = new MapConfiguration(map);
+
+        InMemorySecrets secrets = new InMemorySecrets();
+        Map<String, Lookup> lookups = BatchLookupPrefetcher.prefetch(
+                configuration,
+                Collections.singletonMap("secrets", secrets),
+                Collections.singletonMap("secrets", new PropifyLookupAdaptor(secrets)),
+                null
+        );
+        configuration.installInterpolator(lookups, Collections.emptyList());
+
+        assertEquals("admin", configuration.getString("user"));
+        assertEquals("s3cret", configuration.getString("password"));
+        assertEquals("jdbc://db.local:5432/app", configuration.getString("url"));
+        assertEquals(1, InMemorySecrets.BATCHES.get());
+        assertEquals(0, InMemorySecrets.SINGLE_LOOKUPS.get());
+        assertEquals(new HashSet<>(Arrays.asList("db.user", "db.password", "db.host", "db.port", "api.token")),
+                InMemorySecrets.LAST_BATCH);
+    }
+
+    @Test
+    public void testVariablesMissingFromBatchFallBackToSingleLookup() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("value", "${secrets:unknown}");
+        MapConfiguration configuration = new MapConfiguration(map);
+
+        InMemorySecrets secrets = new InMemorySecrets();
+        Map<String, Lookup> lookups = BatchLookupPrefetcher.prefetch(
+                configuration,
+                Collections.singletonMap("secrets", secrets),
+                Collections.singletonMap("secrets", new PropifyLookupAdaptor(secrets)),
+                null
+        );
+        configuration.installInterpolator(lookups, Collections.emptyList());
+
+        assertEquals("single-unknown", configuration.getString("value"));
+        assertEquals(1, InMemorySecrets.BATCHES.get());
+        assertTrue(InMemorySecrets.SINGLE_LOOKUPS.get() > 0);
+    }
+
+    @Test
+    public void testCachedVariablesAreNotBatchedAgain() {
+        CachedSecrets secrets = new CachedSecrets();
+        CachingLookupAdaptor adaptor = new CachingLookupAdaptor(secrets);
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("user", "${secrets:db.user}");
+        first.put("password", "${secrets:db.password}");
+        prefetchAndInterpolate(new MapConfiguration(first), secrets, adaptor);
+
+        assertEquals(1, InMemorySecrets.BATCHES.get());
+        assertEquals(2, adaptor.getMissCount());
+
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("user", "${secrets:db.user}");
+        second.put("host", "${secrets:db.host}");
+        MapConfiguration configuration = new MapConfiguration(second);
+        prefetchAndInterpolate(configuration, secrets, adaptor);
+
+        assertEquals("admin", configuration.getString("user"));
+        assertEquals("db.local", configuration.getString("host"));
+        assertEquals(2, InMemorySecrets.BATCHES.get());
+        assertEquals(Collections.singleton("db.host"), InMemorySecrets.LAST_BATCH);
+        assertEquals(0, InMemorySecrets.SINGLE_LOOKUPS.get());
+
+        prefetchAndInterpolate(new MapConfiguration(second), secrets, adaptor);
+
+        assertEquals(2, InMemorySecrets.BATCHES.get());
+        assertEquals(3, adaptor.getMissCount());
+    }
+
+    private static void prefetchAndInterpolate(MapConfiguration configuration, PropifyLookup lookup, Lookup adaptor) {
+        Map<String, Lookup> lookups = BatchLookupPrefetcher.prefetch(
+                configuration,
+                Collections.singletonMap("secrets", lookup),
+                Collections.singletonMap("secrets", adaptor),
+                null
+        );
+        configuration.installInterpolator(lookups, Collections.emptyList());
+        for (Iterator<String> keys = configuration.getKeys(); keys.hasNext(); ) {
+            configuration.getString(keys.next());
+        }
+    }
+
+    @Test
+    public void testLookupsWithoutBatchSupportAreUnchanged() {
+        MapConfiguration configuration = new MapConfiguration(Collections.singletonMap("a", "${plain:x}"));
+        Map<String, Lookup> lookups = Collections.singletonMap("plain", variable -> variable);
+
+        Map<String, Lookup> result = BatchLookupPrefetcher.prefetch(
+                configuration,
+                Collections.singletonMap("plain", new PropifyLookupRegistryTest.PlainLookup()),
+                lookups,
+                null
+        );
+
+        assertSame(lookups, result);
+    }
+
+    @Test
+    public void testNestedPlaceholdersCollectInnerVariable() {
+        Map<String, Set<String>> variables = new HashMap<>();
+        BatchLookupPrefetcher.collectPlaceholders(
+                "${other:${secrets:inner}} ${secrets:outer} ${secrets:open",
+                Collections.singleton("secrets"),
+                variables
+        );
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("inner", "outer")), variables.get("secrets"));
+    }
+
+    @Test
+    public void testBuilderPrefetchesBatchLookups() {
+        ResourceLoaderProvider loaderProvider = location -> new ResourceLoader() {
+            @Override
+            public boolean accept(String location) {
+                return true;
+            }
+
+            @Override
+            public InputStream load(String location) throws IOException {
+                String content = "user=${secrets:db.user}\npassword=${secrets:db.password}\n";
+                return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        PropifyContext context = new PropifyContext(
+                "app.properties",
+                "",
+                "$$Propify",
+                ',',
+                new String[]{InMemorySecrets.class.getName()},
+                loaderProvider,
+                mock(Logger.class)
+        );
+
+        PropifyProperties properties = new PropifyPropertiesBuilder().build(context);
+
+        assertEquals("admin", properties.get("user"));
+        assertEquals("s3cret", properties.get("password"));
+        assertEquals(1, InMemorySecrets.BATCHES.get());
+        assertEquals(0, InMemorySecrets.SINGLE_LOOKUPS.get());
+    }
+
+    public static class InMemorySecrets implements BatchPropifyLookup {
+        static final AtomicInteger BATCHES = new AtomicInteger();
+        static final AtomicInteger SINGLE_LOOKUPS = new AtomicInteger();
+        static volatile Set<String> LAST_BATCH;
+
+        private static final Map<String, Object> STORE = new ConcurrentHashMap<>();
+
+        static {
+            STORE.put("db.user", "admin");
+            STORE.put("db.password", "s3cret");
+            STORE.put("db.host", "db.local");
+            STORE.put("db.port", "5432");
+            STORE.put("api.token", "t0ken");
+        }
+
+        static void reset() {
+            BATCHES.set(0);
+            SINGLE_LOOKUPS.set(0);
+            LAST_BATCH = null;
+        }
+
+        @Override
+        public String getPrefix() {
+            return "secrets";
+        }
+
+        @Override
+        public Object lookup(String variable) {
+            SINGLE_LOOKUPS.incrementAndGet();
+            return "single-" + variable;
+        }
+
+        @Override
+        public Map<String, Object> lookupAll(Set<String> variables) {
+            BATCHES.incrementAndGet();
+            LAST_BATCH = new HashSet<>(variables);
+            Map<String, Object> values = new HashMap<>();
+            for (String variable : variables) {
+                if (STORE.containsKey(variable)) {
+                    values.put(variable, STORE.get(variable));
+                }
+            }
+            return values;
+        }
+    }
+
+    public static class CachedSecrets extends InMemorySecrets {
+        @Override
+        public long getCacheTtlMillis() {
+            return -1;
+        }
+    }
+}
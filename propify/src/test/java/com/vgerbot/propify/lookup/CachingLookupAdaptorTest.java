@@ -0,0 +1,190 @@
+package com.vgerbot.propify.lookup;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class CachingLookupAdaptorTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testValuesAreCachedUntilTtlExpires() {
+        StubLookup backend = new StubLookup(1000);
+        CachingLookupAdaptor adaptor = new CachingLookupAdaptor(backend, clock::get);
+
+        assertEquals("value-a", adaptor.lookup("a"));
+        assertEquals("value-a", adaptor.lookup("a"));
+        assertEquals(1, backend.calls.get());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertEquals("value-a", adaptor.lookup("a"));
+        assertEquals(1, backend.calls.get());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals("value-a", adaptor.lookup("a"));
+        assertEquals(2, backend.calls.get());
+
+        assertEquals(2, adaptor.getHitCount());
+        assertEquals(2, adaptor.getMissCount());
+    }
+
+    @Test
+    public void testMissingValuesAreCached() {
+        StubLookup backend = new StubLookup(1000);
+        CachingLookupAdaptor adaptor = new CachingLookupAdaptor(backend, clock::get);
+
+        assertNull(adaptor.lookup("missing"));
+        assertNull(adaptor.lookup("missing"));
+        assertEquals(1, backend.calls.get());
+    }
+
+    @Test
+    public void testNegativeTtlNeverExpires() {
+        StubLookup backend = new StubLookup(-1);
+        CachingLookupAdaptor adaptor = new CachingLookupAdaptor(backend, clock::get);
+
+        adaptor.lookup("a");
+        clock.set(Long.MAX_VALUE);
+        adaptor.lookup("a");
+        assertEquals(1, backend.calls.get());
+
+        adaptor.clear();
+        adaptor.lookup("a");
+        assertEquals(2, backend.calls.get());
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        StubLookup backend = new StubLookup(1000);
+        CachingLookupAdaptor adaptor = new CachingLookupAdaptor(backend, clock::get);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                adaptor.lookup("fail");
+                fail("Expected IllegalStateException");
+            } catch (IllegalStateException e) {
+                assertEquals("backend unavailable", e.getMessage());
+            }
+        }
+        assertEquals(2, backend.calls.get());
+    }
+
+    @Test
+    public void testConcurrentMissesCallBackendOnce() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        PropifyLookup slow = new PropifyLookup() {
+            @Override
+            public String getPrefix() {
+                return "slow";
+            }
+
+            @Override
+            public Object lookup(String variable) {
+                calls.incrementAndGet();
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value-" + variable;
+            }
+
+            @Override
+            public long getCacheTtlMillis() {
+                return -1;
+            }
+        };
+        CachingLookupAdaptor adaptor = new CachingLookupAdaptor(slow, clock::get);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> first = executor.submit(() -> adaptor.lookup("key"));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Future<Object> second = executor.submit(() -> adaptor.lookup("key"));
+            Future<Object> third = executor.submit(() -> adaptor.lookup("key"));
+            release.countDown();
+
+            assertEquals("value-key", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value-key", second.get(5, TimeUnit.SECONDS));
+            assertEquals("value-key", third.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, adaptor.getMissCount());
+        assertEquals(2, adaptor.getHitCount());
+    }
+
+    @Test
+    public void testRegistrySharesCachingAdaptorForTtlLookups() {
+        PropifyLookupRegistry registry = PropifyLookupRegistry.getInstance();
+        try {
+            Object first = registry.getLookupAdaptor(CachedLookup.class.getName(), getClass().getClassLoader());
+            Object second = registry.getLookupAdaptor(CachedLookup.class.getName(), getClass().getClassLoader());
+            Object plain = registry.getLookupAdaptor(PropifyLookupRegistryTest.PlainLookup.class.getName(), getClass().getClassLoader());
+
+            assertTrue(first instanceof CachingLookupAdaptor);
+            assertSame(first, second);
+            assertTrue(plain instanceof PropifyLookupAdaptor);
+        } finally {
+            registry.closeAll();
+        }
+    }
+
+    public static class CachedLookup implements PropifyLookup {
+        @Override
+        public String getPrefix() {
+            return "cached";
+        }
+
+        @Override
+        public Object lookup(String variable) {
+            return variable;
+        }
+
+        @Override
+        public long getCacheTtlMillis() {
+            return 60_000;
+        }
+    }
+
+    private static class StubLookup implements PropifyLookup {
+        private final long ttlMillis;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubLookup(long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+        }
+
+        @Override
+        public String getPrefix() {
+            return "stub";
+        }
+
+        @Override
+        public Object lookup(String variable) {
+            calls.incrementAndGet();
+            if ("fail".equals(variable)) {
+                throw new IllegalStateException("backend unavailable");
+            }
+            return "missing".equals(variable) ? null : "value-" + variable;
+        }
+
+        @Override
+        public long getCacheTtlMillis() {
+            return ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.vgerbot.propify.lookup;
+
+import com.vgerbot.propify.common.PropifyException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PropifyLookupRegistryTest {
+
+    private final PropifyLookupRegistry registry = PropifyLookupRegistry.getInstance();
+
+    @After
+    public void tearDown() {
+        registry.closeAll();
+        CountingLookup.INSTANCES.set(0);
+        CountingLookup.CLOSED.set(0);
+    }
+
+    @Test
+    public void testLookupIsInstantiatedOnce() {
+        PropifyLookup first = registry.getLookup(CountingLookup.class);
+        PropifyLookup second = registry.getLookup(CountingLookup.class.getName(), getClass().getClassLoader());
+
+        assertSame(first, second);
+        assertEquals(1, CountingLookup.INSTANCES.get());
+        assertEquals("counting-key", first.lookup("key"));
+    }
+
+    @Test
+    public void testCloseReleasesAndRecreatesLookup() {
+        PropifyLookup first = registry.getLookup(CountingLookup.class);
+
+        registry.close(CountingLookup.class);
+        assertEquals(1, CountingLookup.CLOSED.get());
+
+        PropifyLookup second = registry.getLookup(CountingLookup.class);
+        assertNotSame(first, second);
+        assertEquals(2, CountingLookup.INSTANCES.get());
+    }
+
+    @Test
+    public void testCloseAllClosesCreatedLookups() {
+        registry.getLookup(CountingLookup.class);
+        registry.getLookup(PlainLookup.class);
+
+        registry.closeAll();
+        registry.closeAll();
+
+        assertEquals(1, CountingLookup.CLOSED.get());
+    }
+
+    @Test
+    public void testCloseWithoutInstanceDoesNothing() {
+        registry.close(CountingLookup.class);
+
+        assertEquals(0, CountingLookup.INSTANCES.get());
+        assertEquals(0, CountingLookup.CLOSED.get());
+    }
+
+    @Test(expected = PropifyException.class)
+    public void testNonLookupClassIsRejected() {
+        registry.getLookup(String.class.getName(), getClass().getClassLoader());
+    }
+
+    @Test(expected = PropifyException.class)
+    public void testUnknownLookupClassIsRejected() {
+        registry.getLookup("com.invalid.Lookup", getClass().getClassLoader());
+    }
+
+    @Test
+    public void testConcurrentFirstUseCreatesOneInstance() throws Exception {
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<PropifyLookup>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return registry.getLookup(SlowLookup.class);
+                }));
+            }
+            start.countDown();
+            PropifyLookup first = results.get(0).get();
+            for (Future<PropifyLookup> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(1, SlowLookup.INSTANCES.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static class CountingLookup implements PropifyLookup, AutoCloseable {
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+        static final AtomicInteger CLOSED = new AtomicInteger();
+
+        private CountingLookup() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public String getPrefix() {
+            return "counting";
+        }
+
+        @Override
+        public Object lookup(String variable) {
+            return "counting-" + variable;
+        }
+
+        @Override
+        public void close() {
+            CLOSED.incrementAndGet();
+        }
+    }
+
+    public static class PlainLookup implements PropifyLookup {
+        @Override
+        public String getPrefix() {
+            return "plain";
+        }
+
+        @Override
+        public Object lookup(String variable) {
+            return variable;
+        }
+    }
+
+    public static class SlowLookup implements PropifyLookup {
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        private SlowLookup() throws InterruptedException {
+            INSTANCES.incrementAndGet();
+            Thread.sleep(50);
+        }
+
+        @Override
+        public String getPrefix() {
+            return "slow";
+        }
+
+        @Override
+        public Object lookup(String variable) {
+            return variable;
+        }
+    }
+}
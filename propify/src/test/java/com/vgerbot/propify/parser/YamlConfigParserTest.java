@@ -12,6 +12,7 @@ import org.mockito.MockitoAnnotations;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
@@ -115,6 +116,31 @@ public class YamlConfigParserTest {
         assertThat(configuration.getList("features"), hasItems("logging", "security", "monitoring"));
     }
 
+    @Test
+    public void testParseHeapBuffer() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(("# header\n" + YAML_CONTENT).getBytes(StandardCharsets.UTF_8));
+        buffer.position("# header\n".length());
+
+        Configuration configuration = parser.parseBuffer(context, buffer.slice());
+
+        assertThat(configuration.getString("app.name"), is("Test Application"));
+        assertThat(configuration.getString("database.credentials.username"), is("admin"));
+        assertThat(configuration.getList("features").size(), is(3));
+    }
+
+    @Test
+    public void testParseDirectBuffer() throws Exception {
+        byte[] bytes = YAML_CONTENT.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+
+        Configuration configuration = parser.parseBuffer(context, buffer);
+
+        assertThat(configuration.getString("app.version"), is("1.0.0"));
+        assertThat(configuration.getInt("maxConnections"), is(100));
+        assertThat(buffer.position(), is(0));
+    }
+
 //
 //    @Test
 //    public void testParseSubset() throws Exception {
@@ -390,6 +416,37 @@ public class YamlConfigParserTest {
         assertThat(parser.accept(context), is(false));
     }
 
+    @Test
+    public void testParsePreservesScalarTypesAndOrder() throws IOException {
+        String yaml = "b: 1\n" +
+                "a: 12345678901\n" +
+                "c: 2.5\n" +
+                "d: false\n" +
+                "e: ~\n" +
+                "f:\n" +
+                "  - x\n" +
+                "  - y: 1\n";
+        InputStream input = new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8));
+        Configuration config = parser.parse(context, input);
+
+        assertThat(config.getProperty("b"), is((Object) 1));
+        assertThat(config.getProperty("a"), is((Object) 12345678901L));
+        assertThat(config.getProperty("c"), is((Object) 2.5));
+        assertThat(config.getProperty("d"), is((Object) false));
+        assertThat(config.getProperty("e"), is(nullValue()));
+        assertThat(config.getProperty("f[0]"), is((Object) "x"));
+        assertThat(config.getProperty("f[1].y"), is((Object) 1));
+        java.util.Iterator<String> keys = config.getKeys();
+        assertThat(keys.next(), is("b"));
+        assertThat(keys.next(), is("a"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseNonMappingRootYaml() throws IOException {
+        InputStream input = new ByteArrayInputStream("- a\n- b\n".getBytes(StandardCharsets.UTF_8));
+        parser.parse(context, input);
+    }
+
     @Test(expected = IOException.class)
     public void testParseInvalidYaml() throws IOException {
         String invalidYaml = "invalid:\n  - broken\n    yaml: content";
@@ -0,0 +1,158 @@
+package com.vgerbot.propify.reload;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FileWatcherTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private FileWatcher watcher;
+
+    @After
+    public void tearDown() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void testBurstOfWritesTriggersOneCallback() throws Exception {
+        assertBurstIsCoalesced(new FileWatcher(false));
+    }
+
+    @Test
+    public void testPollingBurstOfWritesTriggersOneCallback() throws Exception {
+        assertBurstIsCoalesced(new FileWatcher(true));
+    }
+
+    @Test
+    public void testClosedRegistrationIsNotNotified() throws Exception {
+        watcher = new FileWatcher(true);
+        Path file = tempFolder.newFile("closed.properties").toPath();
+        AtomicInteger calls = new AtomicInteger();
+
+        Closeable watch = watcher.watch(file, 0, calls::incrementAndGet);
+        watch.close();
+        write(file, "key=changed-content");
+
+        Thread.sleep(FileWatcher.MIN_POLL_INTERVAL_MILLIS * 4);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testCreatedFileIsNotified() throws Exception {
+        watcher = new FileWatcher(false);
+        Path file = tempFolder.getRoot().toPath().resolve("created.properties");
+        CountDownLatch changed = new CountDownLatch(1);
+
+        watcher.watch(file, 50, changed::countDown);
+        write(file, "key=value");
+
+        assertTrue(changed.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSlowCallbackDoesNotDelayOtherFiles() throws Exception {
+        watcher = new FileWatcher(true);
+        Path slowFile = tempFolder.newFile("slow.properties").toPath();
+        Path fastFile = tempFolder.newFile("fast.properties").toPath();
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastChanged = new CountDownLatch(1);
+
+        watcher.watch(slowFile, 0, () -> {
+            slowStarted.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        watcher.watch(fastFile, 0, fastChanged::countDown);
+        try {
+            write(slowFile, "key=slow");
+            assertTrue(slowStarted.await(10, TimeUnit.SECONDS));
+            write(fastFile, "key=fast");
+
+            assertTrue(fastChanged.await(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testChangeDuringCallbackRunsCallbackAgainAfterwards() throws Exception {
+        watcher = new FileWatcher(true);
+        Path file = tempFolder.newFile("serial.properties").toPath();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch secondCall = new CountDownLatch(2);
+
+        watcher.watch(file, 0, () -> {
+            if (running.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            firstStarted.countDown();
+            try {
+                Thread.sleep(FileWatcher.MIN_POLL_INTERVAL_MILLIS * 3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            secondCall.countDown();
+        });
+        write(file, "key=first");
+        assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+        write(file, "key=second-value");
+
+        assertTrue(secondCall.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+    }
+
+    private void assertBurstIsCoalesced(FileWatcher fileWatcher) throws Exception {
+        watcher = fileWatcher;
+        Path file = tempFolder.newFile("burst.properties").toPath();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch changed = new CountDownLatch(1);
+
+        watcher.watch(file, 300, () -> {
+            calls.incrementAndGet();
+            changed.countDown();
+        });
+        for (int i = 0; i < 5; i++) {
+            write(file, "key=value-" + i + "\n" + repeat(i));
+        }
+
+        assertTrue(changed.await(10, TimeUnit.SECONDS));
+        Thread.sleep(600);
+        assertEquals(1, calls.get());
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String repeat(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append('#');
+        }
+        return builder.toString();
+    }
+}
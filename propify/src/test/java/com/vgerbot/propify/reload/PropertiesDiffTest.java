@@ -0,0 +1,65 @@
+package com.vgerbot.propify.reload;
+
+import com.vgerbot.propify.core.PropifyProperties;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import static org.junit.Assert.*;
+
+public class PropertiesDiffTest {
+
+    @Test
+    public void testNestedKeysAreReportedInDotNotation() {
+        PropifyProperties previous = new PropifyProperties();
+        previous.put("name", "app");
+        previous.put("removed", "value");
+        PropifyProperties previousServer = previous.createNested("server");
+        previousServer.put("host", "localhost");
+        previousServer.put("port", 8080);
+
+        PropifyProperties current = new PropifyProperties();
+        current.put("name", "app");
+        current.put("added", "value");
+        PropifyProperties currentServer = current.createNested("server");
+        currentServer.put("host", "localhost");
+        currentServer.put("port", 9090);
+
+        PropertiesDiff diff = PropertiesDiff.between(previous, current);
+
+        assertEquals(Collections.singleton("added"), diff.getAddedKeys());
+        assertEquals(Collections.singleton("removed"), diff.getRemovedKeys());
+        assertEquals(Collections.singleton("server.port"), diff.getModifiedKeys());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("added", "removed", "server.port")), diff.getChangedKeys());
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    public void testEqualArraysAreUnchanged() {
+        PropifyProperties previous = new PropifyProperties();
+        previous.put("buckets", new long[]{1L, 2L});
+        previous.put("hosts", Arrays.asList("a", "b"));
+        PropifyProperties current = new PropifyProperties();
+        current.put("buckets", new long[]{1L, 2L});
+        current.put("hosts", Arrays.asList("a", "b"));
+
+        assertTrue(PropertiesDiff.between(previous, current).isEmpty());
+
+        current.put("hosts", Arrays.asList("a", "c"));
+        assertEquals(Collections.singleton("hosts"), PropertiesDiff.between(previous, current).getModifiedKeys());
+    }
+
+    @Test
+    public void testFirstLoadReportsAllKeysAsAdded() {
+        PropifyProperties current = new PropifyProperties();
+        current.put("name", "app");
+        current.createNested("server").put("port", 8080);
+
+        PropertiesDiff diff = PropertiesDiff.between(null, current);
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("name", "server.port")), diff.getAddedKeys());
+        assertTrue(diff.getRemovedKeys().isEmpty());
+    }
+}
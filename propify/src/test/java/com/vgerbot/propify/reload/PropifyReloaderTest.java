@@ -0,0 +1,82 @@
+package com.vgerbot.propify.reload;
+
+import com.vgerbot.propify.core.PropifyContext;
+import com.vgerbot.propify.core.PropifyProperties;
+import com.vgerbot.propify.core.ResourceLoader;
+import com.vgerbot.propify.logger.Logger;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class PropifyReloaderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private FileWatcher watcher;
+
+    @After
+    public void tearDown() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void testChangeDuringFirstLoadIsReloaded() throws Exception {
+        watcher = new FileWatcher(true);
+        Path file = tempFolder.newFile("app.properties").toPath();
+        write(file, "name=first");
+        AtomicBoolean firstLoad = new AtomicBoolean(true);
+        ResourceLoader loader = new ResourceLoader() {
+            @Override
+            public boolean accept(String location) {
+                return true;
+            }
+
+            @Override
+            public InputStream load(String location) throws IOException {
+                byte[] content = Files.readAllBytes(file);
+                if (firstLoad.getAndSet(false)) {
+                    // the file changes after it was read, before the first load returns
+                    write(file, "name=second-value");
+                }
+                return new ByteArrayInputStream(content);
+            }
+        };
+        PropifyContext context = PropifyContext.builder()
+                .location("file:" + file)
+                .mediaType("text/x-java-properties")
+                .resourceLoaderProvider(location -> loader)
+                .logger(mock(Logger.class))
+                .build();
+        BlockingQueue<PropifyProperties> published = new LinkedBlockingQueue<>();
+        PropifyReloader reloader = new PropifyReloader(context, 0, published::add, watcher);
+
+        assertEquals("first", reloader.load().get("name"));
+
+        PropifyProperties reloaded = published.poll(10, TimeUnit.SECONDS);
+        assertNotNull(reloaded);
+        assertEquals("second-value", reloaded.get("name"));
+        reloader.close();
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
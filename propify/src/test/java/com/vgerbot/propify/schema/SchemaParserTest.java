@@ -6,6 +6,9 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static org.junit.Assert.*;
 
@@ -38,9 +41,34 @@ public class SchemaParserTest {
 
     @Test
     public void testInterfaceMethods() {
-        Method[] methods = SchemaParser.class.getDeclaredMethods();
+        long methods = Arrays.stream(SchemaParser.class.getDeclaredMethods())
+                .filter(method -> !method.isSynthetic())
+                .count();
 
-        assertEquals("Should have 2 methods", 2, methods.length);
+        assertEquals("Should have 3 methods", 3, methods);
+    }
+
+    @Test
+    public void testParseBufferDelegatesToStream() throws IOException {
+        SchemaParser parser = new SchemaParser() {
+            @Override
+            public SchemaDefinition parse(SchemaContext context, InputStream inputStream) throws IOException {
+                byte[] bytes = new byte[inputStream.available()];
+                inputStream.read(bytes);
+                return new SchemaDefinition(new String(bytes, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public boolean supports(SchemaType type) {
+                return true;
+            }
+        };
+
+        ByteBuffer buffer = ByteBuffer.wrap("Buffered".getBytes(StandardCharsets.UTF_8));
+        SchemaDefinition schema = parser.parseBuffer(null, buffer);
+
+        assertEquals("Buffered", schema.getName());
+        assertEquals("Buffer position should be unchanged", 0, buffer.position());
     }
 
     @Test
@@ -14,6 +14,8 @@ import org.mockito.MockitoAnnotations;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -110,6 +112,20 @@ public class JsonSchemaParserTest {
         assertFalse("age should not be required", schema.isRequired("age"));
     }
 
+    @Test
+    public void testParseBuffer() throws IOException {
+        String jsonSchema = "{\"title\": \"User\", \"type\": \"object\", " +
+                "\"properties\": {\"username\": {\"type\": \"string\"}}}";
+        byte[] bytes = jsonSchema.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+
+        SchemaDefinition schema = parser.parseBuffer(context, buffer);
+
+        assertEquals("Title should match", "User", schema.getTitle());
+        assertNotNull("Username property should exist", schema.getProperties().get("username"));
+    }
+
     @Test
     public void testParsePropertyWithFormat() throws IOException {
         String jsonSchema = "{\n" +